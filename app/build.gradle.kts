@@ -32,6 +32,21 @@ android {
         dataBinding = true
         buildConfig = true
     }
+    testOptions {
+        // android.util.Log and friends return defaults in local unit tests
+        unitTests.isReturnDefaultValues = true
+        // Robolectric tests (WorkManager)
+        unitTests.isIncludeAndroidResources = true
+        // Enables and scales the paging load test, e.g. -Ploadtest.enabled=true -Ploadtest.pages=5000
+        unitTests.all {
+            it.systemProperties(project.properties.filterKeys { key -> key.startsWith("loadtest.") })
+        }
+    }
+}
+
+secrets {
+    // Keeps the build working when local.properties only defines one of the credentials
+    defaultPropertiesFileName = "local.defaults.properties"
 }
 
 dependencies {
@@ -45,6 +60,7 @@ dependencies {
     implementation(libs.retrofit)
     implementation(libs.converter.scalars)
     implementation(libs.logging.interceptor)
+    implementation(libs.okhttp.brotli)
     implementation(libs.gson)
     implementation(libs.converter.gson)
 
@@ -52,14 +68,15 @@ dependencies {
     implementation(libs.paging.runtime)
     implementation(libs.paging.rxjava3)
     implementation(libs.adapter.rxjava3)
+    implementation(libs.rxandroid)
 
     // Hilt Dagger
     implementation(libs.hilt.android)
     annotationProcessor(libs.hilt.compiler)
 
-    //ViewModel and Live Data
+    //ViewModel and Lifecycle
     implementation(libs.lifecycle.viewmodel.ktx)
-    implementation(libs.lifecycle.livedata.ktx)
+    implementation(libs.lifecycle.runtime)
 
     // Swipe to refresh
     implementation(libs.swiperefreshlayout)
@@ -67,8 +84,23 @@ dependencies {
     // Glide
     implementation(libs.glide)
     annotationProcessor(libs.compiler)
+    implementation(libs.glide.okhttp3.integration)
+
+    // WorkManager
+    implementation(libs.work.runtime)
+    implementation(libs.work.rxjava3)
+    implementation(libs.hilt.work)
+    annotationProcessor(libs.androidx.hilt.compiler)
+
+    // App Startup
+    implementation(libs.startup.runtime)
 
     testImplementation(libs.junit)
+    testImplementation(libs.mockwebserver)
+    testImplementation(libs.okhttp.tls)
+    testImplementation(libs.work.testing)
+    testImplementation(libs.robolectric)
+    testImplementation(libs.test.core)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.elegidocodes.networkpagination.application;
+
+import androidx.annotation.NonNull;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Opens a connection to a host ahead of the first real request.
+ *
+ * <p>A {@code HEAD} request to the host root resolves DNS and performs the TCP and
+ * TLS handshakes; the response is discarded, but the connection stays in the
+ * client's pool and is reused by the next request to the same host. The status
+ * code does not matter, only the connection does.</p>
+ */
+public final class ConnectionPrewarmer {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ConnectionPrewarmer() {
+        // Utility class
+    }
+
+    /**
+     * Opens a connection to the host of the given URL on an I/O thread.
+     *
+     * @param client The client whose connection pool should hold the connection
+     * @param url    Any URL of the host to connect to
+     * @return a {@link Completable} completing once the connection is established
+     */
+    @NonNull
+    public static Completable prewarm(@NonNull OkHttpClient client, @NonNull HttpUrl url) {
+        return Completable.fromAction(() -> {
+                    Request request = new Request.Builder()
+                            .url(url.resolve("/"))
+                            .head()
+                            .build();
+                    try (Response ignored = client.newCall(request).execute()) {
+                        // Only the connection is needed
+                    }
+                })
+                .subscribeOn(Schedulers.io());
+    }
+
+}
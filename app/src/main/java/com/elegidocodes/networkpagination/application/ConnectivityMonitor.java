@@ -0,0 +1,76 @@
+package com.elegidocodes.networkpagination.application;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+
+import androidx.annotation.NonNull;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+/**
+ * Feeds {@link NetworkStateManager} from the system {@link ConnectivityManager}.
+ *
+ * <p>Listens to the default network, so the state follows the network the app's
+ * requests actually go through.</p>
+ */
+@Singleton
+public class ConnectivityMonitor extends ConnectivityManager.NetworkCallback {
+
+    private final ConnectivityManager connectivityManager;
+    private final NetworkStateManager networkStateManager;
+
+    private boolean started;
+
+    @Inject
+    public ConnectivityMonitor(@ApplicationContext Context context, NetworkStateManager networkStateManager) {
+        this.connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        this.networkStateManager = networkStateManager;
+    }
+
+    /**
+     * Starts listening to the default network. Calling it again has no effect.
+     */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+
+        // Read the current network now: the callback is asynchronous, and only
+        // invoked when a network is available
+        networkStateManager.setState(currentState());
+        connectivityManager.registerDefaultNetworkCallback(this);
+    }
+
+    @Override
+    public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities capabilities) {
+        networkStateManager.setState(toNetworkState(capabilities));
+    }
+
+    @Override
+    public void onLost(@NonNull Network network) {
+        networkStateManager.setState(NetworkState.OFFLINE);
+    }
+
+    private NetworkState currentState() {
+        Network network = connectivityManager.getActiveNetwork();
+        NetworkCapabilities capabilities = network != null
+                ? connectivityManager.getNetworkCapabilities(network)
+                : null;
+        return capabilities != null ? toNetworkState(capabilities) : NetworkState.OFFLINE;
+    }
+
+    private static NetworkState toNetworkState(NetworkCapabilities capabilities) {
+        if (!capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                || !capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED)) {
+            return NetworkState.OFFLINE;
+        }
+        return capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED)
+                ? NetworkState.UNMETERED
+                : NetworkState.METERED;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.elegidocodes.networkpagination.application;
+
+/**
+ * Priority of a network request, attached to it as a Retrofit or OkHttp tag.
+ *
+ * <p>When requests compete for the rate limit or for the connections, higher
+ * priorities are served first. Untagged requests are treated as {@link #VISIBLE}.</p>
+ */
+public enum LoadPriority {
+
+    /**
+     * Content the user is waiting for, such as the page on screen and its posters.
+     */
+    VISIBLE,
+
+    /**
+     * Content loaded ahead of the user, such as the next pages of the grid.
+     */
+    PREFETCH,
+
+    /**
+     * Work the user does not wait for, such as refreshing the cache or loading
+     * the posters of rows not on screen yet.
+     */
+    BACKGROUND
+
+}
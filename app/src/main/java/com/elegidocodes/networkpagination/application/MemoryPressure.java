@@ -0,0 +1,23 @@
+package com.elegidocodes.networkpagination.application;
+
+/**
+ * Memory pressure on the app, as reported by the system.
+ */
+public enum MemoryPressure {
+
+    /**
+     * Memory is plentiful: caches use their normal sizes.
+     */
+    NONE,
+
+    /**
+     * The system is running low: caches shrink to what the screen needs.
+     */
+    MODERATE,
+
+    /**
+     * The process is about to be killed: caches keep the bare minimum.
+     */
+    CRITICAL
+
+}
@@ -0,0 +1,142 @@
+package com.elegidocodes.networkpagination.application;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.MemoryCategory;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+
+/**
+ * Turns the system's {@code onTrimMemory}/{@code onLowMemory} callbacks into a
+ * {@link MemoryPressure} level that caches react to.
+ *
+ * <p>Glide is handled here: its memory cache and bitmap pool are halved under
+ * pressure and emptied when it is critical. Page and detail caches observe
+ * {@link #observe()} and shrink themselves.</p>
+ *
+ * <p>The system never reports that pressure is over, so the level goes back to
+ * {@link MemoryPressure#NONE} once no trim request has been received for
+ * {@link #RELIEF_DELAY_SECONDS}. Like the system callbacks, everything runs on
+ * the main thread, which Glide requires.</p>
+ */
+@Singleton
+public class MemoryPressureCoordinator implements ComponentCallbacks2 {
+
+    private static final String TAG = "MemoryPressure";
+
+    /**
+     * Quiet period after which the pressure is considered gone.
+     */
+    static final long RELIEF_DELAY_SECONDS = 60;
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final BehaviorSubject<MemoryPressure> pressure = BehaviorSubject.createDefault(MemoryPressure.NONE);
+
+    /**
+     * Return to {@link MemoryPressure#NONE}, posted after each report.
+     */
+    private final Runnable relief = this::relieve;
+
+    @Inject
+    public MemoryPressureCoordinator(@ApplicationContext Context context) {
+        this.context = context;
+    }
+
+    /**
+     * @return the current pressure
+     */
+    @NonNull
+    public MemoryPressure getPressure() {
+        //noinspection ConstantConditions - created with a default value
+        return pressure.getValue();
+    }
+
+    /**
+     * @return the current pressure followed by every change
+     */
+    @NonNull
+    public Observable<MemoryPressure> observe() {
+        return pressure.distinctUntilChanged();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        MemoryPressure reported = toPressure(level);
+        if (reported != MemoryPressure.NONE) {
+            report(reported);
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        report(MemoryPressure.CRITICAL);
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        // Not related to memory
+    }
+
+    /**
+     * Maps a trim level to a pressure. {@code TRIM_MEMORY_UI_HIDDEN} is not memory
+     * pressure, only a hint that the UI is gone.
+     */
+    @SuppressWarnings("deprecation") // Levels still delivered on older releases
+    static MemoryPressure toPressure(int level) {
+        if (level >= TRIM_MEMORY_COMPLETE) return MemoryPressure.CRITICAL;
+        if (level >= TRIM_MEMORY_BACKGROUND) return MemoryPressure.MODERATE;
+        if (level == TRIM_MEMORY_UI_HIDDEN) return MemoryPressure.NONE;
+        if (level >= TRIM_MEMORY_RUNNING_CRITICAL) return MemoryPressure.CRITICAL;
+        if (level >= TRIM_MEMORY_RUNNING_MODERATE) return MemoryPressure.MODERATE;
+        return MemoryPressure.NONE;
+    }
+
+    /**
+     * Raises the pressure to the reported level (it never lowers it) and restarts
+     * the relief delay.
+     */
+    private void report(MemoryPressure reported) {
+        MemoryPressure current = getPressure();
+        MemoryPressure next = reported.compareTo(current) > 0 ? reported : current;
+        Log.i(TAG, "Memory pressure " + reported + ", now " + next);
+        apply(next);
+
+        mainHandler.removeCallbacks(relief);
+        mainHandler.postDelayed(relief, TimeUnit.SECONDS.toMillis(RELIEF_DELAY_SECONDS));
+    }
+
+    private void relieve() {
+        Log.i(TAG, "Memory pressure cleared");
+        apply(MemoryPressure.NONE);
+    }
+
+    private void apply(MemoryPressure next) {
+        applyToGlide(next);
+        pressure.onNext(next);
+    }
+
+    private void applyToGlide(MemoryPressure next) {
+        Glide glide = Glide.get(context);
+        glide.setMemoryCategory(next == MemoryPressure.NONE ? MemoryCategory.NORMAL : MemoryCategory.LOW);
+        if (next == MemoryPressure.CRITICAL) {
+            glide.clearMemory();
+        }
+    }
+
+}
@@ -1,10 +1,13 @@
 package com.elegidocodes.networkpagination.application;
 
+import com.elegidocodes.networkpagination.model.MovieDetail;
 import com.elegidocodes.networkpagination.model.PopularMoviesResult;
 
 import io.reactivex.rxjava3.core.Single;
 import retrofit2.http.GET;
+import retrofit2.http.Path;
 import retrofit2.http.Query;
+import retrofit2.http.Tag;
 
 /**
  * Retrofit service interface for The Movie Database (TMDB) API.
@@ -20,11 +23,31 @@ public interface MyAPI {
      *
      * <p>This endpoint hits: {@code GET /movie/popular}</p>
      *
-     * @param page The page number to fetch (1-based index)
+     * @param page     The page number to fetch (1-based index)
+     * @param priority Priority of the request under the rate limit, see {@link LoadPriority}
      * @return A {@link Single} emitting a {@link PopularMoviesResult} containing movie data
      */
     @GET("movie/popular")
-    Single<PopularMoviesResult> getPopularMovies(@Query("page") int page);
+    Single<PopularMoviesResult> getPopularMovies(@Query("page") int page, @Tag LoadPriority priority);
+
+    /**
+     * Fetches the details of a single movie from the TMDB API.
+     *
+     * <p>This endpoint hits: {@code GET /movie/{movie_id}}. Extra blocks such as
+     * {@code credits} or {@code videos} can be requested in the same round trip
+     * through {@code append_to_response}.</p>
+     *
+     * @param movieId          The TMDB identifier of the movie
+     * @param appendToResponse Comma separated list of sub-requests to append (e.g. {@code "credits,videos"})
+     * @param priority         Priority of the request under the rate limit, see {@link LoadPriority}
+     * @return A {@link Single} emitting the {@link MovieDetail} of the movie
+     */
+    @GET("movie/{movie_id}")
+    Single<MovieDetail> getMovieDetail(
+            @Path("movie_id") int movieId,
+            @Query("append_to_response") String appendToResponse,
+            @Tag LoadPriority priority
+    );
 
 }
 
@@ -2,6 +2,15 @@ package com.elegidocodes.networkpagination.application;
 
 import android.app.Application;
 
+import androidx.annotation.NonNull;
+import androidx.hilt.work.HiltWorkerFactory;
+import androidx.startup.AppInitializer;
+import androidx.work.Configuration;
+
+import com.elegidocodes.networkpagination.work.PopularMoviesRefreshWorker;
+
+import javax.inject.Inject;
+
 import dagger.hilt.android.HiltAndroidApp;
 
 /**
@@ -11,8 +20,43 @@ import dagger.hilt.android.HiltAndroidApp;
  * including a base class for your application that serves as the application-level dependency container.
  * <p>
  * This is the entry point for Hilt's dependency injection system.
+ * <p>
+ * It also provides the WorkManager configuration, so workers are created by Hilt.
  */
 @HiltAndroidApp
-public class MyApp extends Application {
-    // No need to override anything unless you want to do application-wide setup.
+public class MyApp extends Application implements Configuration.Provider {
+
+    @Inject
+    ConnectivityMonitor connectivityMonitor;
+
+    @Inject
+    HiltWorkerFactory workerFactory;
+
+    @Inject
+    MemoryPressureCoordinator memoryPressureCoordinator;
+
+    /**
+     * Sets up the network stack before any screen can request a page: the HTTP
+     * cache used while offline, the connectivity monitoring, the clients and the
+     * first connections to the TMDB hosts, built in the background by
+     * {@link NetworkInitializer}, and the background refresh of the first pages.
+     * Also starts listening to memory pressure.
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate(); // Injects the fields above
+        AppInitializer.getInstance(this).initializeComponent(NetworkInitializer.class);
+        connectivityMonitor.start();
+        PopularMoviesRefreshWorker.schedule(this);
+        registerComponentCallbacks(memoryPressureCoordinator);
+    }
+
+    @NonNull
+    @Override
+    public Configuration getWorkManagerConfiguration() {
+        return new Configuration.Builder()
+                .setWorkerFactory(workerFactory)
+                .build();
+    }
+
 }
@@ -0,0 +1,37 @@
+package com.elegidocodes.networkpagination.application;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.module.AppGlideModule;
+
+import java.io.InputStream;
+
+/**
+ * Glide configuration of the app.
+ *
+ * <p>Posters are downloaded through {@link MyRetrofit#getImageClient()}, so they use
+ * HTTP/2 and the connection pool shared with the API client, including the
+ * connection to {@code image.tmdb.org} opened by {@link MyRetrofit#prewarm()}. Each
+ * download carries the priority of its load, see {@link PriorityUrlLoader}.</p>
+ */
+@GlideModule
+public final class MyGlideModule extends AppGlideModule {
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.replace(GlideUrl.class, InputStream.class,
+                new PriorityUrlLoader.Factory(MyRetrofit.getImageClient()));
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+
+}
@@ -1,14 +1,28 @@
 package com.elegidocodes.networkpagination.application;
 
+import android.content.Context;
 import android.util.Log;
 
+import androidx.annotation.VisibleForTesting;
+
 import com.elegidocodes.networkpagination.BuildConfig;
+import com.elegidocodes.networkpagination.model.MovieDetail;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
 
+import java.io.File;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
+import io.reactivex.rxjava3.core.Single;
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
+import okhttp3.brotli.BrotliInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.adapter.rxjava3.RxJava3CallAdapterFactory;
 import retrofit2.converter.gson.GsonConverterFactory;
@@ -19,25 +33,87 @@ import retrofit2.converter.gson.GsonConverterFactory;
  * <p>This class sets up Retrofit with:
  * <ul>
  *     <li>Custom {@link OkHttpClient} including timeouts</li>
- *     <li>Automatic TMDB API key injection via request interceptor</li>
+ *     <li>HTTP/2 with a connection pool shared with the image client</li>
+ *     <li>A limit of requests in flight shared with the image client, started by priority</li>
+ *     <li>Brotli and gzip response decoding</li>
+ *     <li>TMDB authentication (v4 bearer token or v3 API key) via {@link TmdbAuthInterceptor}</li>
+ *     <li>A client-side rate limit, with visible loads first and {@code Retry-After} honored</li>
+ *     <li>An HTTP disk cache serving responses while the device is offline</li>
  *     <li>Gson for JSON parsing</li>
  *     <li>RxJava3 support for reactive API calls</li>
  * </ul>
  *
- * <p>Use {@link #getService()} to access the API implementation.</p>
+ * <p>Use {@link #getService()} (or {@link #getDeferredService()} on the main thread)
+ * to access the API implementation and {@link #getImageClient()} for image downloads.</p>
  */
 public class MyRetrofit {
 
+    private static final String TAG = "MyRetrofit";
+
     /**
      * Base URL for TMDB API (v3).
      */
     private static final String BASE_URL = "https://api.themoviedb.org/3/";
 
+    /**
+     * Size of the HTTP disk cache.
+     */
+    private static final long CACHE_SIZE_BYTES = 10L * 1024 * 1024;
+
+    /**
+     * Idle connections kept alive: one per host is enough with HTTP/2 multiplexing,
+     * the rest absorbs HTTP/1.1 fallbacks.
+     */
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+
+    /**
+     * Client-side rate limit of the API, below the limit TMDB enforces per IP
+     * (around 50 requests per second).
+     */
+    private static final int RATE_LIMIT_BURST = 20;
+    public static final double RATE_LIMIT_PER_SECOND = 20;
+
+    /**
+     * Requests in flight across the API and image clients, and the waiting time
+     * after which a request gains a priority level.
+     */
+    private static final int MAX_REQUESTS_IN_FLIGHT = 6;
+    private static final long PRIORITY_AGING_MILLIS = 400;
+
+    /**
+     * Asynchronous calls started per host by the OkHttp dispatcher. Higher than
+     * {@link #MAX_REQUESTS_IN_FLIGHT}, so poster downloads are ordered by the
+     * {@link RequestScheduler} rather than queued in arrival order by the dispatcher.
+     */
+    private static final int MAX_CALLS_PER_HOST = 32;
+
     /**
      * Singleton instance of Retrofit to prevent redundant reinitialization.
      */
     private static Retrofit retrofit;
 
+    /**
+     * Singleton instance of the TMDB service. Volatile, so callers find it built
+     * without taking the class lock that {@link NetworkInitializer} holds while building it.
+     */
+    private static volatile MyAPI service;
+
+    /**
+     * Service resolving {@link #service} when a request is subscribed to.
+     */
+    private static final MyAPI DEFERRED_SERVICE = new DeferredService();
+
+    /**
+     * Directory of the HTTP cache, set by {@link #init(Context, NetworkStateManager)}.
+     */
+    private static File cacheDirectory;
+
+    /**
+     * Connectivity of the device, set by {@link #init(Context, NetworkStateManager)}.
+     */
+    private static NetworkStateManager networkStateManager;
+
     /**
      * Private constructor to prevent instantiation.
      */
@@ -45,45 +121,102 @@ public class MyRetrofit {
         // Prevent instantiation - access through getService()
     }
 
+    /**
+     * Provides the application-level dependencies of the client. Must be called
+     * before the first {@link #getService()} call, typically from the application.
+     *
+     * @param context             Any context, used to locate the cache directory
+     * @param networkStateManager Connectivity of the device
+     */
+    public static synchronized void init(Context context, NetworkStateManager networkStateManager) {
+        MyRetrofit.cacheDirectory = new File(context.getCacheDir(), "http");
+        MyRetrofit.networkStateManager = networkStateManager;
+    }
+
+    /**
+     * Opens the connections to the API and image hosts in the background (DNS,
+     * TCP and TLS), so the first page and the first posters do not pay for them.
+     * Builds the shared client if needed, so it should not be called on the main thread.
+     */
+    public static void prewarm() {
+        OkHttpClient client = SharedClients.BASE_CLIENT;
+        for (String url : Arrays.asList(BASE_URL, TmdbImages.BASE_URL)) {
+            ConnectionPrewarmer.prewarm(client, HttpUrl.get(url))
+                    .subscribe(
+                            () -> Log.d(TAG, "Connection to " + url + " ready"),
+                            throwable -> Log.w(TAG, "Could not prewarm " + url, throwable)
+                    );
+        }
+    }
+
+    /**
+     * Returns the client used by Glide to download posters. It shares the
+     * connection pool of the API client, so a connection opened by
+     * {@link #prewarm()} is reused by the first poster. It does not wait for
+     * the service, which is built under the class lock.
+     *
+     * @return the image client
+     */
+    public static OkHttpClient getImageClient() {
+        return SharedClients.IMAGE_CLIENT;
+    }
+
     /**
      * Returns a singleton instance of {@link MyAPI}, the Retrofit service interface for TMDB API.
      * Initializes Retrofit and OkHttpClient on first call with appropriate configuration:
      * <ul>
      *     <li>Timeouts set to 59 seconds</li>
-     *     <li>Interceptor that injects the API key into every request</li>
+     *     <li>Network interceptor that authenticates every request</li>
+     *     <li>Token bucket taken by every request sent to the network, retries on 429/503</li>
+     *     <li>Slot of the shared scheduler taken after the token</li>
+     *     <li>HTTP cache, forced while offline so cached pages are still served</li>
      *     <li>Gson and RxJava3 adapters added</li>
+     *     <li>Every service method parsed up front, with the Gson adapter of its response</li>
      * </ul>
+     * Building it takes a while: {@link NetworkInitializer} calls it in the background
+     * at startup. On the main thread, use {@link #getDeferredService()}.
      *
      * @return an instance of {@link MyAPI} for making network requests
      */
     public static MyAPI getService() {
+        MyAPI built = service;
+        return built != null ? built : buildService();
+    }
 
-        String apiKey = BuildConfig.apiKey;
+    /**
+     * Returns a {@link MyAPI} that gets the service of {@link #getService()} when a
+     * request is subscribed to, rather than when it is created. Requests created on
+     * the main thread and subscribed to on a background scheduler never wait there
+     * for the service to be built.
+     *
+     * @return the deferred service
+     */
+    public static MyAPI getDeferredService() {
+        return DEFERRED_SERVICE;
+    }
+
+    private static synchronized MyAPI buildService() {
 
         if (retrofit == null) {
-            // Configure OkHttpClient with timeouts and API key interceptor
-            OkHttpClient client = new OkHttpClient.Builder()
-                    .connectTimeout(59, TimeUnit.SECONDS) // Time allowed to establish connection
-                    .writeTimeout(59, TimeUnit.SECONDS)   // Time allowed to write data
-                    .readTimeout(59, TimeUnit.SECONDS)    // Time allowed to receive data
-
-                    // Interceptor to append API key to every request
-                    .addInterceptor(chain -> {
-                        Request original = chain.request();
-                        HttpUrl originalHttpUrl = original.url();
-
-                        // Append API key to query parameters
-                        HttpUrl url = originalHttpUrl.newBuilder()
-                                .addQueryParameter("api_key", apiKey) //API_KEY
-                                .build();
-
-                        // Rebuild the request with updated URL
-                        Request.Builder requestBuilder = original.newBuilder().url(url);
-                        Request request = requestBuilder.build();
-
-                        return chain.proceed(request);
-                    })
-                    .build();
+            // Derive the API client from the shared one
+            OkHttpClient.Builder builder = newApiClientBuilder(
+                    SharedClients.BASE_CLIENT, newRateLimit(), SharedClients.SCHEDULER);
+
+            if (cacheDirectory != null) {
+                builder.cache(new Cache(cacheDirectory, CACHE_SIZE_BYTES))
+                        // While offline, only answer from the cache (504 on a miss)
+                        .addInterceptor(chain -> {
+                            Request request = chain.request();
+                            if (networkStateManager != null && !networkStateManager.isOnline()) {
+                                request = request.newBuilder()
+                                        .cacheControl(CacheControl.FORCE_CACHE)
+                                        .build();
+                            }
+                            return chain.proceed(request);
+                        });
+            }
+
+            OkHttpClient client = builder.build();
 
             // Build Retrofit instance with RxJava and Gson support
             retrofit = new Retrofit.Builder()
@@ -91,9 +224,141 @@ public class MyRetrofit {
                     .addConverterFactory(GsonConverterFactory.create()) // Parse JSON using Gson
                     .addCallAdapterFactory(RxJava3CallAdapterFactory.create()) // Support RxJava3
                     .client(client)
+                    // Reflection and Gson adapters on this thread, not on the first call
+                    .validateEagerly(true)
                     .build();
+            service = retrofit.create(MyAPI.class);
         }
 
-        return retrofit.create(MyAPI.class);
+        return service;
+    }
+
+    /**
+     * Forwards each request to the service, built on the subscribing thread if needed.
+     */
+    private static final class DeferredService implements MyAPI {
+
+        @Override
+        public Single<PopularMoviesResult> getPopularMovies(int page, LoadPriority priority) {
+            return Single.defer(() -> getService().getPopularMovies(page, priority));
+        }
+
+        @Override
+        public Single<MovieDetail> getMovieDetail(int movieId, String appendToResponse, LoadPriority priority) {
+            return Single.defer(() -> getService().getMovieDetail(movieId, appendToResponse, priority));
+        }
+    }
+
+    /**
+     * Clients and scheduler shared by the API and image clients, built on first use
+     * by the class loader rather than under the lock of {@link MyRetrofit}.
+     */
+    private static final class SharedClients {
+
+        /**
+         * Client holding the connection pool and dispatcher shared by every client.
+         * It has no network interceptors: they would run before the ones of the
+         * derived clients.
+         */
+        static final OkHttpClient BASE_CLIENT = newBaseClient();
+
+        /**
+         * Limit of requests in flight shared by the API and image clients.
+         */
+        static final RequestScheduler SCHEDULER = newScheduler();
+
+        /**
+         * Client used by Glide.
+         */
+        static final OkHttpClient IMAGE_CLIENT = newImageClientBuilder(BASE_CLIENT, SCHEDULER).build();
+
+        private static OkHttpClient newBaseClient() {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequestsPerHost(MAX_CALLS_PER_HOST);
+            return newClientBuilder()
+                    .dispatcher(dispatcher)
+                    .build();
+        }
+    }
+
+    /**
+     * @return a bucket with the client-side rate limit of the API
+     */
+    @VisibleForTesting
+    public static TokenBucket newRateLimit() {
+        return new TokenBucket(RATE_LIMIT_BURST, RATE_LIMIT_PER_SECOND);
+    }
+
+    /**
+     * @return a scheduler with the limit of requests in flight of the app
+     */
+    @VisibleForTesting
+    public static RequestScheduler newScheduler() {
+        return new RequestScheduler(MAX_REQUESTS_IN_FLIGHT, PRIORITY_AGING_MILLIS);
+    }
+
+    /**
+     * Derives the API client from the shared one. A request waits for a rate-limit
+     * token before it waits for a slot of the scheduler, so a request held back by
+     * the rate limit (or a {@code Retry-After}) never keeps a slot from the posters.
+     *
+     * @param baseClient Client holding the shared connection pool and dispatcher
+     * @param rateLimit  Bucket taken by every API request sent to the network
+     * @param scheduler  Limit of requests in flight shared with the image client
+     * @return a new builder, without the HTTP cache
+     */
+    @VisibleForTesting
+    public static OkHttpClient.Builder newApiClientBuilder(OkHttpClient baseClient, TokenBucket rateLimit,
+                                                           RequestScheduler scheduler) {
+        return baseClient.newBuilder()
+
+                // Waits for Retry-After and sends rate-limited requests again
+                .addInterceptor(new RetryAfterInterceptor(rateLimit))
+
+                // Credentials are added after the cache, which keeps them out of cache keys
+                .addNetworkInterceptor(TmdbAuthInterceptor.create(
+                        BuildConfig.tmdbReadAccessToken, BuildConfig.apiKey))
+
+                // Cache hits do not count against the rate limit
+                .addNetworkInterceptor(new RateLimitInterceptor(rateLimit))
+
+                // Last, once the token is taken: the waiting ones start by priority
+                .addNetworkInterceptor(new SchedulingInterceptor(scheduler));
+    }
+
+    /**
+     * Derives the image client from the shared one. Posters share the connections
+     * and the limit of requests in flight of the API client.
+     *
+     * @param baseClient Client holding the shared connection pool and dispatcher
+     * @param scheduler  Limit of requests in flight shared with the API client
+     * @return a new builder
+     */
+    @VisibleForTesting
+    static OkHttpClient.Builder newImageClientBuilder(OkHttpClient baseClient, RequestScheduler scheduler) {
+        return baseClient.newBuilder()
+                .addNetworkInterceptor(new SchedulingInterceptor(scheduler));
+    }
+
+    /**
+     * Creates a builder with the transport settings shared by every client:
+     * <ul>
+     *     <li>Timeouts set to 59 seconds</li>
+     *     <li>HTTP/2 preferred, HTTP/1.1 as fallback for hosts without ALPN support</li>
+     *     <li>Explicit connection pool, kept alive between screens</li>
+     *     <li>Brotli and gzip decoding ({@code Accept-Encoding: br,gzip})</li>
+     * </ul>
+     *
+     * @return a new builder with the shared settings
+     */
+    @VisibleForTesting
+    public static OkHttpClient.Builder newClientBuilder() {
+        return new OkHttpClient.Builder()
+                .connectTimeout(59, TimeUnit.SECONDS) // Time allowed to establish connection
+                .writeTimeout(59, TimeUnit.SECONDS)   // Time allowed to write data
+                .readTimeout(59, TimeUnit.SECONDS)    // Time allowed to receive data
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .addInterceptor(BrotliInterceptor.INSTANCE);
     }
 }
@@ -0,0 +1,69 @@
+package com.elegidocodes.networkpagination.application;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import java.util.Collections;
+import java.util.List;
+
+import dagger.hilt.EntryPoint;
+import dagger.hilt.InstallIn;
+import dagger.hilt.android.EntryPointAccessors;
+import dagger.hilt.components.SingletonComponent;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Builds the network stack off the main thread at startup, so neither the first
+ * frame nor the first page pays for it: the OkHttp clients, Retrofit and its Gson
+ * adapters, then the connections to the TMDB hosts.
+ *
+ * <p>Like WorkManager, it is not run by the {@code InitializationProvider} but on
+ * demand by {@link MyApp}, once Hilt has injected the application. Only the cache
+ * location and the connectivity are set on the calling thread, so a page requested
+ * before the stack is ready still goes through the cache; it waits for the stack
+ * instead of building a second one.</p>
+ */
+public class NetworkInitializer implements Initializer<Void> {
+
+    private static final String TAG = "NetworkInitializer";
+
+    /**
+     * Dependencies of the initializer, from the application component.
+     */
+    @EntryPoint
+    @InstallIn(SingletonComponent.class)
+    public interface NetworkInitializerEntryPoint {
+        NetworkStateManager networkStateManager();
+    }
+
+    @Override
+    public Void create(@NonNull Context context) {
+        NetworkInitializerEntryPoint entryPoint =
+                EntryPointAccessors.fromApplication(context, NetworkInitializerEntryPoint.class);
+        MyRetrofit.init(context, entryPoint.networkStateManager());
+
+        long start = SystemClock.elapsedRealtime();
+        Completable.fromAction(MyRetrofit::getService) // Clients, Retrofit and the Gson adapters of every response
+                .subscribeOn(Schedulers.io())
+                .subscribe(
+                        () -> {
+                            Log.d(TAG, "Network stack ready in " + (SystemClock.elapsedRealtime() - start) + " ms");
+                            MyRetrofit.prewarm();
+                        },
+                        throwable -> Log.w(TAG, "Could not build the network stack", throwable)
+                );
+        return null;
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.emptyList();
+    }
+
+}
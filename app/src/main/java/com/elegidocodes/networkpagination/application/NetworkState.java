@@ -0,0 +1,31 @@
+package com.elegidocodes.networkpagination.application;
+
+/**
+ * Connectivity of the device, as seen by the app.
+ */
+public enum NetworkState {
+
+    /**
+     * No validated network: requests can only be served from the local cache.
+     */
+    OFFLINE,
+
+    /**
+     * Connected through a metered network (e.g. cellular): prefetch and image
+     * quality should be reduced.
+     */
+    METERED,
+
+    /**
+     * Connected through an unmetered network (e.g. Wi-Fi).
+     */
+    UNMETERED;
+
+    /**
+     * @return {@code true} if requests can reach the network
+     */
+    public boolean isOnline() {
+        return this != OFFLINE;
+    }
+
+}
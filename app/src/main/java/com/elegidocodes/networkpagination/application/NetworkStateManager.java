@@ -0,0 +1,76 @@
+package com.elegidocodes.networkpagination.application;
+
+import androidx.annotation.NonNull;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+
+/**
+ * Holds the current {@link NetworkState} of the app and lets components react to it.
+ *
+ * <p>The state is pushed by a connectivity source, {@link ConnectivityMonitor} in the
+ * app and a fake in tests. Page loads use {@link #awaitOnline()} to pause while the
+ * device is offline and resume automatically when connectivity returns.</p>
+ */
+@Singleton
+public class NetworkStateManager {
+
+    /**
+     * Assume connectivity until the connectivity source says otherwise, so the
+     * first load is not delayed.
+     */
+    private final BehaviorSubject<NetworkState> state = BehaviorSubject.createDefault(NetworkState.UNMETERED);
+
+    @Inject
+    public NetworkStateManager() {
+    }
+
+    /**
+     * Updates the current state.
+     *
+     * @param networkState The new connectivity of the device
+     */
+    public void setState(@NonNull NetworkState networkState) {
+        state.onNext(networkState);
+    }
+
+    /**
+     * @return the current state
+     */
+    @NonNull
+    public NetworkState getState() {
+        //noinspection ConstantConditions - created with a default value
+        return state.getValue();
+    }
+
+    /**
+     * @return {@code true} if requests can currently reach the network
+     */
+    public boolean isOnline() {
+        return getState().isOnline();
+    }
+
+    /**
+     * @return the current state followed by every change
+     */
+    @NonNull
+    public Observable<NetworkState> observe() {
+        return state.distinctUntilChanged();
+    }
+
+    /**
+     * @return a {@link Completable} completing as soon as the device is online,
+     * immediately if it already is
+     */
+    @NonNull
+    public Completable awaitOnline() {
+        return state.filter(NetworkState::isOnline)
+                .firstOrError()
+                .ignoreElement();
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.elegidocodes.networkpagination.application;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.integration.okhttp3.OkHttpStreamFetcher;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+
+import java.io.InputStream;
+
+import okhttp3.Call;
+
+/**
+ * Downloads Glide URLs with OkHttp, tagging each request with the
+ * {@link LoadPriority} matching the Glide {@link Priority} of the load.
+ *
+ * <p>Glide orders the loads it starts, but once started they compete with page
+ * loads on the shared client. The tag lets the {@link RequestScheduler} order them
+ * too: posters on screen ({@link Priority#IMMEDIATE} and {@link Priority#HIGH}) are
+ * visible content, posters of rows not on screen yet ({@link Priority#LOW}) are
+ * background work.</p>
+ */
+public final class PriorityUrlLoader implements ModelLoader<GlideUrl, InputStream> {
+
+    private final Call.Factory client;
+
+    private PriorityUrlLoader(Call.Factory client) {
+        this.client = client;
+    }
+
+    @Nullable
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull GlideUrl model, int width, int height, @NonNull Options options) {
+        return new LoadData<>(model, new PriorityFetcher(client, model));
+    }
+
+    @Override
+    public boolean handles(@NonNull GlideUrl model) {
+        return true;
+    }
+
+    /**
+     * Maps a Glide priority to the priority of the download.
+     *
+     * @param priority The priority of the Glide load
+     * @return the priority of its request
+     */
+    @NonNull
+    static LoadPriority toLoadPriority(@NonNull Priority priority) {
+        switch (priority) {
+            case IMMEDIATE:
+            case HIGH:
+                return LoadPriority.VISIBLE;
+            case LOW:
+                return LoadPriority.BACKGROUND;
+            default:
+                return LoadPriority.PREFETCH;
+        }
+    }
+
+    /**
+     * Factory registered in {@link MyGlideModule}, in place of the one of the OkHttp
+     * integration.
+     */
+    public static class Factory implements ModelLoaderFactory<GlideUrl, InputStream> {
+
+        private final Call.Factory client;
+
+        /**
+         * @param client The client downloading the images
+         */
+        public Factory(@NonNull Call.Factory client) {
+            this.client = client;
+        }
+
+        @NonNull
+        @Override
+        public ModelLoader<GlideUrl, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new PriorityUrlLoader(client);
+        }
+
+        @Override
+        public void teardown() {
+            // The client is shared, nothing to release
+        }
+
+    }
+
+    /**
+     * Fetcher of the OkHttp integration, with the priority known once the load starts.
+     */
+    private static final class PriorityFetcher implements DataFetcher<InputStream> {
+
+        private final OkHttpStreamFetcher delegate;
+        private volatile LoadPriority priority = LoadPriority.PREFETCH;
+
+        PriorityFetcher(Call.Factory client, GlideUrl url) {
+            delegate = new OkHttpStreamFetcher(
+                    request -> client.newCall(request.newBuilder().tag(LoadPriority.class, priority).build()),
+                    url);
+        }
+
+        @Override
+        public void loadData(@NonNull Priority priority, @NonNull DataCallback<? super InputStream> callback) {
+            this.priority = toLoadPriority(priority);
+            delegate.loadData(priority, callback);
+        }
+
+        @Override
+        public void cleanup() {
+            delegate.cleanup();
+        }
+
+        @Override
+        public void cancel() {
+            delegate.cancel();
+        }
+
+        @NonNull
+        @Override
+        public Class<InputStream> getDataClass() {
+            return delegate.getDataClass();
+        }
+
+        @NonNull
+        @Override
+        public DataSource getDataSource() {
+            return delegate.getDataSource();
+        }
+
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.elegidocodes.networkpagination.application;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Takes a token from a {@link TokenBucket} before each request reaches the network.
+ *
+ * <p>Install it as a <em>network</em> interceptor, so responses served by the HTTP
+ * cache do not count against the rate limit. The priority is read from the
+ * {@link LoadPriority} tag of the request.</p>
+ */
+public final class RateLimitInterceptor implements Interceptor {
+
+    private final TokenBucket bucket;
+
+    /**
+     * @param bucket The bucket shared by every request to the API
+     */
+    public RateLimitInterceptor(@NonNull TokenBucket bucket) {
+        this.bucket = bucket;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        LoadPriority priority = chain.request().tag(LoadPriority.class);
+        try {
+            bucket.acquire(priority != null ? priority : LoadPriority.VISIBLE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the rate limit");
+        }
+        return chain.proceed(chain.request());
+    }
+
+}
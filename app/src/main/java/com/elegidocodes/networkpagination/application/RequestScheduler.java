@@ -0,0 +1,123 @@
+package com.elegidocodes.networkpagination.application;
+
+import androidx.annotation.NonNull;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Limits the number of requests in flight and starts the waiting ones by priority.
+ *
+ * <p>Page loads and poster downloads share the same connections and bandwidth.
+ * Without a limit, a burst of posters delays the page the user is waiting for;
+ * with one, the freed slot goes to the waiting request of highest
+ * {@link LoadPriority}, and requests of the same priority start in arrival
+ * order.</p>
+ *
+ * <p>To prevent starvation, a request gains one priority level every
+ * {@code agingMillis} spent waiting: a {@link LoadPriority#BACKGROUND} request
+ * waits at most twice that long behind a steady flow of visible ones before it
+ * competes with them on arrival time only.</p>
+ */
+public final class RequestScheduler {
+
+    /**
+     * Interval at which waiting requests check whether they were cancelled.
+     */
+    private static final long CANCEL_CHECK_MILLIS = 50;
+
+    private final int maxRequests;
+    private final long agingNanos;
+
+    /**
+     * Waiting requests, the next one to start at the head.
+     */
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>();
+
+    private int running;
+    private long sequence;
+
+    /**
+     * @param maxRequests Maximum number of requests in flight
+     * @param agingMillis Waiting time after which a request gains a priority level
+     */
+    public RequestScheduler(int maxRequests, long agingMillis) {
+        if (maxRequests < 1 || agingMillis < 0) {
+            throw new IllegalArgumentException("Invalid limits: " + maxRequests + ", " + agingMillis);
+        }
+        this.maxRequests = maxRequests;
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(agingMillis);
+    }
+
+    /**
+     * Waits until the request may start. Every successful call must be followed
+     * by a call to {@link #release()}.
+     *
+     * @param priority Priority of the request
+     * @param canceled Whether the request was cancelled while waiting
+     * @return {@code true} once the request may start, {@code false} if it was cancelled
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public synchronized boolean acquire(@NonNull LoadPriority priority, @NonNull BooleanSupplier canceled)
+            throws InterruptedException {
+        // Waiting agingNanos is worth one level, so the order never changes while waiting
+        Ticket ticket = new Ticket(System.nanoTime() + priority.ordinal() * agingNanos, sequence++);
+        waiting.add(ticket);
+        try {
+            while (running >= maxRequests || waiting.peek() != ticket) {
+                if (canceled.getAsBoolean()) return false;
+                TimeUnit.MILLISECONDS.timedWait(this, CANCEL_CHECK_MILLIS);
+            }
+            running++;
+            return true;
+        } finally {
+            waiting.remove(ticket);
+            notifyAll(); // The next request may be at the head now
+        }
+    }
+
+    /**
+     * Frees the slot of a request that completed.
+     */
+    public synchronized void release() {
+        if (running == 0) throw new IllegalStateException("No request in flight");
+
+        running--;
+        notifyAll();
+    }
+
+    /**
+     * @return the number of requests in flight
+     */
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    /**
+     * @return the number of requests waiting to start
+     */
+    public synchronized int getWaitingCount() {
+        return waiting.size();
+    }
+
+    private static final class Ticket implements Comparable<Ticket> {
+
+        private final long rank;
+        private final long sequence;
+
+        Ticket(long rank, long sequence) {
+            this.rank = rank;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Ticket other) {
+            long diff = rank - other.rank; // Overflow-safe comparison of nanoTime values
+            if (diff != 0) return diff < 0 ? -1 : 1;
+            return Long.compare(sequence, other.sequence);
+        }
+
+    }
+
+}
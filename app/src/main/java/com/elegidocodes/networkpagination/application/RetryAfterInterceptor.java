@@ -0,0 +1,86 @@
+package com.elegidocodes.networkpagination.application;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retries requests rejected with {@code 429 Too Many Requests} or
+ * {@code 503 Service Unavailable}, honoring their {@code Retry-After} header.
+ *
+ * <p>The delay, in seconds or as an HTTP date, pauses the shared {@link TokenBucket}:
+ * every request to the API waits, not only the rejected one, and the retry is sent
+ * once the delay is over. Without the header, the delay doubles from
+ * {@link #DEFAULT_DELAY_MILLIS}. Responses asking for more than
+ * {@link #MAX_DELAY_MILLIS}, or rejected {@link #MAX_RETRIES} times, are returned
+ * as is.</p>
+ *
+ * <p>Install it as an <em>application</em> interceptor, since it sends the request
+ * several times.</p>
+ */
+public final class RetryAfterInterceptor implements Interceptor {
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_UNAVAILABLE = 503;
+    private static final String RETRY_AFTER = "Retry-After";
+
+    static final int MAX_RETRIES = 3;
+    static final long DEFAULT_DELAY_MILLIS = 1_000;
+    static final long MAX_DELAY_MILLIS = 30_000;
+
+    private final TokenBucket bucket;
+
+    /**
+     * @param bucket The bucket shared by every request to the API
+     */
+    public RetryAfterInterceptor(@NonNull TokenBucket bucket) {
+        this.bucket = bucket;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        for (int retry = 0; retry < MAX_RETRIES && isRateLimited(response); retry++) {
+            long delayMillis = retryAfterMillis(response, DEFAULT_DELAY_MILLIS << retry);
+            if (delayMillis > MAX_DELAY_MILLIS || chain.call().isCanceled()) break;
+
+            response.close();
+            bucket.pauseFor(delayMillis);
+            response = chain.proceed(request);
+        }
+        return response;
+    }
+
+    private static boolean isRateLimited(Response response) {
+        return response.code() == HTTP_TOO_MANY_REQUESTS || response.code() == HTTP_UNAVAILABLE;
+    }
+
+    /**
+     * Reads the delay requested by the server.
+     *
+     * @param response     The rejected response
+     * @param defaultDelay Delay used when the header is missing or invalid
+     * @return the delay before the next request, in milliseconds
+     */
+    static long retryAfterMillis(Response response, long defaultDelay) {
+        String value = response.header(RETRY_AFTER);
+        if (value == null) return defaultDelay;
+
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate(RETRY_AFTER);
+            return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : defaultDelay;
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.elegidocodes.networkpagination.application;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Holds each request until the {@link RequestScheduler} lets it reach the network.
+ *
+ * <p>The slot is kept until the response body is fully read or closed, so a
+ * download in progress counts against the limit. The priority is read from the
+ * {@link LoadPriority} tag of the request.</p>
+ *
+ * <p>Install it as a <em>network</em> interceptor, so responses served by the HTTP
+ * cache never wait.</p>
+ */
+public final class SchedulingInterceptor implements Interceptor {
+
+    private final RequestScheduler scheduler;
+
+    /**
+     * @param scheduler The scheduler shared by every client
+     */
+    public SchedulingInterceptor(@NonNull RequestScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        LoadPriority priority = chain.request().tag(LoadPriority.class);
+        try {
+            if (!scheduler.acquire(priority != null ? priority : LoadPriority.VISIBLE, chain.call()::isCanceled)) {
+                throw new IOException("Canceled");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a request slot");
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            scheduler.release();
+            throw e;
+        }
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            scheduler.release();
+            return response;
+        }
+        return response.newBuilder()
+                .body(ResponseBody.create(Okio.buffer(new ReleasingSource(body)), body.contentType(), body.contentLength()))
+                .build();
+    }
+
+    /**
+     * Body releasing the slot once exhausted or closed, whichever comes first.
+     */
+    private final class ReleasingSource extends ForwardingSource {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasingSource(ResponseBody body) {
+            super(body.source());
+        }
+
+        @Override
+        public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read == -1) release();
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                scheduler.release();
+            }
+        }
+
+    }
+
+}
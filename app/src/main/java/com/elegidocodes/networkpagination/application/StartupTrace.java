@@ -0,0 +1,76 @@
+package com.elegidocodes.networkpagination.application;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Logs the milestones of a cold start, measured from the start of the process:
+ * the first frame of the grid and the first poster on screen.
+ *
+ * <p>Filter logcat on {@code StartupTrace} to compare builds. Each milestone is
+ * only reported once per process; every method must be called on the main thread.</p>
+ */
+public final class StartupTrace {
+
+    private static final String TAG = "StartupTrace";
+
+    private static boolean firstFrameReported;
+    private static boolean firstPosterReported;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private StartupTrace() {
+        // Utility class
+    }
+
+    /**
+     * @return the time elapsed since the process started, in milliseconds
+     */
+    public static long sinceProcessStart() {
+        return SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+    }
+
+    /**
+     * Reports the time to first frame once the given view has been drawn.
+     *
+     * @param view The root view of the first screen
+     */
+    public static void reportFirstFrame(@NonNull View view) {
+        if (firstFrameReported) return;
+
+        Handler handler = new Handler(Looper.getMainLooper());
+        view.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            @Override
+            public void onDraw() {
+                // Right after the frame; listeners cannot be removed while they are dispatched
+                handler.postAtFrontOfQueue(() -> {
+                    ViewTreeObserver observer = view.getViewTreeObserver();
+                    if (observer.isAlive()) observer.removeOnDrawListener(this);
+                    if (firstFrameReported) return;
+
+                    firstFrameReported = true;
+                    Log.i(TAG, "Time to first frame: " + sinceProcessStart() + " ms");
+                });
+            }
+        });
+    }
+
+    /**
+     * Reports the time to first poster, the first time a poster is shown.
+     */
+    public static void onPosterShown() {
+        if (firstPosterReported) return;
+
+        firstPosterReported = true;
+        Log.i(TAG, "Time to first poster: " + sinceProcessStart() + " ms");
+    }
+
+}
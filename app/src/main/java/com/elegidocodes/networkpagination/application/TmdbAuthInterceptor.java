@@ -0,0 +1,123 @@
+package com.elegidocodes.networkpagination.application;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Authenticates requests to the TMDB API.
+ *
+ * <p>Two strategies are supported:
+ * <ul>
+ *     <li>{@link #bearer(String)}: the v4 read access token is sent in an
+ *     {@code Authorization} header, precomputed once. The URL is left untouched.</li>
+ *     <li>{@link #apiKeyQuery(String)}: the v3 API key is appended to the query.
+ *     The parameter is encoded once, so each call only appends an already
+ *     encoded pair.</li>
+ * </ul>
+ *
+ * <p>Install it as a <em>network</em> interceptor: it then runs after the HTTP
+ * cache, and the response carries the original, unauthenticated request. Cache
+ * keys therefore never contain the credentials and stay valid when the key is
+ * rotated, and credentials never reach application-level logging.</p>
+ */
+public final class TmdbAuthInterceptor implements Interceptor {
+
+    private static final String API_KEY_PARAMETER = "api_key";
+
+    /**
+     * Authorization header value for the bearer strategy, {@code null} for the query strategy.
+     */
+    private final String headerValue;
+
+    /**
+     * Encoded query value for the query strategy, {@code null} for the bearer strategy.
+     */
+    private final String encodedApiKey;
+
+    private TmdbAuthInterceptor(String headerValue, String encodedApiKey) {
+        this.headerValue = headerValue;
+        this.encodedApiKey = encodedApiKey;
+    }
+
+    /**
+     * Authenticates with a TMDB v4 read access token in the {@code Authorization} header.
+     *
+     * @param readAccessToken The v4 read access token
+     * @return the interceptor
+     */
+    @NonNull
+    public static TmdbAuthInterceptor bearer(@NonNull String readAccessToken) {
+        return new TmdbAuthInterceptor("Bearer " + readAccessToken, null);
+    }
+
+    /**
+     * Authenticates with a TMDB v3 API key in the {@code api_key} query parameter.
+     *
+     * @param apiKey The v3 API key
+     * @return the interceptor
+     */
+    @NonNull
+    public static TmdbAuthInterceptor apiKeyQuery(@NonNull String apiKey) {
+        // Let HttpUrl encode the value once; every call reuses the encoded form
+        String encoded = new HttpUrl.Builder()
+                .scheme("https")
+                .host("localhost")
+                .addQueryParameter(API_KEY_PARAMETER, apiKey)
+                .build()
+                .encodedQuery();
+        return new TmdbAuthInterceptor(null, encoded.substring(API_KEY_PARAMETER.length() + 1));
+    }
+
+    /**
+     * Picks the bearer strategy when a read access token is configured, the query
+     * strategy otherwise.
+     *
+     * @param readAccessToken The v4 read access token, may be empty
+     * @param apiKey          The v3 API key, used when there is no token
+     * @return the interceptor
+     */
+    @NonNull
+    public static TmdbAuthInterceptor create(String readAccessToken, String apiKey) {
+        if (readAccessToken != null && !readAccessToken.isEmpty()) {
+            return bearer(readAccessToken);
+        }
+        return apiKeyQuery(apiKey == null ? "" : apiKey);
+    }
+
+    /**
+     * Whether this interceptor sends the credentials in a header rather than the URL.
+     */
+    public boolean usesBearer() {
+        return headerValue != null;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request original = chain.request();
+        Request authenticated;
+        if (headerValue != null) {
+            authenticated = original.newBuilder()
+                    .header("Authorization", headerValue)
+                    .build();
+        } else {
+            HttpUrl url = original.url().newBuilder()
+                    .addEncodedQueryParameter(API_KEY_PARAMETER, encodedApiKey)
+                    .build();
+            authenticated = original.newBuilder().url(url).build();
+        }
+
+        // Hand the unauthenticated request back to the cache and the application
+        return chain.proceed(authenticated)
+                .newBuilder()
+                .request(original)
+                .build();
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.elegidocodes.networkpagination.application;
+
+/**
+ * Builds image URLs for the TMDB image CDN.
+ *
+ * <p>TMDB only returns relative paths (e.g. {@code /abc.jpg}) for posters; the
+ * host and the rendition size have to be prepended on the client.</p>
+ */
+public final class TmdbImages {
+
+    /**
+     * Base URL of the TMDB image CDN.
+     */
+    static final String BASE_URL = "https://image.tmdb.org/t/p/";
+
+    /**
+     * Rendition used for posters in the grid and in the detail screen.
+     */
+    private static final String POSTER_SIZE = "w500";
+
+    /**
+     * Smaller rendition used when image data should be saved (e.g. metered networks).
+     */
+    private static final String REDUCED_POSTER_SIZE = "w342";
+
+    /**
+     * Smallest rendition, shown while a poster loads.
+     */
+    private static final String THUMBNAIL_SIZE = "w92";
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private TmdbImages() {
+        // Utility class
+    }
+
+    /**
+     * Returns the URL of the poster rendition used across the app.
+     *
+     * @param posterPath The relative poster path returned by the API
+     * @return the absolute poster URL
+     */
+    public static String posterUrl(String posterPath) {
+        return posterUrl(posterPath, false);
+    }
+
+    /**
+     * Returns the URL of the poster, in a smaller rendition if requested.
+     *
+     * @param posterPath     The relative poster path returned by the API
+     * @param reducedQuality {@code true} to save data with a smaller rendition
+     * @return the absolute poster URL
+     */
+    public static String posterUrl(String posterPath, boolean reducedQuality) {
+        return BASE_URL + (reducedQuality ? REDUCED_POSTER_SIZE : POSTER_SIZE) + posterPath;
+    }
+
+    /**
+     * Returns the URL of the smallest rendition of the poster, a few kilobytes,
+     * shown while the full poster loads.
+     *
+     * @param posterPath The relative poster path returned by the API
+     * @return the absolute thumbnail URL
+     */
+    public static String thumbnailUrl(String posterPath) {
+        return BASE_URL + THUMBNAIL_SIZE + posterPath;
+    }
+
+}
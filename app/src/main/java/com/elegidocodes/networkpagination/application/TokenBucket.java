@@ -0,0 +1,154 @@
+package com.elegidocodes.networkpagination.application;
+
+import androidx.annotation.NonNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side rate limiter shared by the requests to an API.
+ *
+ * <p>The bucket holds up to {@code capacity} tokens and refills continuously at
+ * {@code tokensPerSecond}; every request takes one. When tokens are scarce, lower
+ * priorities yield: {@link LoadPriority#PREFETCH} requests leave a quarter of the
+ * bucket to visible ones, {@link LoadPriority#BACKGROUND} requests half of it, and
+ * no request takes a token while one of higher priority is waiting.</p>
+ *
+ * <p>{@link #pauseFor(long)} empties the bucket and holds every request until the
+ * server allows them again, as requested by {@code Retry-After}.</p>
+ */
+public final class TokenBucket {
+
+    private final int capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long refilledAt;
+    private long pausedUntil;
+
+    /**
+     * Number of requests waiting for a token, per priority.
+     */
+    private final Map<LoadPriority, Integer> waiting = new EnumMap<>(LoadPriority.class);
+
+    /**
+     * @param capacity        Maximum number of requests sent in a burst
+     * @param tokensPerSecond Sustained number of requests per second
+     */
+    public TokenBucket(int capacity, double tokensPerSecond) {
+        if (capacity < 1 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid rate: " + capacity + ", " + tokensPerSecond);
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+        this.pausedUntil = refilledAt;
+        for (LoadPriority priority : LoadPriority.values()) {
+            waiting.put(priority, 0);
+        }
+    }
+
+    /**
+     * Takes a token, waiting until one is available for the priority.
+     *
+     * @param priority Priority of the request
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public synchronized void acquire(@NonNull LoadPriority priority) throws InterruptedException {
+        waiting.put(priority, waiting.get(priority) + 1);
+        try {
+            while (!tryTake(priority)) {
+                long waitNanos = nanosUntilAvailable(priority);
+                TimeUnit.NANOSECONDS.timedWait(this, Math.max(waitNanos, TimeUnit.MILLISECONDS.toNanos(1)));
+            }
+        } finally {
+            waiting.put(priority, waiting.get(priority) - 1);
+            notifyAll(); // Lower priorities may proceed now
+        }
+    }
+
+    /**
+     * Takes a token if one is available for the priority, without waiting.
+     *
+     * @param priority Priority of the request
+     * @return whether a token was taken
+     */
+    public synchronized boolean tryAcquire(@NonNull LoadPriority priority) {
+        return tryTake(priority);
+    }
+
+    /**
+     * Holds every request for the given time and empties the bucket, so requests
+     * resume at the sustained rate.
+     *
+     * @param millis Time to wait before the next request, in milliseconds
+     */
+    public synchronized void pauseFor(long millis) {
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        if (until - pausedUntil > 0) {
+            pausedUntil = until;
+        }
+        tokens = 0;
+        refilledAt = pausedUntil;
+        notifyAll();
+    }
+
+    /**
+     * @return the number of tokens available right now
+     */
+    public synchronized double getAvailableTokens() {
+        refill(System.nanoTime());
+        return tokens;
+    }
+
+    private boolean tryTake(LoadPriority priority) {
+        long now = System.nanoTime();
+        if (now - pausedUntil < 0 || hasHigherPriorityWaiting(priority)) return false;
+
+        refill(now);
+        if (tokens < 1 + reserve(priority)) return false;
+
+        tokens -= 1;
+        return true;
+    }
+
+    private long nanosUntilAvailable(LoadPriority priority) {
+        long now = System.nanoTime();
+        if (now - pausedUntil < 0) return pausedUntil - now;
+
+        double missing = 1 + reserve(priority) - tokens;
+        return (long) Math.ceil(Math.max(missing, 0) / tokensPerNano);
+    }
+
+    private boolean hasHigherPriorityWaiting(LoadPriority priority) {
+        for (LoadPriority other : LoadPriority.values()) {
+            if (other.ordinal() >= priority.ordinal()) return false;
+            if (waiting.get(other) > 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tokens left to higher priorities, at most all but one.
+     */
+    private double reserve(LoadPriority priority) {
+        switch (priority) {
+            case VISIBLE:
+                return 0;
+            case PREFETCH:
+                return Math.min(capacity / 4.0, capacity - 1);
+            default:
+                return Math.min(capacity / 2.0, capacity - 1);
+        }
+    }
+
+    private void refill(long now) {
+        if (now - refilledAt <= 0) return; // Still paused
+
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+
+}
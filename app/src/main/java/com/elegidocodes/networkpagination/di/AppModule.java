@@ -1,11 +1,16 @@
 package com.elegidocodes.networkpagination.di;
 
+import android.app.ActivityManager;
 import android.content.Context;
+import android.os.SystemClock;
 
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.RequestManager;
 import com.bumptech.glide.request.RequestOptions;
 import com.elegidocodes.networkpagination.R;
+import com.elegidocodes.networkpagination.application.MyAPI;
+import com.elegidocodes.networkpagination.application.MyRetrofit;
+import com.elegidocodes.networkpagination.viewmodel.AdaptivePagingController;
 
 import javax.inject.Singleton;
 
@@ -27,6 +32,8 @@ public class AppModule {
     /**
      * Provides a singleton instance of {@link RequestManager} (Glide)
      * configured with default request options for error and placeholder images.
+     * Building Glide takes a while: the grid injects it as a {@link dagger.Lazy},
+     * so it is only built when the first poster is bound.
      *
      * @param context The application context, injected by Hilt using {@link ApplicationContext}.
      * @return A singleton instance of Glide's {@link RequestManager} with default options applied.
@@ -40,5 +47,27 @@ public class AppModule {
                         .placeholder(R.drawable.icon_image_24px));      // Image shown while loading
     }
 
-}
+    /**
+     * Provides the TMDB service, for classes created by Hilt such as workers.
+     *
+     * @return The singleton {@link MyAPI} built by {@link MyRetrofit}.
+     */
+    @Provides
+    public MyAPI getMyAPI() {
+        return MyRetrofit.getService();
+    }
+
+    /**
+     * Provides a new {@link AdaptivePagingController} for each paging ViewModel,
+     * aware of whether the device is low on RAM.
+     *
+     * @param context The application context, injected by Hilt using {@link ApplicationContext}.
+     * @return A controller tuning the paging configuration at runtime.
+     */
+    @Provides
+    public AdaptivePagingController getAdaptivePagingController(@ApplicationContext Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        return new AdaptivePagingController(activityManager.isLowRamDevice(), SystemClock::elapsedRealtime);
+    }
 
+}
@@ -0,0 +1,57 @@
+package com.elegidocodes.networkpagination.model;
+
+import androidx.annotation.StringRes;
+
+import com.elegidocodes.networkpagination.R;
+
+/**
+ * Movie genres of TMDB, as listed by {@code genre/movie/list}. Movies only carry
+ * the ids, see {@link Movie#getGenreIds()}.
+ */
+public enum MovieGenre {
+
+    ACTION(28, R.string.genre_action),
+    ADVENTURE(12, R.string.genre_adventure),
+    ANIMATION(16, R.string.genre_animation),
+    COMEDY(35, R.string.genre_comedy),
+    CRIME(80, R.string.genre_crime),
+    DOCUMENTARY(99, R.string.genre_documentary),
+    DRAMA(18, R.string.genre_drama),
+    FAMILY(10751, R.string.genre_family),
+    FANTASY(14, R.string.genre_fantasy),
+    HISTORY(36, R.string.genre_history),
+    HORROR(27, R.string.genre_horror),
+    MUSIC(10402, R.string.genre_music),
+    MYSTERY(9648, R.string.genre_mystery),
+    ROMANCE(10749, R.string.genre_romance),
+    SCIENCE_FICTION(878, R.string.genre_science_fiction),
+    TV_MOVIE(10770, R.string.genre_tv_movie),
+    THRILLER(53, R.string.genre_thriller),
+    WAR(10752, R.string.genre_war),
+    WESTERN(37, R.string.genre_western);
+
+    private final int id;
+    @StringRes
+    private final int label;
+
+    MovieGenre(int id, @StringRes int label) {
+        this.id = id;
+        this.label = label;
+    }
+
+    /**
+     * @return the TMDB id of the genre
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the name of the genre shown to the user
+     */
+    @StringRes
+    public int getLabel() {
+        return label;
+    }
+
+}
@@ -0,0 +1,241 @@
+package com.elegidocodes.networkpagination.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * On-disk cache of the popular movie pages, one file per page in
+ * {@link MoviePageFormat}, filled by the paging source and by the background
+ * refresh.
+ *
+ * <p>Entries follow a stale-while-revalidate policy: a page younger than
+ * {@link #FRESH_MILLIS} is served as is, an older one is served immediately
+ * and revalidated in the background, and a page older than
+ * {@link #MAX_STALE_MILLIS} is only served while offline.</p>
+ *
+ * <p>The cache keeps at most {@link #MAX_PAGES} pages. Writing one more evicts
+ * the pages saved longest ago, so the pages the background refresh rewrites
+ * stay cached.</p>
+ *
+ * <p>File layout: {@code long savedAtMillis} (big-endian), then the page.</p>
+ */
+@Singleton
+public class DiskMoviePageCache {
+
+    private static final String TAG = "DiskMoviePageCache";
+
+    private static final String DIRECTORY_NAME = "pages";
+    private static final String FILE_PREFIX = "popular-";
+    private static final String FILE_SUFFIX = ".mpf";
+
+    /**
+     * Age under which a page is served without revalidation.
+     */
+    static final long FRESH_MILLIS = TimeUnit.HOURS.toMillis(6);
+
+    /**
+     * Age over which a page is only served while offline.
+     */
+    static final long MAX_STALE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    /**
+     * Pages kept on disk, about 1 MB: a long scroll session, read back offline.
+     */
+    static final int MAX_PAGES = 100;
+
+    /**
+     * Source of wall-clock time, the age of entries must survive restarts.
+     */
+    public interface Clock {
+        long currentTimeMillis();
+    }
+
+    private final File directory;
+    private final Clock clock;
+    private final int maxPages;
+
+    @Inject
+    public DiskMoviePageCache(@ApplicationContext Context context) {
+        this(new File(context.getCacheDir(), DIRECTORY_NAME), System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    public DiskMoviePageCache(@NonNull File directory, @NonNull Clock clock) {
+        this(directory, clock, MAX_PAGES);
+    }
+
+    @VisibleForTesting
+    DiskMoviePageCache(@NonNull File directory, @NonNull Clock clock, int maxPages) {
+        this.directory = directory;
+        this.clock = clock;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Reads a page on an I/O thread.
+     *
+     * @param page The page number
+     * @return a {@link Maybe} emitting the cached page, or completing empty if it is
+     * not cached or cannot be read
+     */
+    @NonNull
+    public Maybe<CachedPage> get(int page) {
+        return Maybe.fromCallable(() -> read(page))
+                .onErrorComplete(throwable -> {
+                    Log.w(TAG, "Discarding unreadable page " + page, throwable);
+                    return true;
+                })
+                .subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Writes a page, replacing the cached one. Blocking, call it off the main thread.
+     * Concurrent writers of the same page each publish a whole page, the last one wins.
+     *
+     * @param result The page as returned by the API
+     */
+    public void put(@NonNull PopularMoviesResult result) {
+        if (result.getPage() == null || result.getResults() == null) return;
+
+        byte[] encoded = MoviePageFormat.encode(result);
+        File file = fileOf(result.getPage());
+        File temp = null;
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create " + directory);
+            }
+            // One temp file per writer: the paging source, a revalidation and the
+            // refresh worker may write the same page at once
+            temp = File.createTempFile(file.getName() + ".", ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(temp))) {
+                out.writeLong(clock.currentTimeMillis());
+                out.write(encoded);
+            }
+            // Rename, so readers never see a partially written page
+            if (!temp.renameTo(file)) {
+                throw new IOException("Cannot replace " + file);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Error caching page " + result.getPage(), e);
+            if (temp != null && temp.exists() && !temp.delete()) {
+                Log.w(TAG, "Cannot delete " + temp);
+            }
+        }
+        trim();
+    }
+
+    /**
+     * Deletes the pages saved longest ago until at most {@link #maxPages} remain.
+     */
+    private synchronized void trim() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX));
+        if (files == null || files.length <= maxPages) return;
+
+        Map<File, Long> savedAt = new HashMap<>(files.length);
+        for (File file : files) {
+            savedAt.put(file, savedAtOf(file));
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(savedAt.get(a), savedAt.get(b)));
+        for (int i = 0; i < files.length - maxPages; i++) {
+            if (!files[i].delete()) {
+                Log.w(TAG, "Cannot evict " + files[i]);
+            }
+        }
+    }
+
+    /**
+     * @return when the page in the file was saved, or {@link Long#MIN_VALUE} if it
+     * cannot be read, so unreadable pages are evicted first
+     */
+    private static long savedAtOf(File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readLong();
+        } catch (IOException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private CachedPage read(int page) throws IOException {
+        File file = fileOf(page);
+        if (!file.exists()) return null;
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            long savedAt = buffer.getLong();
+            PopularMoviesResult result = MoviePageFormat.decode(buffer);
+            return new CachedPage(result, clock.currentTimeMillis() - savedAt);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed page " + file, e);
+        }
+    }
+
+    private File fileOf(int page) {
+        return new File(directory, String.format(Locale.ROOT, FILE_PREFIX + "%d" + FILE_SUFFIX, page));
+    }
+
+    /**
+     * A page read from the cache, with its age.
+     */
+    public static final class CachedPage {
+
+        private final PopularMoviesResult result;
+        private final long ageMillis;
+
+        CachedPage(PopularMoviesResult result, long ageMillis) {
+            this.result = result;
+            this.ageMillis = ageMillis;
+        }
+
+        @NonNull
+        public PopularMoviesResult getResult() {
+            return result;
+        }
+
+        public long getAgeMillis() {
+            return ageMillis;
+        }
+
+        /**
+         * @return whether the page can be served without revalidation
+         */
+        public boolean isFresh() {
+            return ageMillis >= 0 && ageMillis < FRESH_MILLIS;
+        }
+
+        /**
+         * @return whether the page is too old to be served while online
+         */
+        public boolean isExpired() {
+            return ageMillis < 0 || ageMillis >= MAX_STALE_MILLIS; // Negative: the clock went back
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+package com.elegidocodes.networkpagination.repository;
+
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import com.elegidocodes.networkpagination.application.LoadPriority;
+import com.elegidocodes.networkpagination.application.MemoryPressure;
+import com.elegidocodes.networkpagination.application.MemoryPressureCoordinator;
+import com.elegidocodes.networkpagination.application.MyRetrofit;
+import com.elegidocodes.networkpagination.model.MovieDetail;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Loads and caches {@link MovieDetail} objects.
+ *
+ * <p>Requests are kept in a small in-memory LRU cache as cached {@link Single}s, so a
+ * detail prefetched while the user dwells on the grid is shared with the detail
+ * screen instead of being requested twice, and concurrent callers asking for the
+ * same movie join the same in-flight request.</p>
+ *
+ * <p>The cache shrinks under memory pressure and grows back once it is over.</p>
+ */
+@Singleton
+public class MovieDetailRepository {
+
+    private static final String TAG = "MovieDetailRepository";
+
+    /**
+     * Sub-requests appended to every detail call.
+     */
+    private static final String APPEND_TO_RESPONSE = "credits,videos";
+
+    /**
+     * Maximum number of movie details kept in memory.
+     */
+    private static final int MAX_CACHED_DETAILS = 50;
+
+    /**
+     * Details kept under moderate memory pressure: the ones around the screen.
+     */
+    private static final int MODERATE_PRESSURE_CACHED_DETAILS = 20;
+
+    /**
+     * Details kept under critical memory pressure: the one being opened.
+     */
+    private static final int CRITICAL_PRESSURE_CACHED_DETAILS = 2;
+
+    /**
+     * Overviews loaded for grid rows kept without them. Short strings: the count
+     * is about the rows a user expands, not memory.
+     */
+    private static final int MAX_CACHED_OVERVIEWS = 100;
+
+    private final LruCache<Integer, Single<MovieDetail>> cache = new LruCache<>(MAX_CACHED_DETAILS);
+
+    private final LruCache<Integer, String> overviews = new LruCache<>(MAX_CACHED_OVERVIEWS);
+
+    /**
+     * @param memoryPressure Source of the memory pressure, the cache follows it for
+     *                       the lifetime of the app
+     */
+    @Inject
+    public MovieDetailRepository(MemoryPressureCoordinator memoryPressure) {
+        //noinspection ResultOfMethodCallIgnored - singleton, never disposed
+        memoryPressure.observe().subscribe(this::onMemoryPressure);
+    }
+
+    /**
+     * Returns the detail of a movie the user is waiting for, from the cache if it
+     * was already requested.
+     *
+     * @param movieId The TMDB identifier of the movie
+     * @return a {@link Single} emitting the movie detail
+     */
+    @NonNull
+    public Single<MovieDetail> getMovieDetail(int movieId) {
+        return getMovieDetail(movieId, LoadPriority.VISIBLE);
+    }
+
+    /**
+     * Returns the detail of a movie, from the cache if it was already requested.
+     * A cached request keeps the priority it was started with.
+     *
+     * @param movieId  The TMDB identifier of the movie
+     * @param priority Priority of the request, if one is started
+     * @return a {@link Single} emitting the movie detail
+     */
+    private Single<MovieDetail> getMovieDetail(int movieId, LoadPriority priority) {
+        synchronized (cache) {
+            Single<MovieDetail> detail = cache.get(movieId);
+            if (detail == null) {
+                detail = MyRetrofit.getDeferredService()
+                        .getMovieDetail(movieId, APPEND_TO_RESPONSE, priority)
+                        .subscribeOn(Schedulers.io())
+                        .doOnError(throwable -> evict(movieId)) // Do not cache failures
+                        .cache();
+                cache.put(movieId, detail);
+            }
+            return detail;
+        }
+    }
+
+    /**
+     * Returns the overview of a movie, for grid rows kept without it. Served from
+     * the detail cache when the detail was already requested, otherwise from a
+     * detail request without the appended credits and videos, which the overview
+     * does not need. That lighter detail is left to the HTTP cache, so it never
+     * stands in for a full one. Requested as {@link LoadPriority#PREFETCH}: the
+     * expanded row waits for it, but never before the posters on screen. Loaded
+     * overviews are kept, so rebinding an expanded row requests nothing.
+     *
+     * @param movieId The TMDB identifier of the movie
+     * @return a {@link Single} emitting the overview, empty if the movie has none
+     */
+    @NonNull
+    public Single<String> getOverview(int movieId) {
+        String overview = overviews.get(movieId);
+        if (overview != null) return Single.just(overview);
+
+        Single<MovieDetail> detail;
+        synchronized (cache) {
+            detail = cache.get(movieId);
+        }
+        if (detail == null) {
+            detail = MyRetrofit.getDeferredService()
+                    // Retrofit omits the null query parameter
+                    .getMovieDetail(movieId, null, LoadPriority.PREFETCH)
+                    .subscribeOn(Schedulers.io());
+        }
+        return detail.map(movie -> movie.getOverview() != null ? movie.getOverview() : "")
+                .doOnSuccess(loaded -> overviews.put(movieId, loaded));
+    }
+
+    /**
+     * Starts loading the detail of a movie in the background so it can be
+     * served from memory when the user opens it. Requested as
+     * {@link LoadPriority#PREFETCH}, behind the content on screen.
+     *
+     * @param movieId The TMDB identifier of the movie
+     */
+    public void prefetch(int movieId) {
+        getMovieDetail(movieId, LoadPriority.PREFETCH).subscribe(
+                detail -> {
+                    // Kept in the cache, nothing else to do
+                },
+                throwable -> Log.w(TAG, "Error prefetching movie " + movieId, throwable)
+        );
+    }
+
+    /**
+     * @return the maximum number of details the cache keeps, which follows the
+     * memory pressure
+     */
+    @VisibleForTesting
+    public int getCacheCapacity() {
+        synchronized (cache) {
+            return cache.maxSize();
+        }
+    }
+
+    private void onMemoryPressure(MemoryPressure pressure) {
+        int capacity;
+        switch (pressure) {
+            case CRITICAL:
+                capacity = CRITICAL_PRESSURE_CACHED_DETAILS;
+                break;
+            case MODERATE:
+                capacity = MODERATE_PRESSURE_CACHED_DETAILS;
+                break;
+            default:
+                capacity = MAX_CACHED_DETAILS;
+        }
+        synchronized (cache) {
+            cache.resize(capacity); // Evicts the least recently used details
+        }
+    }
+
+    private void evict(int movieId) {
+        synchronized (cache) {
+            cache.remove(movieId);
+        }
+    }
+
+}
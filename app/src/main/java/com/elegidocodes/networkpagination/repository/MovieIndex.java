@@ -0,0 +1,218 @@
+package com.elegidocodes.networkpagination.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental index of the genres and original languages of the loaded movies.
+ *
+ * <p>{@link MoviePagingSource} adds every page it delivers. Each movie id gets a
+ * dense ordinal, each genre a {@link BitSet} over the ordinals, and language codes
+ * are interned to small ints stored per ordinal. A {@link Matcher} resolves its
+ * genres and language once, after which checking a movie is a hash lookup plus a
+ * bit or an int comparison, without looking at the movie's own lists.</p>
+ *
+ * <p>Movies restored from a paging snapshot keep their genres and language, so
+ * they are indexed and filtered like the ones loaded from the network.</p>
+ */
+public final class MovieIndex {
+
+    /**
+     * Marker of an unused slot. TMDB ids are strictly positive.
+     */
+    private static final int EMPTY = 0;
+
+    private static final int NO_LANGUAGE = -1;
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    // Open-addressing table from movie id to ordinal
+    private int[] ids = new int[DEFAULT_CAPACITY];
+    private int[] ordinals = new int[DEFAULT_CAPACITY];
+    private int mask = DEFAULT_CAPACITY - 1;
+
+    /**
+     * Number of movies indexed, also the next ordinal.
+     */
+    private int size;
+
+    private final Map<Integer, BitSet> genres = new HashMap<>();
+    private final Map<String, Integer> languageCodes = new HashMap<>();
+    private int[] languages = new int[DEFAULT_CAPACITY];
+
+    /**
+     * Indexes the movies of a page. Movies already indexed get the genres and
+     * language of the page.
+     *
+     * @param page The page delivered to the grid
+     */
+    public synchronized void add(@NonNull PopularMoviesResult page) {
+        if (page.getResults() == null) return;
+
+        for (Movie movie : page.getResults()) {
+            if (movie.getId() == null || movie.getId() == EMPTY) continue;
+
+            int indexed = size;
+            int ordinal = ordinalOf(movie.getId());
+            if (ordinal < indexed) {
+                for (BitSet bits : genres.values()) {
+                    bits.clear(ordinal); // Genres of a previous page
+                }
+            }
+            if (movie.getGenreIds() != null) {
+                for (Integer genreId : movie.getGenreIds()) {
+                    if (genreId != null) genreBits(genreId).set(ordinal);
+                }
+            }
+            languages[ordinal] = movie.getOriginalLanguage() != null
+                    ? intern(movie.getOriginalLanguage())
+                    : NO_LANGUAGE;
+        }
+    }
+
+    /**
+     * @return the number of movies indexed
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Creates a matcher of the movies having any of the genres, in the language.
+     *
+     * @param genreIds TMDB ids of the genres, empty for any genre
+     * @param language ISO 639-1 code of the original language, {@code null} for any language
+     * @return a matcher following the pages indexed later on
+     */
+    @NonNull
+    public synchronized Matcher matcher(@NonNull Collection<Integer> genreIds, @Nullable String language) {
+        List<BitSet> bits = new ArrayList<>(genreIds.size());
+        for (Integer genreId : genreIds) {
+            bits.add(genreBits(genreId));
+        }
+        return new Matcher(bits.toArray(new BitSet[0]), language != null ? intern(language) : NO_LANGUAGE);
+    }
+
+    /**
+     * Checks movies against a set of genres and a language, see {@link #matcher}.
+     */
+    public final class Matcher {
+
+        private final BitSet[] genreBits;
+        private final int language;
+
+        private Matcher(BitSet[] genreBits, int language) {
+            this.genreBits = genreBits;
+            this.language = language;
+        }
+
+        /**
+         * @param movie A movie delivered to the grid
+         * @return whether it has one of the genres and the language
+         */
+        public boolean matches(@NonNull Movie movie) {
+            if (movie.getId() == null) return false;
+
+            synchronized (MovieIndex.this) {
+                int slot = indexOf(movie.getId());
+                if (ids[slot] == EMPTY) return false; // Not indexed
+
+                int ordinal = ordinals[slot];
+                if (language != NO_LANGUAGE && languages[ordinal] != language) return false;
+                if (genreBits.length == 0) return true;
+
+                for (BitSet bits : genreBits) {
+                    if (bits.get(ordinal)) return true;
+                }
+                return false;
+            }
+        }
+
+    }
+
+    private BitSet genreBits(int genreId) {
+        BitSet bits = genres.get(genreId);
+        if (bits == null) {
+            bits = new BitSet();
+            genres.put(genreId, bits);
+        }
+        return bits;
+    }
+
+    private int intern(String language) {
+        Integer code = languageCodes.get(language);
+        if (code == null) {
+            code = languageCodes.size();
+            languageCodes.put(language, code);
+        }
+        return code;
+    }
+
+    /**
+     * Returns the ordinal of a movie, assigning the next one if it is new.
+     */
+    private int ordinalOf(int id) {
+        int slot = indexOf(id);
+        if (ids[slot] == id) return ordinals[slot];
+
+        int ordinal = size++;
+        ids[slot] = id;
+        ordinals[slot] = ordinal;
+        if (ordinal == languages.length) {
+            languages = Arrays.copyOf(languages, languages.length << 1);
+        }
+        if (size > (ids.length >> 1) + (ids.length >> 2)) {
+            grow();
+        }
+        return ordinal;
+    }
+
+    /**
+     * Returns the slot holding the id, or the empty slot where it should be inserted.
+     */
+    private int indexOf(int id) {
+        int slot = mix(id) & mask;
+        while (ids[slot] != EMPTY && ids[slot] != id) {
+            slot = (slot + 1) & mask; // Linear probing
+        }
+        return slot;
+    }
+
+    /**
+     * Spreads sequential ids over the table (Fibonacci hashing), folding the high
+     * bits of the product into the low bits the mask keeps.
+     */
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void grow() {
+        int[] oldIds = ids;
+        int[] oldOrdinals = ordinals;
+
+        ids = new int[oldIds.length << 1];
+        ordinals = new int[oldIds.length << 1];
+        mask = ids.length - 1;
+
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != EMPTY) {
+                int slot = indexOf(oldIds[i]);
+                ids[slot] = oldIds[i];
+                ordinals[slot] = oldOrdinals[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,250 @@
+package com.elegidocodes.networkpagination.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A page in {@link MoviePageFormat}, decoded lazily.
+ *
+ * <p>Only the header is decoded up front. Each field of each movie is read from
+ * the buffer when requested, and strings are decoded once and then kept. Not
+ * thread-safe.</p>
+ */
+public final class MoviePage {
+
+    // String fields, in record order
+    private static final int TITLE = 0;
+    private static final int ORIGINAL_TITLE = 1;
+    private static final int OVERVIEW = 2;
+    private static final int POSTER_PATH = 3;
+    private static final int BACKDROP_PATH = 4;
+    private static final int ORIGINAL_LANGUAGE = 5;
+    private static final int RELEASE_DATE = 6;
+    private static final int STRING_FIELDS = 7;
+
+    private final ByteBuffer buffer;
+    private final Integer page;
+    private final Integer totalPages;
+    private final Integer totalResults;
+    private final int movieCount;
+    private final int stringCount;
+    private final int stringOffsetsStart;
+    private final int recordOffsetsStart;
+    private final int stringsStart;
+    private final int recordsStart;
+    private final String[] strings;
+
+    /**
+     * @param buffer Little-endian buffer positioned after the magic and version
+     */
+    MoviePage(ByteBuffer buffer) {
+        this.buffer = buffer;
+        page = nullable(MoviePageFormat.readVarint(buffer));
+        totalPages = nullable(MoviePageFormat.readVarint(buffer));
+        totalResults = nullable(MoviePageFormat.readVarint(buffer));
+        movieCount = MoviePageFormat.readVarint(buffer);
+        stringCount = MoviePageFormat.readVarint(buffer);
+        stringOffsetsStart = buffer.position();
+        recordOffsetsStart = stringOffsetsStart + stringCount * 4;
+        int stringsLength = buffer.getInt(recordOffsetsStart + movieCount * 4);
+        stringsStart = recordOffsetsStart + movieCount * 4 + 4;
+        recordsStart = stringsStart + stringsLength;
+        if (recordsStart > buffer.limit()) {
+            throw new IllegalArgumentException("Truncated movie page");
+        }
+        strings = new String[stringCount];
+    }
+
+    @Nullable
+    public Integer getPage() {
+        return page;
+    }
+
+    @Nullable
+    public Integer getTotalPages() {
+        return totalPages;
+    }
+
+    @Nullable
+    public Integer getTotalResults() {
+        return totalResults;
+    }
+
+    /**
+     * @return the number of movies of the page
+     */
+    public int size() {
+        return movieCount;
+    }
+
+    @Nullable
+    public Integer getId(int index) {
+        return nullable(readVarintAt(recordStart(index) + MoviePageFormat.FIXED_RECORD_BYTES));
+    }
+
+    @Nullable
+    public String getTitle(int index) {
+        return string(index, TITLE);
+    }
+
+    @Nullable
+    public String getPosterPath(int index) {
+        return string(index, POSTER_PATH);
+    }
+
+    @Nullable
+    public String getOriginalLanguage(int index) {
+        return string(index, ORIGINAL_LANGUAGE);
+    }
+
+    @Nullable
+    public Double getVoteAverage(int index) {
+        int record = recordStart(index);
+        if ((buffer.get(record) & MoviePageFormat.FLAG_VOTE_AVERAGE_PRESENT) == 0) return null;
+        return toDouble(buffer.getFloat(record + 9));
+    }
+
+    /**
+     * Decodes every field of a movie.
+     *
+     * @param index Index of the movie in the page
+     * @return the movie
+     */
+    @NonNull
+    public Movie getMovie(int index) {
+        int record = recordStart(index);
+        int flags = buffer.get(record);
+        Movie movie = new Movie();
+        if ((flags & MoviePageFormat.FLAG_ADULT_PRESENT) != 0) {
+            movie.setAdult((flags & MoviePageFormat.FLAG_ADULT) != 0);
+        }
+        if ((flags & MoviePageFormat.FLAG_VIDEO_PRESENT) != 0) {
+            movie.setVideo((flags & MoviePageFormat.FLAG_VIDEO) != 0);
+        }
+        if ((flags & MoviePageFormat.FLAG_POPULARITY_PRESENT) != 0) {
+            movie.setPopularity(buffer.getDouble(record + 1));
+        }
+        if ((flags & MoviePageFormat.FLAG_VOTE_AVERAGE_PRESENT) != 0) {
+            movie.setVoteAverage(toDouble(buffer.getFloat(record + 9)));
+        }
+
+        ByteBuffer cursor = cursorAt(record + MoviePageFormat.FIXED_RECORD_BYTES);
+        movie.setId(nullable(MoviePageFormat.readVarint(cursor)));
+        movie.setVoteCount(nullable(MoviePageFormat.readVarint(cursor)));
+        String[] values = new String[STRING_FIELDS];
+        for (int field = 0; field < STRING_FIELDS; field++) {
+            values[field] = stringAt(MoviePageFormat.readVarint(cursor));
+        }
+        movie.setTitle(values[TITLE]);
+        movie.setOriginalTitle(values[ORIGINAL_TITLE]);
+        movie.setOverview(values[OVERVIEW]);
+        movie.setPosterPath(values[POSTER_PATH]);
+        movie.setBackdropPath(values[BACKDROP_PATH]);
+        movie.setOriginalLanguage(values[ORIGINAL_LANGUAGE]);
+        movie.setReleaseDate(values[RELEASE_DATE]);
+
+        int genreCount = MoviePageFormat.readVarint(cursor);
+        if (genreCount > 0) {
+            List<Integer> genreIds = new ArrayList<>(genreCount - 1);
+            for (int i = 1; i < genreCount; i++) {
+                genreIds.add(MoviePageFormat.readVarint(cursor));
+            }
+            movie.setGenreIds(genreIds);
+        }
+        return movie;
+    }
+
+    /**
+     * Decodes the whole page.
+     *
+     * @return the page, as if returned by the API
+     */
+    @NonNull
+    public PopularMoviesResult toPopularMoviesResult() {
+        List<Movie> movies = new ArrayList<>(movieCount);
+        for (int i = 0; i < movieCount; i++) {
+            movies.add(getMovie(i));
+        }
+        PopularMoviesResult result = new PopularMoviesResult();
+        result.setPage(page);
+        result.setTotalPages(totalPages);
+        result.setTotalResults(totalResults);
+        result.setResults(movies);
+        return result;
+    }
+
+    private int recordStart(int index) {
+        if (index < 0 || index >= movieCount) {
+            throw new IndexOutOfBoundsException("Movie " + index + " of " + movieCount);
+        }
+        return recordsStart + buffer.getInt(recordOffsetsStart + index * 4);
+    }
+
+    /**
+     * Reads a string field of a movie, skipping the varints before it.
+     */
+    private String string(int index, int field) {
+        ByteBuffer cursor = cursorAt(recordStart(index) + MoviePageFormat.FIXED_RECORD_BYTES);
+        MoviePageFormat.readVarint(cursor); // id
+        MoviePageFormat.readVarint(cursor); // voteCount
+        for (int i = 0; i < field; i++) {
+            MoviePageFormat.readVarint(cursor);
+        }
+        return stringAt(MoviePageFormat.readVarint(cursor));
+    }
+
+    /**
+     * @param reference String index + 1, 0 for null
+     */
+    private String stringAt(int reference) {
+        if (reference == 0) return null;
+        int index = reference - 1;
+        if (index >= stringCount) {
+            throw new IllegalArgumentException("Malformed movie page");
+        }
+        String value = strings[index];
+        if (value == null) {
+            ByteBuffer cursor = cursorAt(stringsStart + buffer.getInt(stringOffsetsStart + index * 4));
+            int length = MoviePageFormat.readVarint(cursor);
+            byte[] bytes = new byte[length];
+            cursor.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    private int readVarintAt(int position) {
+        return MoviePageFormat.readVarint(cursorAt(position));
+    }
+
+    private ByteBuffer cursorAt(int position) {
+        ByteBuffer cursor = buffer.duplicate();
+        cursor.position(position);
+        return cursor;
+    }
+
+    /**
+     * Decodes a value stored as value + 1, 0 meaning null.
+     */
+    private static Integer nullable(int stored) {
+        return stored == 0 ? null : stored - 1;
+    }
+
+    /**
+     * Widens a stored float to the shortest double printing the same, so 7.3 is
+     * read back as 7.3 rather than 7.300000190734863.
+     */
+    private static double toDouble(float value) {
+        return Double.parseDouble(Float.toString(value));
+    }
+
+}
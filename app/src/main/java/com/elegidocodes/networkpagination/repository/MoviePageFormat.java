@@ -0,0 +1,252 @@
+package com.elegidocodes.networkpagination.repository;
+
+import androidx.annotation.NonNull;
+
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned binary format of a page of {@link Movie}s, written once and read many
+ * times without parsing.
+ *
+ * <p>Layout (little-endian):</p>
+ * <pre>
+ * header:  int magic, byte version,
+ *          varint page, varint totalPages, varint totalResults (value + 1, 0 for null),
+ *          varint movieCount, varint stringCount
+ * offsets: int[stringCount] string offsets, int[movieCount] record offsets,
+ *          int stringsLength (offsets relative to their section)
+ * strings: per string, varint byteLength then UTF-8 bytes
+ * records: per movie,
+ *          byte flags, double popularity, float voteAverage (fixed width),
+ *          varint id, varint voteCount (value + 1, 0 for null),
+ *          varint string references for title, originalTitle, overview, posterPath,
+ *          backdropPath, originalLanguage and releaseDate (index + 1, 0 for null),
+ *          varint genreCount (count + 1, 0 for null), varint genre ids
+ * </pre>
+ *
+ * <p>Strings are stored once per page, so the handful of language codes and
+ * repeated paths cost one varint per movie. The offset tables give random access
+ * to any movie and any string, which {@link MoviePage} uses to decode fields only
+ * when they are read.</p>
+ *
+ * <p>{@code popularity} is stored as a double, since it runs into the thousands
+ * and a float only keeps about seven significant digits. {@code vote_average}
+ * never exceeds 10, so a float keeps its three decimals exactly once printed
+ * back.</p>
+ */
+public final class MoviePageFormat {
+
+    static final int MAGIC = 0x464D504D; // "MPMF" in little-endian
+    static final byte VERSION = 2;
+
+    // Record flags
+    static final int FLAG_ADULT_PRESENT = 1;
+    static final int FLAG_ADULT = 1 << 1;
+    static final int FLAG_VIDEO_PRESENT = 1 << 2;
+    static final int FLAG_VIDEO = 1 << 3;
+    static final int FLAG_POPULARITY_PRESENT = 1 << 4;
+    static final int FLAG_VOTE_AVERAGE_PRESENT = 1 << 5;
+
+    /**
+     * Size of the fixed-width part of a record: flags, a double and a float.
+     */
+    static final int FIXED_RECORD_BYTES = 1 + 8 + 4;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private MoviePageFormat() {
+        // Utility class
+    }
+
+    /**
+     * Encodes a page.
+     *
+     * @param result The page as returned by the API
+     * @return the encoded page
+     */
+    @NonNull
+    public static byte[] encode(@NonNull PopularMoviesResult result) {
+        List<Movie> movies = result.getResults() != null ? result.getResults() : new ArrayList<>();
+
+        // Collect the distinct strings first, the records refer to them by index
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        for (Movie movie : movies) {
+            for (String value : stringFields(movie)) {
+                if (value != null && !stringIndexes.containsKey(value)) {
+                    stringIndexes.put(value, strings.size());
+                    strings.add(value);
+                }
+            }
+        }
+
+        Buffer stringSection = new Buffer();
+        int[] stringOffsets = new int[strings.size()];
+        for (int i = 0; i < strings.size(); i++) {
+            stringOffsets[i] = stringSection.size();
+            byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            stringSection.writeVarint(bytes.length);
+            stringSection.write(bytes, 0, bytes.length);
+        }
+
+        Buffer recordSection = new Buffer();
+        int[] recordOffsets = new int[movies.size()];
+        for (int i = 0; i < movies.size(); i++) {
+            recordOffsets[i] = recordSection.size();
+            writeRecord(recordSection, movies.get(i), stringIndexes);
+        }
+
+        Buffer out = new Buffer();
+        out.writeIntLE(MAGIC);
+        out.write(VERSION);
+        out.writeVarint(result.getPage() != null ? result.getPage() + 1 : 0);
+        out.writeVarint(result.getTotalPages() != null ? result.getTotalPages() + 1 : 0);
+        out.writeVarint(result.getTotalResults() != null ? result.getTotalResults() + 1 : 0);
+        out.writeVarint(movies.size());
+        out.writeVarint(strings.size());
+        for (int offset : stringOffsets) out.writeIntLE(offset);
+        for (int offset : recordOffsets) out.writeIntLE(offset);
+        out.writeIntLE(stringSection.size());
+        stringSection.writeTo(out);
+        recordSection.writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads a page without decoding it: fields are decoded when accessed.
+     *
+     * @param buffer The encoded page, from its position to its limit. It may be a
+     *               memory-mapped file and must not be modified while the page is used.
+     * @return a view of the page
+     * @throws IllegalArgumentException if the buffer does not hold a page of this version
+     */
+    @NonNull
+    public static MoviePage read(@NonNull ByteBuffer buffer) {
+        ByteBuffer page = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (page.remaining() < 5 || page.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a movie page");
+        }
+        byte version = page.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported movie page version " + version);
+        }
+        return new MoviePage(page);
+    }
+
+    /**
+     * Decodes a page entirely.
+     *
+     * @param buffer The encoded page
+     * @return the page, as if returned by the API
+     */
+    @NonNull
+    public static PopularMoviesResult decode(@NonNull ByteBuffer buffer) {
+        return read(buffer).toPopularMoviesResult();
+    }
+
+    private static void writeRecord(Buffer out, Movie movie, Map<String, Integer> stringIndexes) {
+        int flags = 0;
+        if (movie.getAdult() != null) {
+            flags |= FLAG_ADULT_PRESENT | (movie.getAdult() ? FLAG_ADULT : 0);
+        }
+        if (movie.getVideo() != null) {
+            flags |= FLAG_VIDEO_PRESENT | (movie.getVideo() ? FLAG_VIDEO : 0);
+        }
+        if (movie.getPopularity() != null) flags |= FLAG_POPULARITY_PRESENT;
+        if (movie.getVoteAverage() != null) flags |= FLAG_VOTE_AVERAGE_PRESENT;
+
+        out.write((byte) flags);
+        out.writeDoubleLE(movie.getPopularity() != null ? movie.getPopularity() : 0d);
+        out.writeFloatLE(movie.getVoteAverage() != null ? movie.getVoteAverage().floatValue() : 0f);
+        out.writeVarint(movie.getId() != null ? movie.getId() + 1 : 0);
+        out.writeVarint(movie.getVoteCount() != null ? movie.getVoteCount() + 1 : 0);
+        for (String value : stringFields(movie)) {
+            out.writeVarint(value != null ? stringIndexes.get(value) + 1 : 0);
+        }
+
+        List<Integer> genreIds = movie.getGenreIds();
+        if (genreIds == null) {
+            out.writeVarint(0);
+        } else {
+            out.writeVarint(genreIds.size() + 1);
+            for (Integer genreId : genreIds) {
+                out.writeVarint(genreId != null ? genreId : 0);
+            }
+        }
+    }
+
+    /**
+     * String fields of a movie, in record order.
+     */
+    private static String[] stringFields(Movie movie) {
+        return new String[]{
+                movie.getTitle(),
+                movie.getOriginalTitle(),
+                movie.getOverview(),
+                movie.getPosterPath(),
+                movie.getBackdropPath(),
+                movie.getOriginalLanguage(),
+                movie.getReleaseDate()
+        };
+    }
+
+    /**
+     * Reads an unsigned LEB128 varint at the buffer's position.
+     */
+    static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * Growable little-endian byte buffer.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void writeIntLE(int value) {
+            write(value);
+            write(value >>> 8);
+            write(value >>> 16);
+            write(value >>> 24);
+        }
+
+        void writeFloatLE(float value) {
+            writeIntLE(Float.floatToIntBits(value));
+        }
+
+        void writeDoubleLE(double value) {
+            long bits = Double.doubleToLongBits(value);
+            writeIntLE((int) bits);
+            writeIntLE((int) (bits >>> 32));
+        }
+
+        void writeTo(Buffer other) {
+            other.write(buf, 0, count);
+        }
+    }
+
+}
@@ -7,14 +7,24 @@ import androidx.annotation.Nullable;
 import androidx.paging.PagingState;
 import androidx.paging.rxjava3.RxPagingSource;
 
-import com.elegidocodes.networkpagination.application.MyRetrofit;
+import com.elegidocodes.networkpagination.application.LoadPriority;
+import com.elegidocodes.networkpagination.application.MyAPI;
+import com.elegidocodes.networkpagination.application.NetworkStateManager;
 import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
 
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import kotlin.Unit;
+import retrofit2.HttpException;
 
 /**
  * A {@link RxPagingSource} implementation that loads paginated movie data
@@ -22,6 +32,22 @@ import io.reactivex.rxjava3.schedulers.Schedulers;
  *
  * <p>This class defines how to load individual pages of data, how to refresh
  * the current paging state, and how to handle errors and empty results.</p>
+ *
+ * <p>While the device is offline, pages are served from the HTTP cache when
+ * possible. Otherwise the load stays pending and is retried automatically once
+ * connectivity returns, instead of failing and waiting for the user to retry.</p>
+ *
+ * <p>After process death, the pages of a restored {@link PagingSnapshot} are served
+ * before any network request, so the previous screen renders without network I/O.</p>
+ *
+ * <p>Pages are also served from a {@link DiskMoviePageCache} with a
+ * stale-while-revalidate policy: a stale page is shown immediately and requested
+ * again in the background. If the new page differs, it is cached and the paging
+ * source is invalidated, so the next generation diffs the change in.</p>
+ *
+ * <p>In lean-row mode, the movies kept in the pages only carry the fields the grid
+ * shows. The long text fields (overview, original title, backdrop path) are
+ * dropped, and the grid fetches an overview on demand when a row is expanded.</p>
  */
 public class MoviePagingSource extends RxPagingSource<Integer, Movie> {
 
@@ -32,13 +58,120 @@ public class MoviePagingSource extends RxPagingSource<Integer, Movie> {
      */
     private static final int CACHE_TIMEOUT_MINUTES = 30;
 
-    // Optional: Inject and monitor network state if needed
-    // private final NetworkStateManager networkState;
+    /**
+     * Number of movies per page. TMDB pages are fixed-size, whatever load size
+     * the Paging library asks for.
+     */
+    public static final int TMDB_PAGE_SIZE = PageAssembler.PAGE_SIZE;
+
+    /**
+     * Turns the pages of this generation into load results. A refresh creates a new
+     * paging source, which starts over with the movies delivered.
+     */
+    private final PageAssembler pageAssembler;
+
+    /**
+     * HTTP status returned by OkHttp when a cache-only request misses the cache.
+     */
+    private static final int HTTP_UNSATISFIABLE_REQUEST = 504;
+
+    private final MyAPI api;
+    private final NetworkStateManager networkState;
+
+    /**
+     * Listener receiving the latency of every page load.
+     */
+    private final PageLatencyListener latencyListener;
+
+    /**
+     * Store recording the loaded pages for the next snapshot, may be {@code null}.
+     */
+    @Nullable
+    private final PagingSnapshotStore snapshotStore;
+
+    /**
+     * Snapshot restored after process death, {@link PagingSnapshot#EMPTY} if none.
+     */
+    private final Single<PagingSnapshot> restoredSnapshot;
+
+    /**
+     * Disk cache of the pages, may be {@code null}.
+     */
+    @Nullable
+    private final DiskMoviePageCache pageCache;
+
+    /**
+     * Index of the delivered movies, used to filter them, may be {@code null}.
+     */
+    @Nullable
+    private final MovieIndex movieIndex;
 
-    // Optional constructor if using dependency injection
-    /*public MoviePagingSource(NetworkStateManager networkState) {
+    /**
+     * Position of the first item on screen, may be {@code null}.
+     */
+    @Nullable
+    private final IntSupplier anchorPosition;
+
+    /**
+     * Run when the refresh load delivers its page, may be {@code null}.
+     */
+    @Nullable
+    private final Runnable refreshListener;
+
+    /**
+     * Background revalidations of stale pages, cancelled on invalidation.
+     */
+    private final CompositeDisposable revalidations = new CompositeDisposable();
+
+    /**
+     * @param api             The TMDB service
+     * @param networkState    Connectivity of the device
+     * @param latencyListener Listener receiving the latency of every page load
+     */
+    public MoviePagingSource(MyAPI api, NetworkStateManager networkState, PageLatencyListener latencyListener) {
+        this(api, networkState, latencyListener, null, null, null, false, null, null, null);
+    }
+
+    /**
+     * @param api              The TMDB service
+     * @param networkState     Connectivity of the device
+     * @param latencyListener  Listener receiving the latency of every page load
+     * @param snapshotStore    Store recording the loaded pages, may be {@code null}
+     * @param restoredSnapshot Snapshot to serve pages from before the network, may be {@code null}
+     * @param pageCache        Disk cache of the pages, may be {@code null}
+     * @param leanRows         Whether movies only keep the fields shown by the grid
+     * @param movieIndex       Index of the delivered movies, may be {@code null}
+     * @param anchorPosition   Position of the first item on screen, may be {@code null}
+     * @param refreshListener  Run when the refresh load delivers its page, may be {@code null}
+     */
+    public MoviePagingSource(
+            MyAPI api,
+            NetworkStateManager networkState,
+            PageLatencyListener latencyListener,
+            @Nullable PagingSnapshotStore snapshotStore,
+            @Nullable Single<PagingSnapshot> restoredSnapshot,
+            @Nullable DiskMoviePageCache pageCache,
+            boolean leanRows,
+            @Nullable MovieIndex movieIndex,
+            @Nullable IntSupplier anchorPosition,
+            @Nullable Runnable refreshListener
+    ) {
+        this.api = api;
         this.networkState = networkState;
-    }*/
+        this.latencyListener = latencyListener;
+        this.snapshotStore = snapshotStore;
+        this.restoredSnapshot = restoredSnapshot != null ? restoredSnapshot : Single.just(PagingSnapshot.EMPTY);
+        this.pageCache = pageCache;
+        this.pageAssembler = new PageAssembler(leanRows);
+        this.movieIndex = movieIndex;
+        this.anchorPosition = anchorPosition;
+        this.refreshListener = refreshListener;
+
+        registerInvalidatedCallback(() -> {
+            revalidations.dispose();
+            return Unit.INSTANCE;
+        });
+    }
 
     /**
      * Loads a single page of movie data from the TMDB API.
@@ -51,25 +184,36 @@ public class MoviePagingSource extends RxPagingSource<Integer, Movie> {
     public Single<LoadResult<Integer, Movie>> loadSingle(@NonNull LoadParams<Integer> loadParams) {
         try {
             final int page = loadParams.getKey() != null ? loadParams.getKey() : 1;
-            final int pageSize = loadParams.getLoadSize();
+            final long requestedAt = System.nanoTime();
 
-            return MyRetrofit.getService()
-                    .getPopularMovies(page)
+            Single<PopularMoviesResult> network = fetchPage(page, priorityOf(loadParams, page))
                     .subscribeOn(Schedulers.io()) // Run on background thread
                     .timeout(CACHE_TIMEOUT_MINUTES, TimeUnit.MINUTES) // Prevent hanging
+                    .doOnSuccess(result -> latencyListener.onPageLoaded(page,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestedAt)))
+                    .doOnSuccess(this::cache);
+
+            return restoredSnapshot
+                    .flatMapMaybe(snapshot -> Maybe.fromCallable(() -> snapshot.getPage(page)))
+                    .switchIfEmpty(cachedPage(page))
+                    .switchIfEmpty(network)
+                    .doOnSuccess(result -> {
+                        if (snapshotStore != null) snapshotStore.record(result);
+                        if (movieIndex != null) movieIndex.add(result);
+                    })
                     .map(result -> {
                         List<Movie> movies = result.getResults();
-                        int totalPages = result.getTotalPages();
 
                         if (movies == null) {
                             throw new IllegalStateException("Invalid API response - null movies list");
                         }
 
-                        return toLoadResult(movies, page, totalPages, pageSize);
+                        return pageAssembler.assemble(movies, page, result.getTotalPages(), result.getTotalResults());
                     })
-                    .doOnEvent((result, error) -> {
-                        // Optional: Hook for UI/network state feedback
-                        // if (networkState != null) networkState.setState(NetworkState.LOADED);
+                    .doOnSuccess(result -> {
+                        if (refreshListener != null && loadParams instanceof LoadParams.Refresh) {
+                            refreshListener.run();
+                        }
                     })
                     .doOnError(throwable ->
                             Log.e(TAG, "Error loading page " + page, throwable))
@@ -80,7 +224,127 @@ public class MoviePagingSource extends RxPagingSource<Integer, Movie> {
     }
 
     /**
-     * Determines the page key to use when refreshing data (e.g. on swipe-to-refresh).
+     * Returns the priority of a page load: the initial page and the page under the
+     * anchor position are on screen, other appended and prepended pages are loaded
+     * ahead of the user.
+     *
+     * @param loadParams Parameters of the load
+     * @param page       The page number
+     * @return the priority of the request
+     */
+    LoadPriority priorityOf(LoadParams<Integer> loadParams, int page) {
+        if (loadParams instanceof LoadParams.Refresh) return LoadPriority.VISIBLE;
+        if (anchorPosition != null && page == pageAssembler.pageAt(anchorPosition.getAsInt())) {
+            return LoadPriority.VISIBLE; // Scrolled into placeholders
+        }
+        return LoadPriority.PREFETCH;
+    }
+
+    /**
+     * Requests a page. If the request fails because the device is offline (no
+     * connection, or a miss of the offline cache), waits for connectivity and
+     * requests it again.
+     *
+     * @param page     The page number
+     * @param priority Priority of the request under the rate limit
+     * @return a {@link Single} emitting the page
+     */
+    private Single<PopularMoviesResult> fetchPage(int page, LoadPriority priority) {
+        return api.getPopularMovies(page, priority)
+                .onErrorResumeNext(throwable -> {
+                    if (isConnectivityError(throwable) && !networkState.isOnline()) {
+                        Log.i(TAG, "Offline, page " + page + " will load when connectivity returns");
+                        return networkState.awaitOnline()
+                                .andThen(Single.defer(() -> api.getPopularMovies(page, priority)));
+                    }
+                    return Single.error(throwable);
+                });
+    }
+
+    /**
+     * Reads a page from the disk cache. Fresh pages are served as is, stale ones
+     * are served and revalidated, expired ones are only served while offline.
+     *
+     * @param page The page number
+     * @return a {@link Maybe} emitting the page, or completing empty if it must be
+     * requested from the network
+     */
+    private Maybe<PopularMoviesResult> cachedPage(int page) {
+        if (pageCache == null) return Maybe.empty();
+
+        return pageCache.get(page)
+                .filter(cached -> !cached.isExpired() || !networkState.isOnline())
+                .doOnSuccess(cached -> {
+                    if (!cached.isFresh() && networkState.isOnline()) {
+                        revalidate(page, cached.getResult());
+                    }
+                })
+                .map(DiskMoviePageCache.CachedPage::getResult);
+    }
+
+    /**
+     * Requests a page served stale in the background. The new page is cached, and
+     * the paging source invalidated if the grid would show something different.
+     *
+     * @param page   The page number
+     * @param served The stale page that was served
+     */
+    private void revalidate(int page, PopularMoviesResult served) {
+        revalidations.add(api.getPopularMovies(page, LoadPriority.BACKGROUND)
+                .subscribeOn(Schedulers.io())
+                .subscribe(
+                        fresh -> {
+                            cache(fresh);
+                            if (!showsSameMovies(served, fresh)) {
+                                Log.i(TAG, "Page " + page + " changed, reloading");
+                                invalidate();
+                            }
+                        },
+                        throwable -> Log.w(TAG, "Error revalidating page " + page, throwable)
+                ));
+    }
+
+    private void cache(PopularMoviesResult result) {
+        if (pageCache != null) pageCache.put(result);
+    }
+
+    /**
+     * Whether two versions of a page render the same grid: same movies, in the same
+     * order, with the same title and poster.
+     */
+    static boolean showsSameMovies(PopularMoviesResult a, PopularMoviesResult b) {
+        List<Movie> moviesA = a.getResults();
+        List<Movie> moviesB = b.getResults();
+        if (moviesA == null || moviesB == null) return moviesA == moviesB;
+        if (moviesA.size() != moviesB.size()
+                || !Objects.equals(a.getTotalResults(), b.getTotalResults())) {
+            return false;
+        }
+        for (int i = 0; i < moviesA.size(); i++) {
+            Movie movieA = moviesA.get(i);
+            Movie movieB = moviesB.get(i);
+            if (!Objects.equals(movieA.getId(), movieB.getId())
+                    || !Objects.equals(movieA.getTitle(), movieB.getTitle())
+                    || !Objects.equals(movieA.getPosterPath(), movieB.getPosterPath())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isConnectivityError(Throwable throwable) {
+        return throwable instanceof IOException
+                || (throwable instanceof HttpException
+                && ((HttpException) throwable).code() == HTTP_UNSATISFIABLE_REQUEST);
+    }
+
+    /**
+     * Determines the page key to use when refreshing data (e.g. on swipe-to-refresh
+     * or when jumping far away from the loaded pages).
+     *
+     * <p>The page is read from the layout of the delivered pages, so a page that
+     * dropped duplicates does not shift the result; positions that are not loaded
+     * map to full pages.</p>
      *
      * @param pagingState The current paging state from the Paging library
      * @return The page key to refresh from, or null if undetermined
@@ -91,58 +355,26 @@ public class MoviePagingSource extends RxPagingSource<Integer, Movie> {
         Integer anchorPosition = pagingState.getAnchorPosition();
         if (anchorPosition == null) return null;
 
-        LoadResult.Page<Integer, Movie> anchorPage =
-                pagingState.closestPageToPosition(anchorPosition);
-        if (anchorPage == null) return null;
-
-        Integer prevKey = anchorPage.getPrevKey();
-        if (prevKey != null) return prevKey + 1;
-
-        Integer nextKey = anchorPage.getNextKey();
-        if (nextKey != null) return nextKey - 1;
+        return pageAssembler.pageAt(anchorPosition);
+    }
 
-        return null;
+    /**
+     * @return the layout of the pages delivered by this paging source
+     */
+    @NonNull
+    public PageLayout getPageLayout() {
+        return pageAssembler;
     }
 
     /**
-     * Converts a raw list of movies into a {@link LoadResult.Page} object,
-     * including proper pagination key logic and item count estimation.
+     * Allows the Paging library to jump straight to the page under the anchor
+     * position when the user scrolls far into placeholders.
      *
-     * @param movies      The list of movies fetched from the API
-     * @param currentPage The current page number
-     * @param totalPages  The total number of pages reported by the API
-     * @param pageSize    The number of items requested per page
-     * @return A LoadResult.Page representing this page's data and pagination keys
-     */
-    private LoadResult<Integer, Movie> toLoadResult(
-            @NonNull List<Movie> movies,
-            int currentPage,
-            int totalPages,
-            int pageSize
-    ) {
-        if (movies.isEmpty()) {
-            return new LoadResult.Page<>(
-                    movies,
-                    null,
-                    null,
-                    LoadResult.Page.COUNT_UNDEFINED,
-                    LoadResult.Page.COUNT_UNDEFINED
-            );
-        }
-
-        Integer prevKey = currentPage > 1 ? currentPage - 1 : null;
-        Integer nextKey = currentPage < totalPages ? currentPage + 1 : null;
-
-        int itemsBefore = (currentPage - 1) * pageSize;
-        int itemsAfter = (totalPages - currentPage) * pageSize;
-
-        return new LoadResult.Page<>(
-                movies,
-                prevKey,
-                nextKey,
-                itemsBefore,
-                itemsAfter
-        );
+     * @return always {@code true}
+     */
+    @Override
+    public boolean getJumpingSupported() {
+        return true;
     }
 
 }
@@ -0,0 +1,210 @@
+package com.elegidocodes.networkpagination.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.PagingSource.LoadResult;
+
+import com.elegidocodes.networkpagination.model.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Turns the movies of TMDB pages into the load results of a paging source
+ * generation: keys, placeholder counts, movies already delivered dropped and, in
+ * lean-row mode, the long text fields the grid does not show dropped.
+ *
+ * <p>Each page is placed right after the page before it, or right before the page
+ * after it, so the placeholder counts always match the movies actually delivered:
+ * dropping duplicates never shifts the positions of the loaded movies. The resulting
+ * layout maps positions back to pages, see {@link PageLayout}.</p>
+ *
+ * <p>It only depends on the model and Paging's common classes, so it runs on a
+ * plain JVM, as in the benchmarks.</p>
+ */
+public final class PageAssembler implements PageLayout {
+
+    /**
+     * Number of movies per page. TMDB pages are fixed-size.
+     */
+    static final int PAGE_SIZE = 20;
+
+    /**
+     * TMDB rejects pages beyond 500, even if {@code total_pages} is larger.
+     */
+    static final int MAX_PAGES = 500;
+
+    /**
+     * Ids delivered by this generation.
+     */
+    private final SeenIdSet seenIds = new SeenIdSet();
+
+    /**
+     * Whether movies only keep the fields shown by the grid.
+     */
+    private final boolean leanRows;
+
+    /**
+     * Position of the first movie and number of movies of every delivered page,
+     * indexed by page number. Starts are {@code -1} for pages not delivered.
+     */
+    private final int[] starts = new int[MAX_PAGES + 2];
+    private final int[] sizes = new int[MAX_PAGES + 2];
+
+    /**
+     * @param leanRows Whether movies only keep the fields shown by the grid
+     */
+    public PageAssembler(boolean leanRows) {
+        this.leanRows = leanRows;
+        Arrays.fill(starts, -1);
+    }
+
+    /**
+     * Converts a raw list of movies into a {@link LoadResult.Page} object,
+     * including proper pagination key logic and placeholder counts. The counts
+     * place the page next to the delivered page it is appended or prepended to,
+     * or at its full-page position otherwise.
+     *
+     * @param movies       The list of movies fetched from the API
+     * @param currentPage  The current page number
+     * @param totalPages   The total number of pages reported by the API
+     * @param totalResults The total number of movies reported by the API
+     * @return A LoadResult.Page representing this page's data and pagination keys
+     */
+    @NonNull
+    public LoadResult<Integer, Movie> assemble(
+            @NonNull List<Movie> movies,
+            int currentPage,
+            @Nullable Integer totalPages,
+            @Nullable Integer totalResults
+    ) {
+        if (movies.isEmpty() || totalPages == null) {
+            return new LoadResult.Page<>(
+                    movies,
+                    null,
+                    null,
+                    LoadResult.Page.COUNT_UNDEFINED,
+                    LoadResult.Page.COUNT_UNDEFINED
+            );
+        }
+
+        int lastPage = Math.min(totalPages, MAX_PAGES);
+
+        Integer prevKey = currentPage > 1 ? currentPage - 1 : null;
+        Integer nextKey = currentPage < lastPage ? currentPage + 1 : null;
+
+        // May be empty if the whole page was already delivered; keys stay valid
+        // so paging continues with the next page.
+        List<Movie> uniqueMovies = removeDuplicates(movies, currentPage);
+
+        if (totalResults == null) {
+            return new LoadResult.Page<>(
+                    uniqueMovies,
+                    prevKey,
+                    nextKey,
+                    LoadResult.Page.COUNT_UNDEFINED,
+                    LoadResult.Page.COUNT_UNDEFINED
+            );
+        }
+
+        // Exact counts: the total is capped to what TMDB actually serves, and pages
+        // not delivered yet are full. Nothing is left before the first page or after
+        // the last one, even if duplicates were dropped on the way.
+        int totalItems = Math.min(totalResults, lastPage * PAGE_SIZE);
+        int itemsBefore = prevKey == null ? 0 : place(currentPage, uniqueMovies.size());
+        int itemsAfter = nextKey == null ? 0 : Math.max(0, totalItems - itemsBefore - uniqueMovies.size());
+        record(currentPage, itemsBefore, uniqueMovies.size());
+
+        return new LoadResult.Page<>(
+                uniqueMovies,
+                prevKey,
+                nextKey,
+                itemsBefore,
+                itemsAfter
+        );
+    }
+
+    @Override
+    public synchronized int pageAt(int position) {
+        for (int page = 1; page <= MAX_PAGES; page++) {
+            if (starts[page] >= 0 && position >= starts[page] && position < starts[page] + sizes[page]) {
+                return page;
+            }
+        }
+        return FIXED.pageAt(position);
+    }
+
+    @Override
+    public synchronized int positionOf(int page) {
+        return page >= 1 && page <= MAX_PAGES && starts[page] >= 0 ? starts[page] : FIXED.positionOf(page);
+    }
+
+    /**
+     * Returns the position of the first movie of a page: the position it was
+     * delivered at before, right after the previous page when it is appended,
+     * right before the next page when it is prepended, or its full-page position.
+     *
+     * @param page The page number
+     * @param size The number of movies delivered for the page
+     * @return the number of items before the page
+     */
+    private synchronized int place(int page, int size) {
+        if (page < 1 || page > MAX_PAGES) return FIXED.positionOf(page);
+        if (starts[page] >= 0) return starts[page];
+        if (starts[page - 1] >= 0) return starts[page - 1] + sizes[page - 1];
+        if (starts[page + 1] >= 0) return Math.max(0, starts[page + 1] - size);
+        return FIXED.positionOf(page);
+    }
+
+    private synchronized void record(int page, int start, int size) {
+        if (page < 1 || page > MAX_PAGES) return;
+        starts[page] = start;
+        sizes[page] = size;
+    }
+
+    /**
+     * Drops the movies already delivered on another page of this generation.
+     *
+     * <p>TMDB's popularity ranking shifts between requests, so a movie can appear on
+     * page N and again on page N + 1. Duplicate ids break {@code areItemsTheSame}
+     * in the diff and cost extra binds and poster loads.</p>
+     *
+     * @param movies The movies of the page
+     * @param page   The page number
+     * @return the movies not delivered on another page, as grid rows in lean-row mode
+     */
+    private List<Movie> removeDuplicates(@NonNull List<Movie> movies, int page) {
+        List<Movie> unique = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            Integer id = movie.getId();
+            if (id == null || seenIds.claim(id, page)) {
+                unique.add(leanRows ? toGridRow(movie) : movie);
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Copies a movie without the long text fields the grid does not show.
+     *
+     * @param movie The movie as returned by the API
+     * @return the movie without overview, original title and backdrop path
+     */
+    private static Movie toGridRow(@NonNull Movie movie) {
+        Movie row = new Movie();
+        row.setId(movie.getId());
+        row.setTitle(movie.getTitle());
+        row.setPosterPath(movie.getPosterPath());
+        row.setAdult(movie.getAdult());
+        row.setGenreIds(movie.getGenreIds());
+        row.setOriginalLanguage(movie.getOriginalLanguage());
+        row.setPopularity(movie.getPopularity());
+        row.setReleaseDate(movie.getReleaseDate());
+        row.setVideo(movie.getVideo());
+        row.setVoteAverage(movie.getVoteAverage());
+        row.setVoteCount(movie.getVoteCount());
+        return row;
+    }
+
+}
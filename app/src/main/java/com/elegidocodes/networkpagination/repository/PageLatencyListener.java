@@ -0,0 +1,14 @@
+package com.elegidocodes.networkpagination.repository;
+
+/**
+ * Listener notified every time {@link MoviePagingSource} receives a page from the API.
+ */
+public interface PageLatencyListener {
+
+    /**
+     * @param page          The page number
+     * @param latencyMillis Time between the request and the response, in milliseconds
+     */
+    void onPageLoaded(int page, long latencyMillis);
+
+}
@@ -0,0 +1,40 @@
+package com.elegidocodes.networkpagination.repository;
+
+/**
+ * Maps the positions of the grid, placeholders included, to the TMDB pages shown
+ * there.
+ *
+ * <p>Every page spans {@link MoviePagingSource#TMDB_PAGE_SIZE} positions until it is
+ * loaded. A loaded page only spans the movies it delivered: duplicates of movies
+ * delivered on another page are dropped, see {@link PageAssembler}.</p>
+ */
+public interface PageLayout {
+
+    /**
+     * Layout of pages that are not loaded: full pages from the first position.
+     */
+    PageLayout FIXED = new PageLayout() {
+        @Override
+        public int pageAt(int position) {
+            return Math.min(Math.max(position, 0) / PageAssembler.PAGE_SIZE + 1, PageAssembler.MAX_PAGES);
+        }
+
+        @Override
+        public int positionOf(int page) {
+            return (Math.max(page, 1) - 1) * PageAssembler.PAGE_SIZE;
+        }
+    };
+
+    /**
+     * @param position A position of the grid
+     * @return the page shown at the position, from 1
+     */
+    int pageAt(int position);
+
+    /**
+     * @param page A page number, from 1
+     * @return the position of the first movie of the page
+     */
+    int positionOf(int page);
+
+}
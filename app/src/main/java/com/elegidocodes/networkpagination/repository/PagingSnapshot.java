@@ -0,0 +1,72 @@
+package com.elegidocodes.networkpagination.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The pages around the scroll position at the time the app went to the
+ * background, restored after process death so the previous screen renders
+ * without network I/O.
+ *
+ * <p>Movies only carry the fields the grid shows and the filters need: id, title,
+ * poster path, genre ids and original language.</p>
+ */
+public final class PagingSnapshot {
+
+    /**
+     * Snapshot with no pages, every load goes to the network.
+     */
+    public static final PagingSnapshot EMPTY = new PagingSnapshot(0, Collections.emptyMap());
+
+    private final int anchorPosition;
+    private final Map<Integer, PopularMoviesResult> pages;
+
+    /**
+     * @param anchorPosition Position of the first visible item
+     * @param pages          Pages by page number
+     */
+    public PagingSnapshot(int anchorPosition, @NonNull Map<Integer, PopularMoviesResult> pages) {
+        this.anchorPosition = anchorPosition;
+        this.pages = Collections.unmodifiableMap(new TreeMap<>(pages));
+    }
+
+    /**
+     * @return the position of the first visible item
+     */
+    public int getAnchorPosition() {
+        return anchorPosition;
+    }
+
+    /**
+     * @param page The page number
+     * @return the page, or {@code null} if it is not part of the snapshot
+     */
+    @Nullable
+    public PopularMoviesResult getPage(int page) {
+        return pages.get(page);
+    }
+
+    /**
+     * @return the pages by page number, in ascending order
+     */
+    @NonNull
+    public Map<Integer, PopularMoviesResult> getPages() {
+        return pages;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "PagingSnapshot{" +
+                "anchorPosition=" + anchorPosition +
+                ", pages=" + pages.keySet() +
+                '}';
+    }
+
+}
@@ -0,0 +1,285 @@
+package com.elegidocodes.networkpagination.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import com.elegidocodes.networkpagination.application.MemoryPressure;
+import com.elegidocodes.networkpagination.application.MemoryPressureCoordinator;
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Keeps the most recently loaded pages in memory and writes the ones around the
+ * scroll position to a small binary file when the app goes to the background.
+ *
+ * <p>Each snapshot is tagged with a token, which the caller keeps in its saved
+ * instance state. A snapshot is only restored when the token matches, that is
+ * after process death, and never on a fresh launch where the data would be stale.</p>
+ *
+ * <p>File layout (big-endian):</p>
+ * <pre>
+ * int magic, byte version, long token, int anchorPosition, int pageCount
+ * per page: int byteLength, page in {@link MoviePageFormat}
+ * </pre>
+ *
+ * <p>Movies only keep the fields the grid needs: id, title and poster path, and
+ * the genre ids and original language the filters index.</p>
+ *
+ * <p>Under memory pressure, only the most recently loaded pages, the ones a
+ * snapshot would contain, are kept in memory.</p>
+ */
+@Singleton
+public class PagingSnapshotStore {
+
+    private static final String TAG = "PagingSnapshotStore";
+
+    private static final String FILE_NAME = "paging_snapshot.bin";
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final byte VERSION = 2;
+
+    /**
+     * Pages kept in memory, enough for the snapshot radius in both directions
+     * after a fling.
+     */
+    static final int MAX_RECORDED_PAGES = 12;
+
+    /**
+     * Pages saved on each side of the page under the anchor position.
+     */
+    static final int SNAPSHOT_RADIUS = 2;
+
+    /**
+     * Pages kept in memory under memory pressure: one snapshot worth.
+     */
+    static final int PRESSURE_RECORDED_PAGES = SNAPSHOT_RADIUS * 2 + 1;
+
+    private final File file;
+
+    /**
+     * Current limit of {@link #recordedPages}, lowered under memory pressure.
+     */
+    private int maxRecordedPages = MAX_RECORDED_PAGES;
+
+    /**
+     * Recently loaded pages, least recently loaded first.
+     */
+    private final Map<Integer, PopularMoviesResult> recordedPages =
+            new LinkedHashMap<Integer, PopularMoviesResult>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, PopularMoviesResult> eldest) {
+                    return size() > maxRecordedPages;
+                }
+            };
+
+    @Inject
+    public PagingSnapshotStore(@ApplicationContext Context context, MemoryPressureCoordinator memoryPressure) {
+        this(new File(context.getNoBackupFilesDir(), FILE_NAME));
+        //noinspection ResultOfMethodCallIgnored - singleton, never disposed
+        memoryPressure.observe().subscribe(this::onMemoryPressure);
+    }
+
+    @VisibleForTesting
+    PagingSnapshotStore(@NonNull File file) {
+        this.file = file;
+    }
+
+    /**
+     * Remembers a loaded page, so it can be part of the next snapshot.
+     *
+     * @param result The page as returned by the API
+     */
+    public void record(@NonNull PopularMoviesResult result) {
+        if (result.getPage() == null || result.getResults() == null) return;
+        synchronized (recordedPages) {
+            recordedPages.put(result.getPage(), result);
+        }
+    }
+
+    /**
+     * Drops the oldest recorded pages under memory pressure.
+     *
+     * @param pressure The current memory pressure
+     */
+    void onMemoryPressure(@NonNull MemoryPressure pressure) {
+        synchronized (recordedPages) {
+            maxRecordedPages = pressure == MemoryPressure.NONE ? MAX_RECORDED_PAGES : PRESSURE_RECORDED_PAGES;
+            Iterator<Integer> eldestFirst = recordedPages.keySet().iterator();
+            while (recordedPages.size() > maxRecordedPages) {
+                eldestFirst.next();
+                eldestFirst.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the number of pages kept in memory
+     */
+    @VisibleForTesting
+    public int getRecordedPageCount() {
+        synchronized (recordedPages) {
+            return recordedPages.size();
+        }
+    }
+
+    /**
+     * Writes the recorded pages around the anchor position to disk, replacing the
+     * previous snapshot.
+     *
+     * @param token          Token identifying the snapshot
+     * @param anchorPosition Position of the first visible item
+     * @return a {@link Completable} completing once the file is written
+     */
+    @NonNull
+    public Completable save(long token, int anchorPosition) {
+        return save(token, anchorPosition, PageLayout.FIXED.pageAt(anchorPosition));
+    }
+
+    /**
+     * Writes the recorded pages around the anchor page to disk, replacing the
+     * previous snapshot.
+     *
+     * @param token          Token identifying the snapshot
+     * @param anchorPosition Position of the first visible item
+     * @param anchorPage     Page shown at the anchor position
+     * @return a {@link Completable} completing once the file is written
+     */
+    @NonNull
+    public Completable save(long token, int anchorPosition, int anchorPage) {
+        return Completable.fromAction(() -> write(token, anchorPosition, pagesAround(anchorPage)))
+                .subscribeOn(Schedulers.single()); // Keeps successive writes in order
+    }
+
+    /**
+     * Reads the snapshot written with the given token.
+     *
+     * @param token Token the snapshot was saved with
+     * @return a {@link Maybe} emitting the snapshot, or completing empty if there is
+     * none, it was written with another token, or it cannot be read
+     */
+    @NonNull
+    public Maybe<PagingSnapshot> restore(long token) {
+        return Maybe.fromCallable(() -> read(token))
+                .onErrorComplete(throwable -> {
+                    Log.w(TAG, "Discarding unreadable snapshot", throwable);
+                    return true;
+                })
+                .subscribeOn(Schedulers.io());
+    }
+
+    private Map<Integer, PopularMoviesResult> pagesAround(int anchorPage) {
+        Map<Integer, PopularMoviesResult> pages = new TreeMap<>();
+        synchronized (recordedPages) {
+            for (int page = anchorPage - SNAPSHOT_RADIUS; page <= anchorPage + SNAPSHOT_RADIUS; page++) {
+                // get() would reorder the access-ordered map
+                if (recordedPages.containsKey(page)) {
+                    pages.put(page, recordedPages.get(page));
+                }
+            }
+        }
+        return pages;
+    }
+
+    private void write(long token, int anchorPosition, Map<Integer, PopularMoviesResult> pages) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(pages.size() * 2048 + 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(token);
+        out.writeInt(anchorPosition);
+        out.writeInt(pages.size());
+        for (PopularMoviesResult page : pages.values()) {
+            byte[] encoded = MoviePageFormat.encode(gridFields(page));
+            out.writeInt(encoded.length);
+            out.write(encoded);
+        }
+        out.flush();
+
+        // Write aside and rename, so a crash never leaves a truncated snapshot
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temp)) {
+            bytes.writeTo(stream);
+            stream.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Cannot replace " + file);
+        }
+    }
+
+    private PagingSnapshot read(long token) throws IOException {
+        if (!file.exists()) return null;
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION || buffer.getLong() != token) {
+                return null;
+            }
+
+            int anchorPosition = buffer.getInt();
+            int pageCount = buffer.getInt();
+            Map<Integer, PopularMoviesResult> pages = new TreeMap<>();
+            for (int i = 0; i < pageCount; i++) {
+                int length = buffer.getInt();
+                ByteBuffer encoded = buffer.slice();
+                encoded.limit(length);
+                buffer.position(buffer.position() + length);
+
+                PopularMoviesResult page = MoviePageFormat.decode(encoded);
+                pages.put(page.getPage(), page);
+            }
+            return new PagingSnapshot(anchorPosition, pages);
+        } catch (RuntimeException e) {
+            // Truncated or corrupted file
+            throw new IOException("Malformed snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Copies a page keeping only the fields the grid shows or filters on.
+     */
+    private static PopularMoviesResult gridFields(PopularMoviesResult page) {
+        List<Movie> movies = new ArrayList<>(page.getResults().size());
+        for (Movie movie : page.getResults()) {
+            Movie copy = new Movie();
+            copy.setId(movie.getId());
+            copy.setTitle(movie.getTitle());
+            copy.setPosterPath(movie.getPosterPath());
+            copy.setGenreIds(movie.getGenreIds());
+            copy.setOriginalLanguage(movie.getOriginalLanguage());
+            movies.add(copy);
+        }
+        PopularMoviesResult copy = new PopularMoviesResult();
+        copy.setPage(page.getPage());
+        copy.setTotalPages(page.getTotalPages());
+        copy.setTotalResults(page.getTotalResults());
+        copy.setResults(movies);
+        return copy;
+    }
+
+}
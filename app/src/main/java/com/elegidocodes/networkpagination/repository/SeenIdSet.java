@@ -0,0 +1,117 @@
+package com.elegidocodes.networkpagination.repository;
+
+import java.util.Arrays;
+
+/**
+ * Compact open-addressing hash set of primitive movie ids, remembering for each id
+ * the page on which it was first seen.
+ *
+ * <p>Used by {@link PageAssembler} to drop movies that TMDB returns again on a
+ * later page after its popularity ranking shifted. Keeping the owning page lets a
+ * page dropped from memory be loaded again without losing its own movies. Ids are
+ * stored in plain {@code int} arrays, so no boxing happens per lookup.</p>
+ */
+final class SeenIdSet {
+
+    /**
+     * Marker of an unused slot. TMDB ids are strictly positive.
+     */
+    private static final int EMPTY = 0;
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] ids;
+    private int[] pages;
+    private int size;
+    private int mask;
+
+    SeenIdSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Initial number of slots, rounded up to a power of two
+     */
+    SeenIdSet(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        ids = new int[slots];
+        pages = new int[slots];
+        mask = slots - 1;
+    }
+
+    /**
+     * Claims an id for a page.
+     *
+     * @param id   The movie id
+     * @param page The page the movie was delivered on
+     * @return {@code true} if the id was never seen or belongs to the same page,
+     * {@code false} if it was already delivered on another page
+     */
+    synchronized boolean claim(int id, int page) {
+        if (id == EMPTY) return true; // Not a valid TMDB id, never deduplicated
+
+        int slot = indexOf(id);
+        if (ids[slot] == id) {
+            return pages[slot] == page;
+        }
+
+        ids[slot] = id;
+        pages[slot] = page;
+        if (++size > (ids.length >> 1) + (ids.length >> 2)) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of distinct ids seen
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Forgets every id seen so far.
+     */
+    synchronized void clear() {
+        Arrays.fill(ids, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Returns the slot holding the id, or the empty slot where it should be inserted.
+     */
+    private int indexOf(int id) {
+        int slot = mix(id) & mask;
+        while (ids[slot] != EMPTY && ids[slot] != id) {
+            slot = (slot + 1) & mask; // Linear probing
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldIds = ids;
+        int[] oldPages = pages;
+
+        ids = new int[oldIds.length << 1];
+        pages = new int[oldIds.length << 1];
+        mask = ids.length - 1;
+
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != EMPTY) {
+                int slot = indexOf(oldIds[i]);
+                ids[slot] = oldIds[i];
+                pages[slot] = oldPages[i];
+            }
+        }
+    }
+
+    /**
+     * Spreads sequential ids over the table (Fibonacci hashing).
+     */
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
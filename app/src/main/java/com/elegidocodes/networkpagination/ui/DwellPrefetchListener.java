@@ -0,0 +1,84 @@
+package com.elegidocodes.networkpagination.ui;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.repository.MovieDetailRepository;
+import com.elegidocodes.networkpagination.ui.adapter.MovieAdapter;
+
+/**
+ * Prefetches the details of the movies the user dwells on.
+ *
+ * <p>When the grid stays idle for {@link #DWELL_MILLIS}, the details of the fully
+ * visible movies are requested in the background, with
+ * {@link com.elegidocodes.networkpagination.application.LoadPriority#PREFETCH}, so the
+ * detail screen opens from the cache without delaying the posters on screen. Any
+ * scroll cancels the pending prefetch.</p>
+ */
+public class DwellPrefetchListener extends RecyclerView.OnScrollListener {
+
+    /**
+     * How long the grid must stay idle before prefetching.
+     */
+    private static final long DWELL_MILLIS = 600;
+
+    /**
+     * Maximum number of details prefetched per dwell.
+     */
+    private static final int MAX_PREFETCH = 6;
+
+    private final MovieAdapter adapter;
+    private final MovieDetailRepository repository;
+
+    private RecyclerView recyclerView;
+    private final Runnable prefetch = this::prefetchVisibleMovies;
+
+    /**
+     * @param adapter    The adapter backing the grid
+     * @param repository The repository caching the movie details
+     */
+    public DwellPrefetchListener(MovieAdapter adapter, MovieDetailRepository repository) {
+        this.adapter = adapter;
+        this.repository = repository;
+    }
+
+    /**
+     * Starts listening to the scroll state of the given grid.
+     *
+     * @param recyclerView The grid to observe
+     */
+    public void attach(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(this);
+        recyclerView.postDelayed(prefetch, DWELL_MILLIS); // The grid starts idle
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        recyclerView.removeCallbacks(prefetch);
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            recyclerView.postDelayed(prefetch, DWELL_MILLIS);
+        }
+    }
+
+    private void prefetchVisibleMovies() {
+        if (!(recyclerView.getLayoutManager() instanceof GridLayoutManager)) return;
+
+        GridLayoutManager layoutManager = (GridLayoutManager) recyclerView.getLayoutManager();
+        int first = layoutManager.findFirstCompletelyVisibleItemPosition();
+        int last = layoutManager.findLastCompletelyVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION || last == RecyclerView.NO_POSITION) return;
+
+        last = Math.min(last, first + MAX_PREFETCH - 1);
+        for (int position = first; position <= last && position < adapter.getItemCount(); position++) {
+            // peek() does not trigger page loads
+            Movie movie = adapter.peek(position);
+            if (movie != null && movie.getId() != null) {
+                repository.prefetch(movie.getId());
+            }
+        }
+    }
+
+}
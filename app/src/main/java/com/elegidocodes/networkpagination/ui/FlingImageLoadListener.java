@@ -0,0 +1,101 @@
+package com.elegidocodes.networkpagination.ui;
+
+import android.os.SystemClock;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.RequestManager;
+import com.elegidocodes.networkpagination.ui.adapter.MovieAdapter;
+
+import dagger.Lazy;
+
+/**
+ * Pauses poster loads while the grid flings fast.
+ *
+ * <p>During a fling most rows are bound and scrolled off before their poster
+ * arrives. While the grid settles faster than {@link #PAUSE_VELOCITY_DP_PER_SECOND},
+ * the Glide requests are paused: rows still bind and queue their request, and
+ * recycled rows cancel theirs. When the grid slows down, the posters on screen are
+ * restarted with the highest priority before the remaining requests resume.</p>
+ */
+public class FlingImageLoadListener extends RecyclerView.OnScrollListener {
+
+    /**
+     * Scroll speed above which posters are not loaded.
+     */
+    private static final float PAUSE_VELOCITY_DP_PER_SECOND = 2_500;
+
+    private final MovieAdapter adapter;
+    private final Lazy<RequestManager> requestManager;
+
+    private float pauseVelocity;
+    private int scrollState = RecyclerView.SCROLL_STATE_IDLE;
+    private long lastScrolledAt;
+    private boolean paused;
+
+    /**
+     * @param adapter        The adapter backing the grid
+     * @param requestManager The Glide request manager loading the posters, built on first use
+     */
+    public FlingImageLoadListener(MovieAdapter adapter, Lazy<RequestManager> requestManager) {
+        this.adapter = adapter;
+        this.requestManager = requestManager;
+    }
+
+    /**
+     * Starts listening to the scroll of the given grid.
+     *
+     * @param recyclerView The grid to observe
+     */
+    public void attach(@NonNull RecyclerView recyclerView) {
+        pauseVelocity = PAUSE_VELOCITY_DP_PER_SECOND * recyclerView.getResources().getDisplayMetrics().density;
+        recyclerView.addOnScrollListener(this);
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        scrollState = newState;
+        if (newState != RecyclerView.SCROLL_STATE_SETTLING) {
+            resume(recyclerView); // The finger is down or the grid stopped
+        }
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        long now = SystemClock.uptimeMillis();
+        long elapsed = Math.max(1, now - lastScrolledAt);
+        lastScrolledAt = now;
+        if (scrollState != RecyclerView.SCROLL_STATE_SETTLING) return;
+
+        float velocity = Math.abs(dy) * 1000f / elapsed;
+        if (velocity > pauseVelocity) {
+            pause();
+        } else {
+            resume(recyclerView);
+        }
+    }
+
+    private void pause() {
+        if (paused) return;
+
+        paused = true;
+        requestManager.get().pauseRequests();
+    }
+
+    private void resume(RecyclerView recyclerView) {
+        if (!paused) return;
+
+        paused = false;
+        // Children are laid out from the top, restart the visible ones in that order
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            View child = recyclerView.getChildAt(i);
+            if (child.getBottom() > 0 && child.getTop() < recyclerView.getHeight()) {
+                adapter.prioritizePoster(recyclerView.getChildViewHolder(child));
+            }
+        }
+        requestManager.get().resumeRequests();
+    }
+
+}
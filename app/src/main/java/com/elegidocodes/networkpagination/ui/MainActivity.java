@@ -3,31 +3,47 @@ package com.elegidocodes.networkpagination.ui;
 import static android.view.View.GONE;
 
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
+import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.app.ActivityOptionsCompat;
+import androidx.core.view.ViewCompat;
 import androidx.databinding.DataBindingUtil;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.paging.LoadState;
+import androidx.paging.PagingData;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
-import com.bumptech.glide.Glide;
 import com.bumptech.glide.RequestManager;
 import com.elegidocodes.networkpagination.R;
+import com.elegidocodes.networkpagination.application.NetworkState;
+import com.elegidocodes.networkpagination.application.StartupTrace;
 import com.elegidocodes.networkpagination.databinding.ActivityMainBinding;
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.MovieGenre;
+import com.elegidocodes.networkpagination.repository.MovieDetailRepository;
 import com.elegidocodes.networkpagination.ui.adapter.MovieAdapter;
 import com.elegidocodes.networkpagination.ui.adapter.MovieComparator;
 import com.elegidocodes.networkpagination.ui.adapter.MovieLoadStateAdapter;
+import com.elegidocodes.networkpagination.viewmodel.MovieFilter;
 import com.elegidocodes.networkpagination.viewmodel.MovieViewModel;
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.progressindicator.CircularProgressIndicator;
 
+import java.util.Set;
+
 import javax.inject.Inject;
 
+import dagger.Lazy;
 import dagger.hilt.android.AndroidEntryPoint;
-import io.reactivex.rxjava3.disposables.Disposable;
 import kotlin.Unit;
 
 /**
@@ -36,13 +52,26 @@ import kotlin.Unit;
  * - Swipe-to-refresh
  * - Load state management
  * - Error handling
+ * - Genre filter chips
+ *
+ * <p>Streams from the ViewModel are only observed while the screen is started,
+ * see {@link StartedSubscriptions}.</p>
  */
 @AndroidEntryPoint
 public class MainActivity extends AppCompatActivity {
 
-    // Glide RequestManager for loading images (injected or created manually)
+    // Glide RequestManager for loading images, only built when the first poster is bound
+    @Inject
+    Lazy<RequestManager> requestManager;
+
+    // Repository caching movie details, used to prefetch the detail screen and load overviews
     @Inject
-    RequestManager requestManager;
+    MovieDetailRepository movieDetailRepository;
+
+    private static final String TAG = "MainActivity";
+
+    // Number of columns of the grid
+    private static final int SPAN_COUNT = 2;
 
     // View binding object for accessing layout views
     private ActivityMainBinding binding;
@@ -59,8 +88,14 @@ public class MainActivity extends AppCompatActivity {
     private CircularProgressIndicator circularProgressIndicator;
     private TextView message;
 
-    // Disposable to manage RxJava subscription
-    private Disposable disposable;
+    // Paging data shown by the adapter
+    private PagingData<Movie> submittedPagingData;
+
+    // Last known connectivity of the device
+    private NetworkState networkState;
+
+    // RxJava subscriptions, active while the activity is started
+    private StartedSubscriptions subscriptions;
 
     /**
      * Called when the activity is starting. Sets up the UI and subscriptions.
@@ -68,14 +103,15 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        setContentView(R.layout.activity_main);
 
         // Set up view binding and ViewModel
         binding = DataBindingUtil.setContentView(this, R.layout.activity_main);
+        StartupTrace.reportFirstFrame(binding.getRoot());
         mainViewModel = new ViewModelProvider(this).get(MovieViewModel.class);
 
         // Create adapter with image loader and comparator
-        adapter = new MovieAdapter(new MovieComparator(), requestManager);
+        adapter = new MovieAdapter(new MovieComparator(), requestManager, this::openMovieDetail,
+                movieDetailRepository::getOverview);
 
         // Optionally attach a header for retrying failed loads
         adapter.withLoadStateHeader(new MovieLoadStateAdapter(v -> adapter.retry()));
@@ -84,14 +120,35 @@ public class MainActivity extends AppCompatActivity {
         bindViews();
 
         // Set up RecyclerView with grid layout (2 columns)
-        recyclerView.setLayoutManager(new GridLayoutManager(this, 2));
+        GridLayoutManager layoutManager = new GridLayoutManager(this, SPAN_COUNT);
+        recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(adapter);
 
+        // Feed the adaptive paging configuration with the grid geometry and scroll speed
+        observeGrid(layoutManager);
+
+        // Fast-scroll thumb jumping straight to a TMDB page
+        binding.fastScroller.attach(recyclerView, mainViewModel.getPageLayout());
+
+        // Genre filter over the loaded movies
+        setUpGenreChips();
+
+        // Prefetch the details of the movies the user dwells on
+        new DwellPrefetchListener(adapter, movieDetailRepository).attach(recyclerView);
+
+        // Do not download posters scrolled past during fast flings
+        new FlingImageLoadListener(adapter, requestManager).attach(recyclerView);
+
         // Subscribe to ViewModel's paging data flow
-        disposable = subscribe();
+        subscriptions = StartedSubscriptions.of(this);
+        subscribe();
+
+        // React to connectivity changes
+        observeNetworkState();
 
         // Handle swipe-to-refresh
         swipeRefreshLayout.setOnRefreshListener(() -> {
+            mainViewModel.onRefresh();
             adapter.refresh();
         });
 
@@ -116,14 +173,104 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Subscribes to the ViewModel's paging data stream and submits data to the adapter.
+     * Adds a chip per genre, plus one showing every movie, filtering the grid
+     * through the ViewModel. The loaded movies are filtered in memory.
+     */
+    private void setUpGenreChips() {
+        ChipGroup chipGroup = binding.genreChips;
+        Set<Integer> filteredGenres = mainViewModel.getFilter().getGenreIds();
+
+        Chip allChip = addGenreChip(chipGroup, getString(R.string.all_genres), null);
+        allChip.setChecked(filteredGenres.isEmpty());
+        for (MovieGenre genre : MovieGenre.values()) {
+            Chip chip = addGenreChip(chipGroup, getString(genre.getLabel()), genre.getId());
+            chip.setChecked(filteredGenres.contains(genre.getId()));
+        }
+        binding.fastScroller.setEnabled(filteredGenres.isEmpty());
+
+        chipGroup.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            if (checkedIds.isEmpty()) return;
+
+            Integer genreId = (Integer) group.findViewById(checkedIds.get(0)).getTag();
+            MovieFilter filter = genreId != null ? MovieFilter.genre(genreId) : MovieFilter.NONE;
+            mainViewModel.setFilter(filter);
+            binding.fastScroller.setEnabled(filter.isEmpty()); // Positions no longer map to pages
+            recyclerView.scrollToPosition(0);
+        });
+    }
+
+    private Chip addGenreChip(ChipGroup chipGroup, String label, @Nullable Integer genreId) {
+        Chip chip = new Chip(this);
+        chip.setId(View.generateViewId());
+        chip.setText(label);
+        chip.setTag(genreId);
+        chip.setCheckable(true);
+        chipGroup.addView(chip);
+        return chip;
+    }
+
+    /**
+     * Reports the grid geometry, flings and scroll position to the ViewModel,
+     * which adapts the paging configuration to them.
+     *
+     * @param layoutManager The layout manager of the grid
+     */
+    private void observeGrid(GridLayoutManager layoutManager) {
+        recyclerView.setOnFlingListener(new RecyclerView.OnFlingListener() {
+            @Override
+            public boolean onFling(int velocityX, int velocityY) {
+                mainViewModel.onGridFling(velocityY);
+                return false; // Let the RecyclerView perform the fling
+            }
+        });
+
+        // Also called with (0, 0) after every layout pass
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            private int rowHeight;
+
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                mainViewModel.onGridScrolled(layoutManager.findFirstVisibleItemPosition());
+
+                View firstRow = layoutManager.getChildAt(0);
+                if (firstRow != null && firstRow.getHeight() != rowHeight) {
+                    rowHeight = firstRow.getHeight();
+                    mainViewModel.onGridLayout(layoutManager.getSpanCount(), rowHeight, recyclerView.getHeight());
+                }
+            }
+        });
+    }
+
+    /**
+     * Opens the detail screen of a movie, sharing its poster with the grid.
      *
-     * @return the Disposable that can be used to cancel the subscription
+     * @param movie     The tapped movie
+     * @param poster    The grid view showing its poster
+     * @param posterUrl The URL the poster was loaded from
+     */
+    private void openMovieDetail(Movie movie, ImageView poster, String posterUrl) {
+        if (movie.getId() == null) return;
+
+        // Cleared when the cell is rebound, see MovieAdapter
+        String transitionName = MovieDetailActivity.posterTransitionName(movie.getId());
+        ViewCompat.setTransitionName(poster, transitionName);
+        ActivityOptionsCompat options = ActivityOptionsCompat.makeSceneTransitionAnimation(
+                this, poster, transitionName);
+        startActivity(MovieDetailActivity.newIntent(this, movie, poster, posterUrl), options.toBundle());
+    }
+
+    /**
+     * Subscribes to the ViewModel's paging data stream and submits data to the adapter.
+     * The latest paging data is replayed when the activity is restarted, it is only
+     * submitted if the adapter does not show it already.
      */
-    private Disposable subscribe() {
-        return mainViewModel.getPagingDataFlowable().subscribe(
+    private void subscribe() {
+        subscriptions.add(mainViewModel.getPagingDataFlowable(),
                 pagingData -> {
-                    adapter.submitData(getLifecycle(), pagingData);
+                    if (pagingData != submittedPagingData) {
+                        adapter.submitData(getLifecycle(), pagingData);
+                        submittedPagingData = pagingData;
+                    }
                     circularProgressIndicator.setVisibility(GONE);
                 },
                 throwable -> {
@@ -135,15 +282,29 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Disposes the RxJava subscription when the activity is destroyed.
-     * Prevents memory leaks.
+     * Observes the connectivity of the device: failed loads are retried as soon as
+     * it comes back, and smaller posters are loaded on metered networks.
      */
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (disposable != null && !disposable.isDisposed()) {
-            disposable.dispose();
+    private void observeNetworkState() {
+        subscriptions.add(mainViewModel.getNetworkState(),
+                this::onNetworkStateChanged,
+                throwable -> Log.w(TAG, "Error observing the network state", throwable));
+    }
+
+    private void onNetworkStateChanged(NetworkState state) {
+        adapter.setReducedImageQuality(state == NetworkState.METERED);
+        if (networkState != null && !networkState.isOnline() && state.isOnline()) {
+            adapter.retry(); // Only retries loads that failed
         }
-        super.onDestroy();
+        networkState = state;
+    }
+
+    /**
+     * Saves the pages on screen, in case the process is killed in the background.
+     */
+    @Override
+    protected void onStop() {
+        super.onStop();
+        mainViewModel.saveSnapshot();
     }
 }
@@ -0,0 +1,181 @@
+package com.elegidocodes.networkpagination.ui;
+
+import static android.view.View.GONE;
+
+import android.content.Context;
+import android.content.Intent;
+import android.graphics.drawable.Drawable;
+import android.os.Bundle;
+import android.text.TextUtils;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.view.ViewCompat;
+import androidx.databinding.DataBindingUtil;
+import androidx.lifecycle.ViewModelProvider;
+
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+import com.elegidocodes.networkpagination.R;
+import com.elegidocodes.networkpagination.databinding.ActivityMovieDetailBinding;
+import com.elegidocodes.networkpagination.model.Cast;
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.MovieDetail;
+import com.elegidocodes.networkpagination.viewmodel.MovieDetailViewModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import dagger.hilt.android.AndroidEntryPoint;
+
+/**
+ * Screen showing the details of a single movie.
+ *
+ * <p>The poster is shared with the grid through a shared-element transition. It is
+ * requested with the exact size and transformation used by the grid cell, so Glide
+ * serves the already decoded bitmap from its memory cache and the screen renders
+ * without a second network or decode pass.</p>
+ */
+@AndroidEntryPoint
+public class MovieDetailActivity extends AppCompatActivity {
+
+    private static final String EXTRA_TITLE = "title";
+    private static final String EXTRA_POSTER_URL = "poster_url";
+    private static final String EXTRA_POSTER_WIDTH = "poster_width";
+    private static final String EXTRA_POSTER_HEIGHT = "poster_height";
+    private static final String EXTRA_POSTER_TRANSITION_NAME = "poster_transition_name";
+
+    /**
+     * Maximum number of cast members listed on the screen.
+     */
+    private static final int MAX_CAST = 10;
+
+    // Glide RequestManager sharing the memory cache with the grid
+    @Inject
+    RequestManager requestManager;
+
+    private ActivityMovieDetailBinding binding;
+
+    /**
+     * Returns the transition name shared by the grid poster and the detail poster of
+     * a movie. It is unique per movie, so recycled grid cells never share one.
+     *
+     * @param movieId The id of the movie
+     * @return the transition name of its poster
+     */
+    public static String posterTransitionName(int movieId) {
+        return "poster_" + movieId;
+    }
+
+    /**
+     * Creates the intent opening the detail of a movie.
+     *
+     * @param context The launching context
+     * @param movie     The movie selected in the grid
+     * @param poster    The grid view showing the poster, whose size is reused as memory cache key
+     *                  and whose transition name is given to the detail poster
+     * @param posterUrl The URL the grid loaded the poster from
+     * @return the intent to start this activity with
+     */
+    public static Intent newIntent(Context context, Movie movie, View poster, String posterUrl) {
+        return new Intent(context, MovieDetailActivity.class)
+                .putExtra(MovieDetailViewModel.EXTRA_MOVIE_ID, movie.getId())
+                .putExtra(EXTRA_TITLE, movie.getTitle())
+                .putExtra(EXTRA_POSTER_URL, posterUrl)
+                .putExtra(EXTRA_POSTER_WIDTH, poster.getWidth())
+                .putExtra(EXTRA_POSTER_HEIGHT, poster.getHeight())
+                .putExtra(EXTRA_POSTER_TRANSITION_NAME, ViewCompat.getTransitionName(poster));
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        binding = DataBindingUtil.setContentView(this, R.layout.activity_movie_detail);
+        binding.setLifecycleOwner(this);
+
+        // Wait for the poster before running the shared-element transition
+        supportPostponeEnterTransition();
+        Intent intent = getIntent();
+        ViewCompat.setTransitionName(binding.poster, intent.getStringExtra(EXTRA_POSTER_TRANSITION_NAME));
+
+        binding.title.setText(intent.getStringExtra(EXTRA_TITLE));
+        loadPoster(
+                intent.getStringExtra(EXTRA_POSTER_URL),
+                intent.getIntExtra(EXTRA_POSTER_WIDTH, Target.SIZE_ORIGINAL),
+                intent.getIntExtra(EXTRA_POSTER_HEIGHT, Target.SIZE_ORIGINAL)
+        );
+
+        MovieDetailViewModel viewModel = new ViewModelProvider(this).get(MovieDetailViewModel.class);
+        StartedSubscriptions.of(this).add(viewModel.getMovieDetail(), this::bindDetail, throwable -> {
+            binding.message.setText(throwable.getMessage());
+            binding.message.setVisibility(View.VISIBLE);
+            binding.circularProgressIndicator.setVisibility(GONE);
+        });
+    }
+
+    /**
+     * Loads the poster using the same size and center-crop transformation as the grid
+     * cell, which makes the request a memory cache hit when coming from the grid.
+     */
+    private void loadPoster(String posterUrl, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            width = Target.SIZE_ORIGINAL;
+            height = Target.SIZE_ORIGINAL;
+        }
+
+        requestManager.load(posterUrl)
+                .override(width, height)
+                .optionalCenterCrop()
+                .dontAnimate() // The shared-element transition animates the poster
+                .listener(new RequestListener<Drawable>() {
+                    @Override
+                    public boolean onLoadFailed(@Nullable GlideException e, Object model,
+                                                @NonNull Target<Drawable> target, boolean isFirstResource) {
+                        supportStartPostponedEnterTransition();
+                        return false;
+                    }
+
+                    @Override
+                    public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model,
+                                                   Target<Drawable> target, @NonNull DataSource dataSource,
+                                                   boolean isFirstResource) {
+                        supportStartPostponedEnterTransition();
+                        return false;
+                    }
+                })
+                .into(binding.poster);
+    }
+
+    /**
+     * Binds the loaded detail to the layout.
+     */
+    private void bindDetail(MovieDetail detail) {
+        binding.setDetail(detail);
+        binding.setCast(castSummary(detail));
+        binding.circularProgressIndicator.setVisibility(GONE);
+    }
+
+    /**
+     * Joins the names of the top billed cast members.
+     */
+    private static String castSummary(MovieDetail detail) {
+        if (detail.getCredits() == null || detail.getCredits().getCast() == null) {
+            return "";
+        }
+
+        List<String> names = new ArrayList<>();
+        for (Cast cast : detail.getCredits().getCast()) {
+            if (names.size() == MAX_CAST) break;
+            names.add(cast.getName());
+        }
+        return TextUtils.join(", ", names);
+    }
+
+}
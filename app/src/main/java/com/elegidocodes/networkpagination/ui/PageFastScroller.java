@@ -0,0 +1,240 @@
+package com.elegidocodes.networkpagination.ui;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.elegidocodes.networkpagination.R;
+import com.elegidocodes.networkpagination.repository.MoviePagingSource;
+import com.elegidocodes.networkpagination.repository.PageLayout;
+import com.google.android.material.color.MaterialColors;
+
+/**
+ * Fast-scroll thumb mapping its position to a TMDB page over the whole result set.
+ *
+ * <p>With placeholders enabled the adapter reports every movie of the result set, so
+ * the thumb position maps to an absolute item position. While dragging only the
+ * thumb and its "Page N" label move; on release the grid scrolls straight to the
+ * first item of the selected page. Since the target is further than the pager's
+ * {@code jumpThreshold}, the Paging library drops the loaded window and refreshes
+ * from that page (plus the prefetched neighbors) instead of crawling through every
+ * page in between, which keeps memory within the pager's {@code maxSize}.</p>
+ */
+public class PageFastScroller extends View {
+
+    private static final float THUMB_WIDTH_DP = 6;
+    private static final float THUMB_HEIGHT_DP = 48;
+    private static final float LABEL_TEXT_SP = 14;
+    private static final float LABEL_PADDING_DP = 8;
+
+    /**
+     * Minimum number of pages before the scroller is shown.
+     */
+    private static final int MIN_PAGES = 5;
+
+    private final Paint thumbPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint labelTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF rect = new RectF();
+
+    private final float thumbWidth;
+    private final float thumbHeight;
+    private final float labelPadding;
+
+    private RecyclerView recyclerView;
+
+    /**
+     * Layout mapping the positions of the grid to pages.
+     */
+    private PageLayout pageLayout = PageLayout.FIXED;
+
+    /**
+     * Position of the thumb, from 0 (top) to 1 (bottom).
+     */
+    private float fraction;
+    private boolean dragging;
+
+    public PageFastScroller(Context context) {
+        this(context, null);
+    }
+
+    public PageFastScroller(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        float density = metrics.density;
+
+        thumbWidth = THUMB_WIDTH_DP * density;
+        thumbHeight = THUMB_HEIGHT_DP * density;
+        labelPadding = LABEL_PADDING_DP * density;
+
+        thumbPaint.setColor(MaterialColors.getColor(this, com.google.android.material.R.attr.colorPrimary));
+        labelPaint.setColor(MaterialColors.getColor(this, com.google.android.material.R.attr.colorPrimaryContainer));
+        labelTextPaint.setColor(MaterialColors.getColor(this, com.google.android.material.R.attr.colorOnPrimaryContainer));
+        // Not scaledDensity: fonts scale non-linearly since Android 14
+        labelTextPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, LABEL_TEXT_SP, metrics));
+        labelTextPaint.setTextAlign(Paint.Align.RIGHT);
+
+        setVisibility(GONE);
+    }
+
+    /**
+     * Starts tracking the scroll position of the given grid. The adapter must be set
+     * on the grid before attaching.
+     *
+     * @param recyclerView The grid to scroll, using a {@link LinearLayoutManager} subclass
+     * @param pageLayout   Layout mapping the positions of the grid to pages
+     */
+    public void attach(@NonNull RecyclerView recyclerView, @NonNull PageLayout pageLayout) {
+        this.recyclerView = recyclerView;
+        this.pageLayout = pageLayout;
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (!dragging) syncWithList();
+            }
+        });
+
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        if (adapter != null) {
+            // The item count is known once the first page reports its placeholders
+            adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+                @Override
+                public void onChanged() {
+                    if (!dragging) syncWithList();
+                }
+
+                @Override
+                public void onItemRangeInserted(int positionStart, int itemCount) {
+                    if (!dragging) syncWithList();
+                }
+            });
+        }
+    }
+
+    /**
+     * Disabled scrollers stay hidden, e.g. while the grid is filtered and its
+     * positions no longer map to pages.
+     */
+    @Override
+    public void setEnabled(boolean enabled) {
+        super.setEnabled(enabled);
+        if (recyclerView != null) syncWithList();
+    }
+
+    /**
+     * Moves the thumb to the first visible position and shows the scroller once the
+     * result set is large enough.
+     */
+    private void syncWithList() {
+        int itemCount = getItemCount();
+        setVisibility(isEnabled() && itemCount >= MIN_PAGES * MoviePagingSource.TMDB_PAGE_SIZE ? VISIBLE : GONE);
+        if (itemCount <= 1) return;
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (layoutManager == null) return;
+
+        int first = layoutManager.findFirstVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) return;
+
+        fraction = (float) first / (itemCount - 1);
+        invalidate();
+    }
+
+    @SuppressLint("ClickableViewAccessibility")
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                if (event.getX() < getWidth() - thumbWidth * 4) return false; // Only near the edge
+                dragging = true;
+                getParent().requestDisallowInterceptTouchEvent(true);
+                updateFraction(event.getY());
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                if (!dragging) return false;
+                updateFraction(event.getY());
+                return true;
+            case MotionEvent.ACTION_UP:
+                if (!dragging) return false;
+                dragging = false;
+                jumpToSelectedPage();
+                invalidate();
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                dragging = false;
+                syncWithList();
+                return true;
+            default:
+                return super.onTouchEvent(event);
+        }
+    }
+
+    private void updateFraction(float y) {
+        float track = getHeight() - thumbHeight;
+        fraction = track > 0 ? Math.max(0f, Math.min(1f, (y - thumbHeight / 2) / track)) : 0f;
+        invalidate();
+    }
+
+    /**
+     * Scrolls to the first item of the selected page. The jump is done in a single
+     * step so only the target page is loaded.
+     */
+    private void jumpToSelectedPage() {
+        int itemCount = getItemCount();
+        if (itemCount == 0) return;
+
+        int page = selectedPage(itemCount);
+        int position = Math.min(pageLayout.positionOf(page), itemCount - 1);
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (layoutManager != null) {
+            recyclerView.stopScroll();
+            layoutManager.scrollToPositionWithOffset(position, 0);
+        }
+    }
+
+    private int selectedPage(int itemCount) {
+        int position = Math.round(fraction * (itemCount - 1));
+        return pageLayout.pageAt(position);
+    }
+
+    private int getItemCount() {
+        RecyclerView.Adapter<?> adapter = recyclerView != null ? recyclerView.getAdapter() : null;
+        return adapter != null ? adapter.getItemCount() : 0;
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+
+        float top = fraction * (getHeight() - thumbHeight);
+        rect.set(getWidth() - thumbWidth * 2, top, getWidth() - thumbWidth, top + thumbHeight);
+        canvas.drawRoundRect(rect, thumbWidth, thumbWidth, thumbPaint);
+
+        if (dragging) {
+            String label = getContext().getString(R.string.page_label, selectedPage(getItemCount()));
+            float textWidth = labelTextPaint.measureText(label);
+            float textHeight = labelTextPaint.getTextSize();
+            float right = rect.left - labelPadding;
+            float centerY = top + thumbHeight / 2;
+
+            rect.set(right - textWidth - labelPadding * 2, centerY - textHeight / 2 - labelPadding,
+                    right, centerY + textHeight / 2 + labelPadding);
+            canvas.drawRoundRect(rect, labelPadding, labelPadding, labelPaint);
+            canvas.drawText(label, right - labelPadding, centerY + textHeight / 3, labelTextPaint);
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.elegidocodes.networkpagination.ui;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.functions.Consumer;
+
+/**
+ * Rx subscriptions bound to the STARTED state of a screen.
+ *
+ * <p>Every stream registered here is subscribed when the screen is started and
+ * disposed when it is stopped, so nothing is delivered (and nothing is diffed or
+ * laid out) while the screen is in the background. Items are delivered on the main
+ * thread. Streams are subscribed again on the next start, so they should replay
+ * their latest item, as {@code cachedIn} paging data and behavior subjects do.</p>
+ *
+ * <p>The registrations are dropped when the screen is destroyed.</p>
+ */
+public final class StartedSubscriptions implements DefaultLifecycleObserver {
+
+    private final Lifecycle lifecycle;
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private final CompositeDisposable started = new CompositeDisposable();
+
+    private StartedSubscriptions(@NonNull Lifecycle lifecycle) {
+        this.lifecycle = lifecycle;
+    }
+
+    /**
+     * Creates the subscriptions of a screen. Must be called on the main thread.
+     *
+     * @param owner The screen
+     * @return an empty set of subscriptions, following the lifecycle of the screen
+     */
+    @NonNull
+    public static StartedSubscriptions of(@NonNull LifecycleOwner owner) {
+        StartedSubscriptions subscriptions = new StartedSubscriptions(owner.getLifecycle());
+        owner.getLifecycle().addObserver(subscriptions);
+        return subscriptions;
+    }
+
+    /**
+     * Registers a stream, subscribed while the screen is started.
+     *
+     * @param source  The stream
+     * @param onNext  Called on the main thread with every item
+     * @param onError Called on the main thread if the stream fails
+     */
+    public <T> void add(@NonNull Flowable<T> source, @NonNull Consumer<? super T> onNext,
+                        @NonNull Consumer<? super Throwable> onError) {
+        add(() -> source.observeOn(AndroidSchedulers.mainThread()).subscribe(onNext, onError));
+    }
+
+    /**
+     * Registers a stream, subscribed while the screen is started.
+     *
+     * @param source  The stream
+     * @param onNext  Called on the main thread with every item
+     * @param onError Called on the main thread if the stream fails
+     */
+    public <T> void add(@NonNull Observable<T> source, @NonNull Consumer<? super T> onNext,
+                        @NonNull Consumer<? super Throwable> onError) {
+        add(() -> source.observeOn(AndroidSchedulers.mainThread()).subscribe(onNext, onError));
+    }
+
+    /**
+     * Registers a single result, requested while the screen is started. It is
+     * requested again after a restart, so it should be cached.
+     *
+     * @param source    The result
+     * @param onSuccess Called on the main thread with the result
+     * @param onError   Called on the main thread if the request fails
+     */
+    public <T> void add(@NonNull Single<T> source, @NonNull Consumer<? super T> onSuccess,
+                        @NonNull Consumer<? super Throwable> onError) {
+        add(() -> source.observeOn(AndroidSchedulers.mainThread()).subscribe(onSuccess, onError));
+    }
+
+    private void add(Subscription subscription) {
+        subscriptions.add(subscription);
+        if (lifecycle.getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+            started.add(subscription.subscribe());
+        }
+    }
+
+    @Override
+    public void onStart(@NonNull LifecycleOwner owner) {
+        for (Subscription subscription : subscriptions) {
+            started.add(subscription.subscribe());
+        }
+    }
+
+    @Override
+    public void onStop(@NonNull LifecycleOwner owner) {
+        started.clear();
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        subscriptions.clear();
+        owner.getLifecycle().removeObserver(this);
+    }
+
+    /**
+     * Subscribes a registered stream.
+     */
+    private interface Subscription {
+        Disposable subscribe();
+    }
+
+}
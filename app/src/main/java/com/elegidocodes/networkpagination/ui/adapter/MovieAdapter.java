@@ -1,24 +1,66 @@
 package com.elegidocodes.networkpagination.ui.adapter;
 
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 import android.view.LayoutInflater;
+import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.ViewCompat;
 import androidx.databinding.DataBindingUtil;
 import androidx.paging.PagingDataAdapter;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.RequestBuilder;
 import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.load.resource.drawable.DrawableTransitionOptions;
+import com.bumptech.glide.request.Request;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.request.target.ViewTarget;
 import com.elegidocodes.networkpagination.R;
+import com.elegidocodes.networkpagination.application.StartupTrace;
+import com.elegidocodes.networkpagination.application.TmdbImages;
 import com.elegidocodes.networkpagination.databinding.MovieItemBinding;
 import com.elegidocodes.networkpagination.model.Movie;
 
+import java.util.HashSet;
+import java.util.Set;
+
+import dagger.Lazy;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+
 /**
  * Adapter for displaying a list of {@link Movie} items in a {@link RecyclerView}.
  * This adapter is used in conjunction with Paging to load data efficiently in a RecyclerView.
  * It supports pagination and uses Glide for image loading.
+ *
+ * <p>Movies paged without their overview show a toggle instead; the overview is
+ * requested from an {@link OverviewSource} only when the user expands the row.</p>
+ *
+ * <p>Posters are requested with {@link Priority#HIGH} when their row appears on
+ * screen. Rows bound ahead of the screen by the layout manager request theirs with
+ * {@link Priority#LOW}, upgraded once they appear, so they never delay visible
+ * content. Poster requests are cleared as soon as a row is recycled, and can be
+ * restarted with the highest priority for the rows on screen, see
+ * {@link #prioritizePoster(RecyclerView.ViewHolder)}.</p>
+ *
+ * <p>A poster first shows the tiny {@code w92} rendition, or the reduced rendition
+ * if it is already on disk, then crossfades to the full one. Every rendition goes
+ * through the same Glide disk cache. Movies without a poster request nothing.</p>
+ *
+ * <p>Glide is only built when the first row is bound, off the path to the first frame.</p>
  */
 public class MovieAdapter extends PagingDataAdapter<Movie, MovieAdapter.ViewHolder> {
 
@@ -29,17 +71,50 @@ public class MovieAdapter extends PagingDataAdapter<Movie, MovieAdapter.ViewHold
     public static final int LOADING_ITEM = 0;
     public static final int MOVIE_ITEM = 1;
 
-    private final RequestManager requestManager;
+    private static final String TAG = "MovieAdapter";
+
+    private final Lazy<RequestManager> requestManager;
+    private final OnMovieClickListener onMovieClickListener;
+    private final OverviewSource overviewSource;
+
+    /**
+     * Handler starting the poster requests of rows bound ahead of the screen.
+     */
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Ids of the movies whose overview is expanded, kept across rebinds.
+     */
+    private final Set<Integer> expandedIds = new HashSet<>();
+
+    /**
+     * Whether posters are loaded in a smaller rendition to save data.
+     */
+    private boolean reducedImageQuality;
 
     /**
      * Constructor for the MovieAdapter.
      *
-     * @param diffCallback   DiffUtil callback to handle comparisons of {@link Movie} objects.
-     * @param requestManager Glide request manager used to load images.
+     * @param diffCallback         DiffUtil callback to handle comparisons of {@link Movie} objects.
+     * @param requestManager       Glide request manager used to load images, built on first use.
+     * @param onMovieClickListener Listener notified when a movie is tapped.
+     * @param overviewSource       Source of the overviews of movies paged without them.
      */
-    public MovieAdapter(@NonNull DiffUtil.ItemCallback<Movie> diffCallback, RequestManager requestManager) {
+    public MovieAdapter(@NonNull DiffUtil.ItemCallback<Movie> diffCallback, Lazy<RequestManager> requestManager,
+                        OnMovieClickListener onMovieClickListener, OverviewSource overviewSource) {
         super(diffCallback);
         this.requestManager = requestManager;
+        this.onMovieClickListener = onMovieClickListener;
+        this.overviewSource = overviewSource;
+    }
+
+    /**
+     * Switches the rendition used for posters bound from now on.
+     *
+     * @param reducedImageQuality {@code true} to load smaller posters (e.g. on metered networks).
+     */
+    public void setReducedImageQuality(boolean reducedImageQuality) {
+        this.reducedImageQuality = reducedImageQuality;
     }
 
     /**
@@ -69,10 +144,79 @@ public class MovieAdapter extends PagingDataAdapter<Movie, MovieAdapter.ViewHold
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
         Movie movie = getItem(position);
         if (movie != null) {
-            holder.bind(movie, requestManager);
+            String posterPath = movie.getPosterPath();
+            if (posterPath != null) {
+                holder.bind(movie, TmdbImages.posterUrl(posterPath, reducedImageQuality),
+                        TmdbImages.thumbnailUrl(posterPath),
+                        // Low resolution rendition possibly cached while on a metered network
+                        !reducedImageQuality ? TmdbImages.posterUrl(posterPath, true) : null,
+                        requestManager.get(), onMovieClickListener);
+            } else {
+                holder.bind(movie, null, null, null, requestManager.get(), onMovieClickListener);
+            }
+            holder.bindOverview(movie, isExpanded(movie), overviewSource, this::toggleOverview);
+
+            if (holder.itemView.isAttachedToWindow()) {
+                holder.loadPoster(requestManager.get(), Priority.HIGH); // Rebound on screen
+            } else {
+                // Rows laid out now are attached before this runs, the others are off screen
+                mainHandler.post(() -> {
+                    if (!holder.itemView.isAttachedToWindow()) {
+                        holder.loadPoster(requestManager.get(), Priority.LOW);
+                    }
+                });
+            }
+        } else {
+            holder.clear(requestManager.get()); // Placeholder, not loaded yet
         }
     }
 
+    /**
+     * Requests the poster of a row appearing on screen, or raises the priority of
+     * the request started while it was off screen.
+     */
+    @Override
+    public void onViewAttachedToWindow(@NonNull ViewHolder holder) {
+        holder.loadPoster(requestManager.get(), Priority.HIGH);
+    }
+
+    /**
+     * Cancels the poster and overview requests of a row leaving the screen.
+     */
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        holder.posterUrl = null;
+        requestManager.get().clear(holder.poster);
+        holder.cancelOverview();
+    }
+
+    /**
+     * Restarts the poster request of a row with {@link Priority#IMMEDIATE}, so it
+     * is fetched before the other posters waiting for the network. Loaded posters,
+     * and posters loading for a row on screen, are left alone.
+     *
+     * @param holder A view holder of this adapter.
+     */
+    public void prioritizePoster(@NonNull RecyclerView.ViewHolder holder) {
+        if (holder instanceof ViewHolder) {
+            ((ViewHolder) holder).loadPoster(requestManager.get(), Priority.IMMEDIATE);
+        }
+    }
+
+    private boolean isExpanded(Movie movie) {
+        return movie.getId() != null && expandedIds.contains(movie.getId());
+    }
+
+    private void toggleOverview(ViewHolder holder, Movie movie) {
+        int position = holder.getBindingAdapterPosition();
+        if (position == RecyclerView.NO_POSITION || movie.getId() == null) return;
+
+        if (!expandedIds.remove(movie.getId())) {
+            expandedIds.add(movie.getId());
+        }
+        notifyItemChanged(position);
+    }
+
     /**
      * Determines the view type of the item at the specified position.
      *
@@ -84,14 +228,104 @@ public class MovieAdapter extends PagingDataAdapter<Movie, MovieAdapter.ViewHold
         return position == getItemCount() ? LOADING_ITEM : MOVIE_ITEM;
     }
 
+    /**
+     * Listener notified when a movie of the grid is tapped.
+     */
+    public interface OnMovieClickListener {
+
+        /**
+         * @param movie     The tapped movie.
+         * @param poster    The view showing its poster, used for the shared-element transition.
+         * @param posterUrl The URL the poster was loaded from.
+         */
+        void onMovieClick(Movie movie, ImageView poster, String posterUrl);
+
+    }
+
+    /**
+     * Source of the overview of a movie paged without it.
+     */
+    public interface OverviewSource {
+
+        /**
+         * @param movieId The TMDB identifier of the movie.
+         * @return a {@link Single} emitting the overview, on any thread.
+         */
+        Single<String> getOverview(int movieId);
+
+    }
+
+    private interface OnOverviewToggleListener {
+        void onOverviewToggle(ViewHolder holder, Movie movie);
+    }
+
     /**
      * ViewHolder for movie items. Binds a {@link Movie} object to its associated view.
      */
     static class ViewHolder extends RecyclerView.ViewHolder {
 
+        // Lines of overview shown when it is part of the row, and when it is expanded
+        private static final int COLLAPSED_LINES = 2;
+        private static final int EXPANDED_LINES = 4;
+
+        // Duration of the crossfade from the low resolution poster to the full one
+        private static final int CROSSFADE_MILLIS = 150;
+
+        // Reports the first poster shown since the app started
+        private static final RequestListener<Drawable> POSTER_SHOWN_LISTENER = new RequestListener<Drawable>() {
+            @Override
+            public boolean onLoadFailed(@Nullable GlideException e, Object model,
+                                        @NonNull Target<Drawable> target, boolean isFirstResource) {
+                return false;
+            }
+
+            @Override
+            public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model,
+                                           Target<Drawable> target, @NonNull DataSource dataSource,
+                                           boolean isFirstResource) {
+                StartupTrace.onPosterShown();
+                return false; // Let Glide set the poster
+            }
+        };
+
         private final MovieItemBinding binding;
         private final ImageView poster;
 
+        /**
+         * URL of the poster bound, {@code null} for placeholders and movies without a poster.
+         */
+        private String posterUrl;
+
+        /**
+         * URL of the tiny rendition shown first, {@code null} without a poster.
+         */
+        private String thumbnailUrl;
+
+        /**
+         * URL of a low resolution rendition shown first if it is cached, may be {@code null}.
+         */
+        private String cachedPreviewUrl;
+
+        /**
+         * Target of the last poster request, holding the request.
+         */
+        private ViewTarget<ImageView, Drawable> posterTarget;
+
+        /**
+         * Priority of the last poster request.
+         */
+        private Priority posterPriority;
+
+        /**
+         * Pending overview request, if any.
+         */
+        private Disposable overviewRequest;
+
+        /**
+         * Id of the movie bound, checked before showing an overview loaded asynchronously.
+         */
+        private Integer boundId;
+
         /**
          * Constructor for the ViewHolder.
          *
@@ -104,19 +338,153 @@ public class MovieAdapter extends PagingDataAdapter<Movie, MovieAdapter.ViewHold
         }
 
         /**
-         * Binds a {@link Movie} object to the view, including setting the movie's title
-         * and loading its poster image into the ImageView using Glide.
+         * Binds a {@link Movie} object to the view, including setting the movie's title.
+         * The poster is requested by {@link #loadPoster(RequestManager, Priority)}, once
+         * the priority of the row is known.
          *
-         * @param movie          The {@link Movie} object to bind to the view.
-         * @param requestManager The Glide request manager used to load images.
+         * @param movie                The {@link Movie} object to bind to the view.
+         * @param posterUrl            The URL of the poster rendition to load, {@code null} without a poster.
+         * @param thumbnailUrl         The URL of the tiny rendition shown first, may be {@code null}.
+         * @param cachedPreviewUrl     The URL of a rendition shown first if cached, may be {@code null}.
+         * @param requestManager       The Glide request manager used to load images.
+         * @param onMovieClickListener The listener notified when the movie is tapped.
          */
-        private void bind(Movie movie, RequestManager requestManager) {
+        private void bind(Movie movie, String posterUrl, String thumbnailUrl, String cachedPreviewUrl,
+                          RequestManager requestManager, OnMovieClickListener onMovieClickListener) {
             binding.setMovie(movie);
-            // Load the movie poster image into the ImageView using Glide.
-            requestManager.load("https://image.tmdb.org/t/p/w500" + movie.getPosterPath())
+            ViewCompat.setTransitionName(poster, null); // Set again for the movie tapped
+            itemView.setOnClickListener(v -> onMovieClickListener.onMovieClick(movie, poster, posterUrl));
+            if (posterUrl == null || !posterUrl.equals(this.posterUrl)) {
+                // The poster of the previous movie must not count as loaded
+                requestManager.clear(poster);
+                posterTarget = null;
+            }
+            this.posterUrl = posterUrl;
+            this.thumbnailUrl = thumbnailUrl;
+            this.cachedPreviewUrl = cachedPreviewUrl;
+        }
+
+        /**
+         * Builds the request of the bound poster, with its low resolution renditions
+         * as thumbnails.
+         */
+        private RequestBuilder<Drawable> posterRequest(RequestManager requestManager, Priority priority) {
+            RequestBuilder<Drawable> request = requestManager.load(posterUrl)
+                    .priority(priority)
+                    .addListener(POSTER_SHOWN_LISTENER);
+            if (thumbnailUrl == null) return request;
+
+            RequestBuilder<Drawable> thumbnail = requestManager.load(thumbnailUrl)
+                    .priority(priority);
+            if (cachedPreviewUrl != null) {
+                thumbnail = requestManager.load(cachedPreviewUrl)
+                        .priority(priority)
+                        .onlyRetrieveFromCache(true) // Never downloaded for this
+                        .thumbnail(thumbnail);
+            }
+            return request.thumbnail(thumbnail)
+                    .transition(DrawableTransitionOptions.withCrossFade(CROSSFADE_MILLIS));
+        }
+
+        /**
+         * Loads the bound poster with the given priority, unless it is already
+         * loaded, or loading for a row on screen. A request started off screen is
+         * restarted with the new priority.
+         *
+         * @param requestManager The Glide request manager used to load images.
+         * @param priority       The priority of the new request.
+         */
+        private void loadPoster(RequestManager requestManager, Priority priority) {
+            if (posterUrl == null) return;
+
+            Request request = posterTarget != null ? posterTarget.getRequest() : null;
+            if (request != null && request.isComplete()) return;
+            if (request != null && request.isRunning()
+                    && (posterPriority != Priority.LOW || priority == Priority.LOW)) return;
+
+            posterPriority = priority;
+            posterTarget = posterRequest(requestManager, priority)
                     .into(poster);
         }
 
+        /**
+         * Resets the view to an empty placeholder, cancelling any pending poster load.
+         *
+         * @param requestManager The Glide request manager used to load images.
+         */
+        private void clear(RequestManager requestManager) {
+            binding.setMovie(null);
+            ViewCompat.setTransitionName(poster, null);
+            itemView.setOnClickListener(null);
+            posterUrl = null;
+            requestManager.clear(poster);
+            cancelOverview();
+            boundId = null;
+            binding.overview.setVisibility(View.GONE);
+            binding.overviewToggle.setVisibility(View.GONE);
+        }
+
+        /**
+         * Shows the overview of a movie: directly when it was paged with it, behind a
+         * toggle otherwise, loading it when the row is expanded.
+         *
+         * @param movie          The movie bound to the row.
+         * @param expanded       Whether the user expanded the overview.
+         * @param overviewSource Source of the overview of movies paged without it.
+         * @param toggleListener Listener notified when the toggle is tapped.
+         */
+        private void bindOverview(Movie movie, boolean expanded, OverviewSource overviewSource,
+                                  OnOverviewToggleListener toggleListener) {
+            cancelOverview();
+            boundId = movie.getId();
+
+            if (movie.getOverview() != null || movie.getId() == null) {
+                binding.overviewToggle.setVisibility(View.GONE);
+                binding.overview.setMaxLines(COLLAPSED_LINES);
+                binding.overview.setText(movie.getOverview());
+                binding.overview.setVisibility(movie.getOverview() != null ? View.VISIBLE : View.GONE);
+                return;
+            }
+
+            binding.overviewToggle.setVisibility(View.VISIBLE);
+            binding.overviewToggle.setText(expanded ? R.string.hide_overview : R.string.show_overview);
+            binding.overviewToggle.setOnClickListener(v -> toggleListener.onOverviewToggle(this, movie));
+            if (!expanded) {
+                binding.overview.setVisibility(View.GONE);
+                return;
+            }
+
+            int movieId = movie.getId();
+            binding.overview.setMaxLines(EXPANDED_LINES);
+            binding.overview.setText(R.string.overview_loading);
+            binding.overview.setVisibility(View.VISIBLE);
+            overviewRequest = overviewSource.getOverview(movieId)
+                    .observeOn(AndroidSchedulers.mainThread())
+                    .subscribe(
+                            overview -> showOverview(movieId, overview),
+                            throwable -> {
+                                Log.w(TAG, "Error loading the overview of movie " + movieId, throwable);
+                                showOverview(movieId, itemView.getContext().getString(R.string.overview_unavailable));
+                            }
+                    );
+        }
+
+        private void showOverview(int movieId, String overview) {
+            if (boundId != null && boundId == movieId) {
+                binding.overview.setText(overview);
+            }
+        }
+
+        /**
+         * Cancels the pending overview request, if any.
+         */
+        private void cancelOverview() {
+            if (overviewRequest != null) {
+                overviewRequest.dispose();
+                overviewRequest = null;
+            }
+        }
+
     }
 
 }
@@ -5,8 +5,6 @@ import androidx.recyclerview.widget.DiffUtil;
 
 import com.elegidocodes.networkpagination.model.Movie;
 
-import java.util.Objects;
-
 /**
  * A comparator for comparing two {@link Movie} objects in a RecyclerView Adapter.
  * Used by {@link androidx.recyclerview.widget.ListAdapter} to determine whether items and their contents have changed.
@@ -25,8 +23,7 @@ public class MovieComparator extends DiffUtil.ItemCallback<Movie> {
      */
     @Override
     public boolean areItemsTheSame(@NonNull Movie oldItem, @NonNull Movie newItem) {
-        // Use UNIQUE IDENTIFIER (ID) to check if the items are the same
-        return oldItem.getId().equals(newItem.getId());
+        return MovieDiff.sameItem(oldItem, newItem);
     }
 
     /**
@@ -40,9 +37,7 @@ public class MovieComparator extends DiffUtil.ItemCallback<Movie> {
      */
     @Override
     public boolean areContentsTheSame(@NonNull Movie oldItem, @NonNull Movie newItem) {
-        // Compare only VISUALLY STABLE properties such as title and poster
-        return oldItem.getTitle().equals(newItem.getTitle()) &&
-                Objects.equals(oldItem.getPosterPath(), newItem.getPosterPath());
+        return MovieDiff.sameContents(oldItem, newItem);
     }
 
 }
@@ -0,0 +1,44 @@
+package com.elegidocodes.networkpagination.ui.adapter;
+
+import androidx.annotation.NonNull;
+
+import com.elegidocodes.networkpagination.model.Movie;
+
+import java.util.Objects;
+
+/**
+ * Rules deciding how the grid diffs two {@link Movie} rows, applied by
+ * {@link MovieComparator}. Kept free of Android classes, so they run on a plain JVM,
+ * as in the benchmarks.
+ */
+public final class MovieDiff {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private MovieDiff() {
+        // Utility class
+    }
+
+    /**
+     * @param oldItem The old {@link Movie} item.
+     * @param newItem The new {@link Movie} item.
+     * @return {@code true} if the items have the same unique identifier.
+     */
+    public static boolean sameItem(@NonNull Movie oldItem, @NonNull Movie newItem) {
+        // Use UNIQUE IDENTIFIER (ID) to check if the items are the same
+        return oldItem.getId().equals(newItem.getId());
+    }
+
+    /**
+     * @param oldItem The old {@link Movie} item.
+     * @param newItem The new {@link Movie} item.
+     * @return {@code true} if the properties shown by the row, title and poster, are the same.
+     */
+    public static boolean sameContents(@NonNull Movie oldItem, @NonNull Movie newItem) {
+        // Compare only VISUALLY STABLE properties such as title and poster
+        return oldItem.getTitle().equals(newItem.getTitle()) &&
+                Objects.equals(oldItem.getPosterPath(), newItem.getPosterPath());
+    }
+
+}
@@ -0,0 +1,304 @@
+package com.elegidocodes.networkpagination.viewmodel;
+
+import androidx.annotation.NonNull;
+
+import com.elegidocodes.networkpagination.application.MemoryPressure;
+import com.elegidocodes.networkpagination.repository.MoviePagingSource;
+
+import java.util.Objects;
+
+/**
+ * Tunes the paging configuration from what is measured at runtime.
+ *
+ * <p>The controller observes the fling velocity, the number of items per screen
+ * (span count and row height) and the latency of page loads. The prefetch distance
+ * is sized so that a page requested at the prefetch boundary arrives before the
+ * user scrolls past the loaded items:</p>
+ *
+ * <pre>prefetch = itemsPerScreen + flingItemsPerSecond * pageLatencySeconds</pre>
+ *
+ * <p>The result is rounded to steps of half a page, so small fluctuations do not
+ * change the configuration, and rebuilds are rate limited because every rebuild
+ * creates a new pager. Low-RAM devices get a tighter memory cap, which also bounds
+ * the prefetch distance since Paging requires
+ * {@code maxSize >= pageSize + 2 * prefetchDistance}. On metered networks the
+ * prefetch distance stays at its default.</p>
+ *
+ * <p>Under memory pressure the memory cap is lowered the same way, down to two
+ * pages when the pressure is critical. Memory pressure changes bypass the rebuild
+ * rate limit, the pager has to release its pages now.</p>
+ *
+ * <p>The page size itself is not adapted: TMDB always serves
+ * {@link MoviePagingSource#TMDB_PAGE_SIZE} movies per request.</p>
+ */
+public class AdaptivePagingController {
+
+    // Paging configuration defaults
+    public static final int PAGE_SIZE = MoviePagingSource.TMDB_PAGE_SIZE;
+    static final int PREFETCH_DISTANCE = PAGE_SIZE / 2;
+    static final int INITIAL_LOAD_SIZE = PAGE_SIZE * 3;
+    static final int MAX_CACHE_SIZE = PAGE_SIZE * 5;
+
+    // Adaptive bounds
+    static final int MAX_PREFETCH_DISTANCE = PAGE_SIZE * 3;
+    static final int LOW_RAM_MAX_CACHE_SIZE = PAGE_SIZE * 3;
+    static final int CRITICAL_PRESSURE_MAX_CACHE_SIZE = PAGE_SIZE * 2;
+    private static final int PREFETCH_STEP = PAGE_SIZE / 2;
+
+    /**
+     * Minimum time between two pager rebuilds.
+     */
+    static final long MIN_REBUILD_INTERVAL_MILLIS = 30_000;
+
+    /**
+     * How long a fling keeps influencing the prefetch distance.
+     */
+    static final long FLING_MEMORY_MILLIS = 5_000;
+
+    /**
+     * Weight of the latest page latency in the moving average.
+     */
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    private static final long DEFAULT_LATENCY_MILLIS = 500;
+    private static final int DEFAULT_SPAN_COUNT = 2;
+    private static final int DEFAULT_ROWS_PER_SCREEN = 3;
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    /**
+     * Source of monotonic time, in milliseconds.
+     */
+    public interface Clock {
+        long elapsedRealtime();
+    }
+
+    /**
+     * Listener notified when the paging configuration should be rebuilt.
+     */
+    public interface Listener {
+        void onSettingsChanged(@NonNull Settings settings);
+    }
+
+    private final boolean lowRamDevice;
+    private final Clock clock;
+    private Listener listener;
+
+    private Settings settings;
+    private long lastRebuildAt;
+
+    private int spanCount = DEFAULT_SPAN_COUNT;
+    private int rowHeight;
+    private int itemsPerScreen = DEFAULT_SPAN_COUNT * DEFAULT_ROWS_PER_SCREEN;
+    private double latencyMillis = DEFAULT_LATENCY_MILLIS;
+    private double flingItemsPerSecond;
+    private long lastFlingAt = NEVER;
+    private boolean metered;
+    private MemoryPressure memoryPressure = MemoryPressure.NONE;
+
+    /**
+     * @param lowRamDevice Whether the device reports itself as low-RAM
+     * @param clock        Source of monotonic time
+     */
+    public AdaptivePagingController(boolean lowRamDevice, @NonNull Clock clock) {
+        this.lowRamDevice = lowRamDevice;
+        this.clock = clock;
+        this.lastRebuildAt = clock.elapsedRealtime(); // The first pager was just built
+        this.settings = computeSettings();
+    }
+
+    /**
+     * @param listener Listener notified when the settings change
+     */
+    public synchronized void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return the settings the current pager should use
+     */
+    @NonNull
+    public synchronized Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Records the geometry of the grid.
+     *
+     * @param spanCount      Number of columns
+     * @param rowHeight      Height of a row, in pixels
+     * @param viewportHeight Height of the visible area, in pixels
+     */
+    public synchronized void onLayout(int spanCount, int rowHeight, int viewportHeight) {
+        if (spanCount <= 0 || rowHeight <= 0 || viewportHeight <= 0) return;
+
+        this.spanCount = spanCount;
+        this.rowHeight = rowHeight;
+        this.itemsPerScreen = spanCount * (int) Math.ceil((double) viewportHeight / rowHeight);
+        reevaluate();
+    }
+
+    /**
+     * Records a fling of the grid.
+     *
+     * @param velocityY Vertical fling velocity, in pixels per second
+     */
+    public synchronized void onFling(int velocityY) {
+        if (rowHeight <= 0) return; // Geometry not known yet
+
+        flingItemsPerSecond = (double) Math.abs(velocityY) / rowHeight * spanCount;
+        lastFlingAt = clock.elapsedRealtime();
+        reevaluate();
+    }
+
+    /**
+     * Records the latency of a page load.
+     *
+     * @param latencyMillis Time between the request and the response, in milliseconds
+     */
+    public synchronized void onPageLoaded(long latencyMillis) {
+        this.latencyMillis += LATENCY_SMOOTHING * (latencyMillis - this.latencyMillis);
+        reevaluate();
+    }
+
+    /**
+     * Records whether the device is on a metered network.
+     *
+     * @param metered {@code true} on a metered network
+     */
+    public synchronized void setMetered(boolean metered) {
+        this.metered = metered;
+        reevaluate();
+    }
+
+    /**
+     * Records the memory pressure of the app. Unlike the other inputs, the new
+     * settings are applied immediately.
+     *
+     * @param memoryPressure The current memory pressure
+     */
+    public synchronized void setMemoryPressure(@NonNull MemoryPressure memoryPressure) {
+        if (this.memoryPressure == memoryPressure) return;
+
+        this.memoryPressure = memoryPressure;
+        reevaluate(true);
+    }
+
+    private void reevaluate() {
+        reevaluate(false);
+    }
+
+    /**
+     * Switches to the newly computed settings if they changed and the last
+     * rebuild is old enough.
+     *
+     * @param urgent Whether to ignore the rebuild rate limit
+     */
+    private void reevaluate(boolean urgent) {
+        Settings target = computeSettings();
+        if (target.equals(settings)) return;
+
+        long now = clock.elapsedRealtime();
+        if (!urgent && now - lastRebuildAt < MIN_REBUILD_INTERVAL_MILLIS) return;
+
+        settings = target;
+        lastRebuildAt = now;
+        if (listener != null) {
+            listener.onSettingsChanged(target);
+        }
+    }
+
+    private Settings computeSettings() {
+        boolean flinging = lastFlingAt != NEVER
+                && clock.elapsedRealtime() - lastFlingAt <= FLING_MEMORY_MILLIS;
+        double scrollItemsPerSecond = flinging ? flingItemsPerSecond : 0;
+
+        // Items consumed while the next page is in flight
+        double itemsNeeded = itemsPerScreen + scrollItemsPerSecond * latencyMillis / 1000.0;
+
+        int maxCacheSize;
+        if (memoryPressure == MemoryPressure.CRITICAL) {
+            maxCacheSize = CRITICAL_PRESSURE_MAX_CACHE_SIZE;
+        } else if (lowRamDevice || memoryPressure == MemoryPressure.MODERATE) {
+            maxCacheSize = LOW_RAM_MAX_CACHE_SIZE;
+        } else {
+            maxCacheSize = MAX_CACHE_SIZE;
+        }
+        boolean constrained = maxCacheSize < MAX_CACHE_SIZE;
+        int maxPrefetch = constrained ? (maxCacheSize - PAGE_SIZE) / 2 : MAX_PREFETCH_DISTANCE;
+        if (metered) {
+            maxPrefetch = PREFETCH_DISTANCE; // Do not spend the user's data on speculative pages
+        }
+
+        int prefetch = (int) Math.ceil(itemsNeeded / PREFETCH_STEP) * PREFETCH_STEP;
+        prefetch = Math.max(PREFETCH_DISTANCE, Math.min(prefetch, maxPrefetch));
+
+        int maxSize = Math.max(maxCacheSize, PAGE_SIZE + 2 * prefetch);
+        int initialLoadSize = Math.min(INITIAL_LOAD_SIZE, maxSize); // Pages over the cap would be dropped at once
+        return new Settings(PAGE_SIZE, prefetch, initialLoadSize, maxSize);
+    }
+
+    /**
+     * Immutable set of values used to build a {@link androidx.paging.PagingConfig}.
+     */
+    public static final class Settings {
+
+        private final int pageSize;
+        private final int prefetchDistance;
+        private final int initialLoadSize;
+        private final int maxSize;
+
+        Settings(int pageSize, int prefetchDistance, int initialLoadSize, int maxSize) {
+            this.pageSize = pageSize;
+            this.prefetchDistance = prefetchDistance;
+            this.initialLoadSize = initialLoadSize;
+            this.maxSize = maxSize;
+        }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public int getPrefetchDistance() {
+            return prefetchDistance;
+        }
+
+        public int getInitialLoadSize() {
+            return initialLoadSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+
+            Settings other = (Settings) obj;
+            return pageSize == other.pageSize
+                    && prefetchDistance == other.prefetchDistance
+                    && initialLoadSize == other.initialLoadSize
+                    && maxSize == other.maxSize;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pageSize, prefetchDistance, initialLoadSize, maxSize);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Settings{" +
+                    "pageSize=" + pageSize +
+                    ", prefetchDistance=" + prefetchDistance +
+                    ", initialLoadSize=" + initialLoadSize +
+                    ", maxSize=" + maxSize +
+                    '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.elegidocodes.networkpagination.viewmodel;
+
+import androidx.lifecycle.SavedStateHandle;
+import androidx.lifecycle.ViewModel;
+
+import com.elegidocodes.networkpagination.model.MovieDetail;
+import com.elegidocodes.networkpagination.repository.MovieDetailRepository;
+
+import javax.inject.Inject;
+
+import dagger.hilt.android.lifecycle.HiltViewModel;
+import io.reactivex.rxjava3.core.Single;
+
+/**
+ * ViewModel backing the movie detail screen.
+ *
+ * <p>The movie to show is read from the {@link SavedStateHandle}, which receives the
+ * extras of the launching intent. Details are served by {@link MovieDetailRepository},
+ * so a detail prefetched from the grid is available immediately.</p>
+ *
+ * <p>The request starts with the ViewModel and its result is cached, so the screen
+ * gets it again when restarted or recreated without a new request. A failure is
+ * not kept: the next subscription asks the repository again.</p>
+ */
+@HiltViewModel
+public class MovieDetailViewModel extends ViewModel {
+
+    /**
+     * Intent extra / saved state key holding the TMDB id of the movie.
+     */
+    public static final String EXTRA_MOVIE_ID = "movie_id";
+
+    private final MovieDetailRepository repository;
+    private final int movieId;
+
+    /**
+     * The current request, {@code null} once it failed.
+     */
+    private Single<MovieDetail> movieDetail;
+
+    @Inject
+    public MovieDetailViewModel(SavedStateHandle savedStateHandle, MovieDetailRepository repository) {
+        Integer movieId = savedStateHandle.get(EXTRA_MOVIE_ID);
+        if (movieId == null) {
+            throw new IllegalArgumentException("Missing " + EXTRA_MOVIE_ID + " extra");
+        }
+
+        this.repository = repository;
+        this.movieId = movieId;
+        // Kept here, the repository may evict it under memory pressure
+        movieDetail = repository.getMovieDetail(movieId);
+        repository.prefetch(movieId);
+    }
+
+    /**
+     * @return the detail of the movie, or the error raised while loading it. Each
+     * subscription after an error starts a new request.
+     */
+    public Single<MovieDetail> getMovieDetail() {
+        return Single.defer(this::currentRequest);
+    }
+
+    private synchronized Single<MovieDetail> currentRequest() {
+        if (movieDetail == null) {
+            movieDetail = repository.getMovieDetail(movieId);
+        }
+        Single<MovieDetail> request = movieDetail;
+        return request.doOnError(throwable -> forget(request));
+    }
+
+    private synchronized void forget(Single<MovieDetail> request) {
+        // The repository evicted it too, so the next request goes to the network
+        if (movieDetail == request) movieDetail = null;
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.elegidocodes.networkpagination.viewmodel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable client-side filter of the loaded movies: any of a set of genres, in
+ * an original language.
+ */
+public final class MovieFilter {
+
+    /**
+     * Filter keeping every movie.
+     */
+    public static final MovieFilter NONE = new MovieFilter(Collections.emptySet(), null);
+
+    private final Set<Integer> genreIds;
+    @Nullable
+    private final String language;
+
+    /**
+     * @param genreIds TMDB ids of the genres, empty for any genre
+     * @param language ISO 639-1 code of the original language, {@code null} for any language
+     */
+    public MovieFilter(@NonNull Set<Integer> genreIds, @Nullable String language) {
+        this.genreIds = Collections.unmodifiableSet(new LinkedHashSet<>(genreIds));
+        this.language = language;
+    }
+
+    /**
+     * @param genreId TMDB id of the genre
+     * @return a filter keeping the movies of a single genre, in any language
+     */
+    @NonNull
+    public static MovieFilter genre(int genreId) {
+        return new MovieFilter(Collections.singleton(genreId), null);
+    }
+
+    @NonNull
+    public Set<Integer> getGenreIds() {
+        return genreIds;
+    }
+
+    @Nullable
+    public String getLanguage() {
+        return language;
+    }
+
+    /**
+     * @return whether the filter keeps every movie
+     */
+    public boolean isEmpty() {
+        return genreIds.isEmpty() && language == null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        MovieFilter other = (MovieFilter) obj;
+        return genreIds.equals(other.genreIds) && Objects.equals(language, other.language);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(genreIds, language);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "MovieFilter{" +
+                "genreIds=" + genreIds +
+                ", language='" + language + '\'' +
+                '}';
+    }
+
+}
@@ -1,79 +1,374 @@
 package com.elegidocodes.networkpagination.viewmodel;
 
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.core.util.Pair;
+import androidx.lifecycle.SavedStateHandle;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelKt;
 import androidx.paging.Pager;
 import androidx.paging.PagingConfig;
 import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
 import androidx.paging.rxjava3.PagingRx;
 
+import com.elegidocodes.networkpagination.application.MemoryPressureCoordinator;
+import com.elegidocodes.networkpagination.application.MyRetrofit;
+import com.elegidocodes.networkpagination.application.NetworkState;
+import com.elegidocodes.networkpagination.application.NetworkStateManager;
 import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.repository.DiskMoviePageCache;
+import com.elegidocodes.networkpagination.repository.MovieIndex;
 import com.elegidocodes.networkpagination.repository.MoviePagingSource;
+import com.elegidocodes.networkpagination.repository.PageLayout;
+import com.elegidocodes.networkpagination.repository.PagingSnapshot;
+import com.elegidocodes.networkpagination.repository.PagingSnapshotStore;
+
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+
+import javax.inject.Inject;
 
+import dagger.hilt.android.lifecycle.HiltViewModel;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.processors.BehaviorProcessor;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import kotlinx.coroutines.CoroutineScope;
+import kotlinx.coroutines.CoroutineScopeKt;
+import kotlinx.coroutines.JobKt;
 
 /**
  * ViewModel for managing paginated movie data using Paging 3 and RxJava3.
  *
  * <p>This class exposes a {@link Flowable} of {@link PagingData} that the UI can observe
  * to efficiently load and display a large list of movies with built-in support for
- * pagination, caching, and lifecycle awareness.</p>
+ * pagination, caching, and lifecycle awareness. The flowable replays the latest
+ * paging data, so the UI can dispose it when stopped and subscribe again when
+ * started.</p>
+ *
+ * <p>The paging configuration is tuned at runtime by an {@link AdaptivePagingController}.
+ * When it changes, a new {@link Pager} is built starting at the page the user is
+ * looking at, so the grid keeps its position.</p>
+ *
+ * <p>When the app goes to the background, the pages around that position are saved
+ * by {@link PagingSnapshotStore}. After process death, the pager restarts at the
+ * saved position and is served from the snapshot before the network, until it
+ * delivers its first page. Pagers built later no longer read the snapshot.</p>
+ *
+ * <p>Under memory pressure, the pager is rebuilt with a lower memory cap and
+ * restored once the pressure is over.</p>
+ *
+ * <p>The loaded movies can be filtered by genre and language with
+ * {@link #setFilter(MovieFilter)}. Filters are applied on top of the cached paging
+ * data using a {@link MovieIndex} of the delivered pages. Placeholders stand for
+ * unfiltered rows, so setting the first filter rebuilds the pager without them,
+ * from the page on screen, and clearing the last one rebuilds it with them. The
+ * rebuilt pager reads the pages from the disk cache when it has them. Switching
+ * between two filters reuses the loaded pages: no network, no new pager.</p>
  */
+@HiltViewModel
 public class MovieViewModel extends ViewModel {
 
     // Paging configuration constants
-    private static final int PAGE_SIZE = 20;
-    private static final int PREFETCH_DISTANCE = PAGE_SIZE / 2;
-    private static final int INITIAL_LOAD_SIZE = PAGE_SIZE * 3;
-    private static final int MAX_CACHE_SIZE = PAGE_SIZE * 5;
+    private static final int PAGE_SIZE = AdaptivePagingController.PAGE_SIZE;
+    private static final int JUMP_THRESHOLD = PAGE_SIZE * 4;
+
+    private static final String TAG = "MovieViewModel";
 
     /**
-     * The stream of paginated movie data observed by the UI.
+     * Pages only keep the fields shown by the grid, overviews are loaded on demand.
+     */
+    private static final boolean LEAN_ROWS = true;
+
+    // Saved state keys
+    private static final String KEY_ANCHOR_POSITION = "anchor_position";
+    private static final String KEY_SNAPSHOT_TOKEN = "snapshot_token";
+
+    /**
+     * The stream of paginated movie data observed by the UI, filtered.
      */
     private final Flowable<PagingData<Movie>> pagingDataFlowable;
 
     /**
-     * Coroutine scope tied to this ViewModel's lifecycle for caching.
+     * Filter applied to the loaded movies.
+     */
+    private final BehaviorProcessor<MovieFilter> filter = BehaviorProcessor.createDefault(MovieFilter.NONE);
+
+    /**
+     * Index of the movies delivered by every paging source of this ViewModel.
+     */
+    private final MovieIndex movieIndex = new MovieIndex();
+
+    /**
+     * Executor running the filter off the main thread.
+     */
+    private final Executor filterExecutor = runnable -> Schedulers.computation().scheduleDirect(runnable);
+
+    /**
+     * Coroutine scope tied to this ViewModel's lifecycle for caching. It is the only
+     * coroutine API used: Paging shares the loaded pages through a child scope per
+     * pager, so the screen can resubscribe after a restart or a configuration change
+     * without reloading.
      */
     private final CoroutineScope viewModelScope = ViewModelKt.getViewModelScope(this);
 
+    /**
+     * Controller adapting the paging configuration to the device, network and user.
+     */
+    private final AdaptivePagingController pagingController;
+
+    /**
+     * Connectivity of the device.
+     */
+    private final NetworkStateManager networkStateManager;
+
+    /**
+     * Subscription feeding the metered state to the paging controller.
+     */
+    private final Disposable meteredSubscription;
+
+    /**
+     * Subscription feeding the memory pressure to the paging controller.
+     */
+    private final Disposable memoryPressureSubscription;
+
+    /**
+     * Saved state surviving process death, holding the anchor position and the
+     * token of the last snapshot.
+     */
+    private final SavedStateHandle savedStateHandle;
+
+    /**
+     * Store of the paging snapshot.
+     */
+    private final PagingSnapshotStore snapshotStore;
+
+    /**
+     * Disk cache of the pages, served stale while revalidating.
+     */
+    private final DiskMoviePageCache pageCache;
+
+    /**
+     * Snapshot restored after process death, until the first pager delivers its
+     * refresh page or the user refreshes. {@code null} on a fresh start.
+     */
+    private volatile Single<PagingSnapshot> restoredSnapshot;
+
+    /**
+     * Position of the first visible item, used as initial key when rebuilding the pager
+     * and to load the page on screen before the prefetched ones.
+     */
+    private volatile int anchorPosition;
+
+    /**
+     * Layout of the pages delivered by the current paging source, mapping grid
+     * positions to pages.
+     */
+    private volatile PageLayout pageLayout = PageLayout.FIXED;
+
+    /**
+     * Subscription keeping the latest pager alive, from the first subscriber of the UI.
+     */
+    private volatile Disposable pagerSubscription;
+
     /**
      * Constructor that initializes the paging flow using {@link Pager}.
-     * The paging data is cached in the ViewModel's coroutine scope.
+     * A new pager is created every time the paging settings or the placeholders
+     * change, and its paging data is cached in the ViewModel's coroutine scope.
+     *
+     * @param savedStateHandle    Saved state of the screen
+     * @param pagingController    Controller providing the paging settings
+     * @param networkStateManager Connectivity of the device
+     * @param snapshotStore       Store of the paging snapshot
+     * @param pageCache           Disk cache of the pages
+     * @param memoryPressure      Memory pressure of the app
      */
-    public MovieViewModel() {
-        Pager<Integer, Movie> pager = createPager();
-        pagingDataFlowable = PagingRx.getFlowable(pager)
-                .compose(flowable -> PagingRx.cachedIn(flowable, viewModelScope));
+    @Inject
+    public MovieViewModel(
+            SavedStateHandle savedStateHandle,
+            AdaptivePagingController pagingController,
+            NetworkStateManager networkStateManager,
+            PagingSnapshotStore snapshotStore,
+            DiskMoviePageCache pageCache,
+            MemoryPressureCoordinator memoryPressure
+    ) {
+        this.savedStateHandle = savedStateHandle;
+        this.pagingController = pagingController;
+        this.networkStateManager = networkStateManager;
+        this.snapshotStore = snapshotStore;
+        this.pageCache = pageCache;
+
+        // Only set after process death
+        Integer savedAnchor = savedStateHandle.get(KEY_ANCHOR_POSITION);
+        anchorPosition = savedAnchor != null ? savedAnchor : 0;
+        Long snapshotToken = savedStateHandle.get(KEY_SNAPSHOT_TOKEN);
+        if (snapshotToken != null) {
+            restoredSnapshot = snapshotStore.restore(snapshotToken)
+                    .defaultIfEmpty(PagingSnapshot.EMPTY)
+                    .cache();
+        }
+
+        BehaviorProcessor<AdaptivePagingController.Settings> settings =
+                BehaviorProcessor.createDefault(pagingController.getSettings());
+        pagingController.setListener(settings::onNext);
+
+        // Rebuilt with placeholders only while no filter is set
+        Flowable<Boolean> placeholders = filter.map(MovieFilter::isEmpty).distinctUntilChanged();
+        Flowable<Pair<PagingData<Movie>, Boolean>> generations = Flowable
+                .combineLatest(settings, placeholders, Pair::create)
+                .switchMap(config -> cachedGeneration(config.first, config.second))
+                .replay(1)
+                .autoConnect(1, subscription -> pagerSubscription = subscription);
+        pagingDataFlowable = filtered(generations, filter, movieIndex, filterExecutor);
+
+        // Prefetch less on metered networks
+        meteredSubscription = networkStateManager.observe()
+                .subscribe(state -> pagingController.setMetered(state == NetworkState.METERED));
+
+        // Hold fewer items in memory under pressure
+        memoryPressureSubscription = memoryPressure.observe()
+                .subscribe(pagingController::setMemoryPressure);
     }
 
     /**
      * Creates and configures the {@link Pager} used to load movie data.
      *
+     * @param settings     The paging settings to use
+     * @param placeholders Whether to show placeholders, only without a filter
      * @return a configured Pager instance
      */
-    private Pager<Integer, Movie> createPager() {
+    private Pager<Integer, Movie> createPager(AdaptivePagingController.Settings settings, boolean placeholders) {
         return new Pager<>(
-                new PagingConfig(
-                        PAGE_SIZE,          // Items per page
-                        PREFETCH_DISTANCE,  // When to start loading the next page
-                        false,              // Placeholders disabled (optional)
-                        INITIAL_LOAD_SIZE,  // Items to load initially
-                        MAX_CACHE_SIZE      // Max items cached in memory
-                ),
+                pagingConfig(settings, placeholders),
+                pageLayout.pageAt(anchorPosition),      // Resume at the page on screen
                 this::createPagingSource
         );
     }
 
+    /**
+     * Pages the movies with a new pager. Its paging data is cached in a child scope
+     * of {@link #viewModelScope}, cancelled when the next pager replaces it.
+     *
+     * @param settings     The paging settings to use
+     * @param placeholders Whether to show placeholders
+     * @return the paging data of the pager, each with whether it has placeholders
+     */
+    private Flowable<Pair<PagingData<Movie>, Boolean>> cachedGeneration(
+            AdaptivePagingController.Settings settings, boolean placeholders) {
+        return Flowable.using(
+                () -> JobKt.Job(JobKt.getJob(viewModelScope.getCoroutineContext())),
+                job -> PagingRx.cachedIn(PagingRx.getFlowable(createPager(settings, placeholders)),
+                                CoroutineScopeKt.CoroutineScope(viewModelScope.getCoroutineContext().plus(job)))
+                        .map(pagingData -> Pair.create(pagingData, placeholders)),
+                job -> job.cancel(new CancellationException("Pager replaced"))
+        );
+    }
+
+    /**
+     * Shows the paging data of each pager with the filters it was built for,
+     * filtered with the index of the loaded movies. Data with placeholders is not
+     * shown with a filter, nor data without them unfiltered: the grid keeps the
+     * previous data until the rebuilt pager delivers.
+     *
+     * @param generations Paging data of the pagers, each with whether it has placeholders
+     * @param filter      Filter applied to the movies
+     * @param movieIndex  Index of the loaded movies
+     * @param executor    Executor running the filter
+     * @return the paging data shown by the grid
+     */
+    static Flowable<PagingData<Movie>> filtered(
+            Flowable<Pair<PagingData<Movie>, Boolean>> generations,
+            Flowable<MovieFilter> filter,
+            MovieIndex movieIndex,
+            Executor executor) {
+        return Flowable.combineLatest(generations, filter, Pair::create)
+                .filter(pair -> pair.first.second == pair.second.isEmpty())
+                .map(pair -> applyFilter(pair.first.first, pair.second, movieIndex, executor));
+    }
+
+    /**
+     * Builds the paging configuration for the given settings.
+     *
+     * @param settings     The paging settings to use
+     * @param placeholders Whether to show placeholders. The counts are exact, but a
+     *                     filter would show the rows it removes as blank placeholders.
+     * @return the configuration
+     */
+    @VisibleForTesting
+    public static PagingConfig pagingConfig(AdaptivePagingController.Settings settings, boolean placeholders) {
+        return new PagingConfig(
+                settings.getPageSize(),         // Items per page
+                settings.getPrefetchDistance(), // When to start loading the next page
+                placeholders,                   // Placeholders, unless filtered
+                settings.getInitialLoadSize(),  // Items to load initially
+                settings.getMaxSize(),          // Max items cached in memory
+                JUMP_THRESHOLD                  // Distance that triggers a jump instead of sequential loads
+        );
+    }
+
     /**
      * Creates a new instance of the {@link MoviePagingSource}.
-     * Replace with DI-based creation if using Hilt or other frameworks.
      *
      * @return a new MoviePagingSource
      */
     private MoviePagingSource createPagingSource() {
-        return new MoviePagingSource(/* pass dependencies here if needed */);
+        MoviePagingSource pagingSource = new MoviePagingSource(
+                MyRetrofit.getDeferredService(), // Resolved on the I/O thread of each load
+                networkStateManager,
+                (page, latencyMillis) -> pagingController.onPageLoaded(latencyMillis),
+                snapshotStore,
+                restoredSnapshot,
+                pageCache,
+                LEAN_ROWS,
+                movieIndex,
+                () -> anchorPosition,
+                // Later pagers (revalidation, new settings, filters) load the cache or the network
+                () -> restoredSnapshot = null
+        );
+        pageLayout = pagingSource.getPageLayout();
+        return pagingSource;
+    }
+
+    /**
+     * Returns the layout of the pages in the grid, following the paging source in use.
+     *
+     * @return a layout mapping grid positions to pages
+     */
+    public PageLayout getPageLayout() {
+        return new PageLayout() {
+            @Override
+            public int pageAt(int position) {
+                return pageLayout.pageAt(position);
+            }
+
+            @Override
+            public int positionOf(int page) {
+                return pageLayout.positionOf(page);
+            }
+        };
+    }
+
+    /**
+     * Filters the cached paging data with the index of the loaded movies.
+     *
+     * @param pagingData  The cached paging data
+     * @param movieFilter The filter to apply
+     * @param movieIndex  Index of the loaded movies
+     * @param executor    Executor running the filter
+     * @return the paging data showing only the matching movies
+     */
+    static PagingData<Movie> applyFilter(PagingData<Movie> pagingData, MovieFilter movieFilter,
+                                         MovieIndex movieIndex, Executor executor) {
+        if (movieFilter.isEmpty()) return pagingData;
+
+        MovieIndex.Matcher matcher = movieIndex.matcher(movieFilter.getGenreIds(), movieFilter.getLanguage());
+        return PagingDataTransforms.filter(pagingData, executor, matcher::matches);
     }
 
     /**
@@ -100,4 +395,101 @@ public class MovieViewModel extends ViewModel {
                     return Flowable.empty();
                 });
     }
+
+    /**
+     * Filters the movies shown by the grid. Setting the first filter or clearing
+     * the last one rebuilds the pager, without or with placeholders. Switching
+     * between filters reloads nothing.
+     *
+     * @param movieFilter The filter, {@link MovieFilter#NONE} to show every movie
+     */
+    public void setFilter(@NonNull MovieFilter movieFilter) {
+        if (!movieFilter.equals(getFilter())) {
+            filter.onNext(movieFilter);
+        }
+    }
+
+    /**
+     * @return the filter applied to the movies shown by the grid
+     */
+    @NonNull
+    public MovieFilter getFilter() {
+        //noinspection ConstantConditions - created with a default value
+        return filter.getValue();
+    }
+
+    /**
+     * Returns the connectivity of the device, so the UI can retry failed loads
+     * when it comes back and lower the image quality on metered networks.
+     *
+     * @return the current network state followed by every change
+     */
+    public Observable<NetworkState> getNetworkState() {
+        return networkStateManager.observe();
+    }
+
+    /**
+     * Reports the geometry of the grid.
+     *
+     * @param spanCount      Number of columns
+     * @param rowHeight      Height of a row, in pixels
+     * @param viewportHeight Height of the visible area, in pixels
+     */
+    public void onGridLayout(int spanCount, int rowHeight, int viewportHeight) {
+        pagingController.onLayout(spanCount, rowHeight, viewportHeight);
+    }
+
+    /**
+     * Reports a fling of the grid.
+     *
+     * @param velocityY Vertical fling velocity, in pixels per second
+     */
+    public void onGridFling(int velocityY) {
+        pagingController.onFling(velocityY);
+    }
+
+    /**
+     * Reports the first visible position of the grid.
+     *
+     * @param firstVisiblePosition Adapter position of the first visible item
+     */
+    public void onGridScrolled(int firstVisiblePosition) {
+        // Positions of a filtered grid are not positions in the pager
+        if (firstVisiblePosition >= 0 && getFilter().isEmpty()) {
+            anchorPosition = firstVisiblePosition;
+        }
+    }
+
+    /**
+     * Saves the anchor position and the pages around it, so the screen can be
+     * restored without network I/O after process death. Call it when the screen
+     * is stopped.
+     */
+    public void saveSnapshot() {
+        long token = new Random().nextLong();
+        int anchor = anchorPosition;
+        savedStateHandle.set(KEY_ANCHOR_POSITION, anchor);
+        savedStateHandle.set(KEY_SNAPSHOT_TOKEN, token);
+        snapshotStore.save(token, anchor, pageLayout.pageAt(anchor)).subscribe(
+                () -> {
+                    // Nothing to do, the token is already saved
+                },
+                throwable -> Log.w(TAG, "Error saving the paging snapshot", throwable)
+        );
+    }
+
+    /**
+     * Reports a refresh requested by the user: restored pages are stale from now on.
+     */
+    public void onRefresh() {
+        restoredSnapshot = null;
+    }
+
+    @Override
+    protected void onCleared() {
+        if (pagerSubscription != null) pagerSubscription.dispose();
+        meteredSubscription.dispose();
+        memoryPressureSubscription.dispose();
+    }
+
 }
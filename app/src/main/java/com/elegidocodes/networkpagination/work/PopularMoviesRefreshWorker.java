@@ -0,0 +1,123 @@
+package com.elegidocodes.networkpagination.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.hilt.work.HiltWorker;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.RxWorker;
+import androidx.work.WorkManager;
+import androidx.work.WorkerParameters;
+
+import com.elegidocodes.networkpagination.application.LoadPriority;
+import com.elegidocodes.networkpagination.application.MyAPI;
+import com.elegidocodes.networkpagination.repository.DiskMoviePageCache;
+
+import java.util.concurrent.TimeUnit;
+
+import dagger.assisted.Assisted;
+import dagger.assisted.AssistedInject;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+
+/**
+ * Periodically refreshes the first pages of popular movies into the
+ * {@link DiskMoviePageCache}, so the grid opens on recent data without waiting
+ * for the network.
+ *
+ * <p>Popular movies change slowly: the job runs twice a day, and only on an
+ * unmetered network while the device is charging.</p>
+ */
+@HiltWorker
+public class PopularMoviesRefreshWorker extends RxWorker {
+
+    private static final String TAG = "MoviesRefreshWorker";
+
+    /**
+     * Name of the unique periodic work.
+     */
+    public static final String UNIQUE_WORK_NAME = "popular_movies_refresh";
+
+    /**
+     * Pages refreshed on each run: the first screens of the grid.
+     */
+    static final int REFRESHED_PAGES = 3;
+
+    private static final long REPEAT_INTERVAL_HOURS = 12;
+    private static final long BACKOFF_MINUTES = 30;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final MyAPI api;
+    private final DiskMoviePageCache pageCache;
+
+    /**
+     * @param context      The application context
+     * @param workerParams Parameters of the work
+     * @param api          The TMDB service
+     * @param pageCache    Cache receiving the refreshed pages
+     */
+    @AssistedInject
+    public PopularMoviesRefreshWorker(
+            @Assisted @NonNull Context context,
+            @Assisted @NonNull WorkerParameters workerParams,
+            MyAPI api,
+            DiskMoviePageCache pageCache
+    ) {
+        super(context, workerParams);
+        this.api = api;
+        this.pageCache = pageCache;
+    }
+
+    /**
+     * Schedules the periodic refresh, keeping the existing schedule if there is one.
+     *
+     * @param context Any context
+     */
+    public static void schedule(@NonNull Context context) {
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                UNIQUE_WORK_NAME,
+                ExistingPeriodicWorkPolicy.KEEP,
+                buildRequest()
+        );
+    }
+
+    @VisibleForTesting
+    static PeriodicWorkRequest buildRequest() {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresCharging(true)
+                .build();
+        return new PeriodicWorkRequest.Builder(
+                PopularMoviesRefreshWorker.class, REPEAT_INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_MINUTES, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Requests the first pages one after the other and caches them.
+     *
+     * @return a {@link Single} emitting success once every page is cached, or retry
+     * (failure after {@link #MAX_ATTEMPTS}) if a request fails
+     */
+    @NonNull
+    @Override
+    public Single<Result> createWork() {
+        return Flowable.range(1, REFRESHED_PAGES)
+                .concatMapSingle(page -> api.getPopularMovies(page, LoadPriority.BACKGROUND))
+                .doOnNext(pageCache::put)
+                .ignoreElements()
+                .toSingleDefault(Result.success())
+                .onErrorReturn(throwable -> {
+                    Log.w(TAG, "Error refreshing popular movies", throwable);
+                    return getRunAttemptCount() + 1 < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+                });
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.elegidocodes.networkpagination.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.tls.HandshakeCertificates;
+import okhttp3.tls.HeldCertificate;
+
+/**
+ * Tests {@link ConnectionPrewarmer} with the client settings of {@link MyRetrofit}
+ * against a local TLS server: page 1 reuses the pre-warmed connection instead of
+ * opening its own.
+ */
+public class ConnectionPrewarmerTest {
+
+    private static final String PAGE_1_PATH = "/3/movie/popular?page=1";
+    private static final String PAGE_1_BODY = "{\"page\":1,\"results\":[],\"total_pages\":1,\"total_results\":0}";
+
+    private MockWebServer server;
+    private HandshakeCertificates clientCertificates;
+
+    @Before
+    public void setUp() throws IOException {
+        String localhost = InetAddress.getByName("localhost").getCanonicalHostName();
+        HeldCertificate certificate = new HeldCertificate.Builder()
+                .addSubjectAlternativeName(localhost)
+                .build();
+        HandshakeCertificates serverCertificates = new HandshakeCertificates.Builder()
+                .heldCertificate(certificate)
+                .build();
+        clientCertificates = new HandshakeCertificates.Builder()
+                .addTrustedCertificate(certificate.certificate())
+                .build();
+
+        server = new MockWebServer();
+        server.useHttps(serverCertificates.sslSocketFactory(), false);
+        server.setProtocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void prewarm_connectionIsReusedByFirstPage() throws Exception {
+        OkHttpClient client = newClient();
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse().setBody(PAGE_1_BODY));
+
+        ConnectionPrewarmer.prewarm(client, server.url(PAGE_1_PATH))
+                .blockingAwait(5, TimeUnit.SECONDS);
+        RecordedRequest prewarm = server.takeRequest();
+        assertEquals("HEAD", prewarm.getMethod());
+        assertEquals("/", prewarm.getPath());
+
+        fetchFirstPage(client);
+        RecordedRequest page = server.takeRequest();
+        assertEquals(1, page.getSequenceNumber()); // Second request on the pre-warmed connection
+        assertEquals(1, client.connectionPool().connectionCount());
+    }
+
+    @Test
+    public void withoutPrewarm_firstPageOpensConnection() throws Exception {
+        OkHttpClient client = newClient();
+        server.enqueue(new MockResponse().setBody(PAGE_1_BODY));
+
+        fetchFirstPage(client);
+        RecordedRequest page = server.takeRequest();
+        assertEquals(0, page.getSequenceNumber()); // Paid for DNS, TCP and TLS
+    }
+
+    @Test
+    public void client_negotiatesHttp2AndAcceptsBrotli() throws Exception {
+        OkHttpClient client = newClient();
+        server.enqueue(new MockResponse().setBody(PAGE_1_BODY));
+
+        try (Response response = client.newCall(new Request.Builder().url(server.url(PAGE_1_PATH)).build()).execute()) {
+            assertEquals(Protocol.HTTP_2, response.protocol());
+        }
+        String acceptEncoding = server.takeRequest().getHeader("Accept-Encoding");
+        assertTrue(acceptEncoding, acceptEncoding.contains("br"));
+        assertTrue(acceptEncoding, acceptEncoding.contains("gzip"));
+    }
+
+    /**
+     * Requests page 1 and checks it succeeds.
+     */
+    private void fetchFirstPage(OkHttpClient client) throws IOException {
+        Request request = new Request.Builder().url(server.url(PAGE_1_PATH)).build();
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(200, response.code());
+        }
+    }
+
+    /**
+     * A client with the production transport settings, trusting the local certificate.
+     */
+    private OkHttpClient newClient() {
+        return MyRetrofit.newClientBuilder()
+                .sslSocketFactory(clientCertificates.sslSocketFactory(), clientCertificates.trustManager())
+                .build();
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.elegidocodes.networkpagination.application;
+
+import static com.elegidocodes.networkpagination.repository.MovieFixtures.page;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.engine.bitmap_recycle.BitmapPool;
+import com.elegidocodes.networkpagination.repository.MovieDetailRepository;
+import com.elegidocodes.networkpagination.repository.PagingSnapshotStore;
+import com.elegidocodes.networkpagination.viewmodel.AdaptivePagingController;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+
+/**
+ * Simulates trim levels and checks the size of every cache reacting to
+ * {@link MemoryPressureCoordinator}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class) // Not MyApp: no Hilt, no real network
+public class MemoryPressureCoordinatorTest {
+
+    private Context context;
+    private MemoryPressureCoordinator coordinator;
+    private MovieDetailRepository detailRepository;
+    private PagingSnapshotStore snapshotStore;
+    private AdaptivePagingController pagingController;
+    private BitmapPool bitmapPool;
+    private long normalPoolSize;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        coordinator = new MemoryPressureCoordinator(context);
+        detailRepository = new MovieDetailRepository(coordinator);
+        snapshotStore = new PagingSnapshotStore(context, coordinator);
+        pagingController = new AdaptivePagingController(false, () -> 0L);
+        coordinator.observe().subscribe(pagingController::setMemoryPressure);
+
+        bitmapPool = Glide.get(context).getBitmapPool();
+        normalPoolSize = bitmapPool.getMaxSize();
+        for (int page = 1; page <= 12; page++) {
+            snapshotStore.record(page(page));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        Glide.tearDown();
+    }
+
+    @Test
+    public void noPressure_keepsFullCaches() {
+        assertEquals(MemoryPressure.NONE, coordinator.getPressure());
+        assertEquals(50, detailRepository.getCacheCapacity());
+        assertEquals(12, snapshotStore.getRecordedPageCount());
+        assertEquals(100, pagingController.getSettings().getMaxSize());
+    }
+
+    @Test
+    public void runningModerate_shrinksCaches() {
+        coordinator.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+
+        assertEquals(MemoryPressure.MODERATE, coordinator.getPressure());
+        assertEquals(normalPoolSize / 2, bitmapPool.getMaxSize());
+        assertEquals(20, detailRepository.getCacheCapacity());
+        assertEquals(5, snapshotStore.getRecordedPageCount());
+        assertEquals(60, pagingController.getSettings().getMaxSize());
+    }
+
+    @Test
+    public void complete_emptiesImagesAndShrinksCachesFurther() {
+        bitmapPool.put(Bitmap.createBitmap(64, 64, Bitmap.Config.ARGB_8888));
+
+        coordinator.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+
+        assertEquals(MemoryPressure.CRITICAL, coordinator.getPressure());
+        assertEquals(normalPoolSize / 2, bitmapPool.getMaxSize());
+        assertEquals(0, bitmapPool.getCurrentSize());
+        assertEquals(2, detailRepository.getCacheCapacity());
+        assertEquals(5, snapshotStore.getRecordedPageCount());
+        assertEquals(40, pagingController.getSettings().getMaxSize());
+    }
+
+    @Test
+    public void lowMemory_isCritical() {
+        coordinator.onLowMemory();
+
+        assertEquals(MemoryPressure.CRITICAL, coordinator.getPressure());
+        assertEquals(2, detailRepository.getCacheCapacity());
+    }
+
+    @Test
+    public void uiHidden_isNotPressure() {
+        coordinator.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+
+        assertEquals(MemoryPressure.NONE, coordinator.getPressure());
+        assertEquals(normalPoolSize, bitmapPool.getMaxSize());
+        assertEquals(50, detailRepository.getCacheCapacity());
+    }
+
+    @Test
+    public void lowerLevel_doesNotLowerPressure() {
+        coordinator.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL);
+        coordinator.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+
+        assertEquals(MemoryPressure.CRITICAL, coordinator.getPressure());
+        assertEquals(40, pagingController.getSettings().getMaxSize());
+    }
+
+    @Test
+    public void quietPeriod_restoresCaches() {
+        coordinator.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+
+        // A new report restarts the quiet period
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(MemoryPressureCoordinator.RELIEF_DELAY_SECONDS / 2));
+        coordinator.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(MemoryPressureCoordinator.RELIEF_DELAY_SECONDS - 1));
+        assertEquals(MemoryPressure.CRITICAL, coordinator.getPressure());
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1));
+        assertEquals(MemoryPressure.NONE, coordinator.getPressure());
+        assertEquals(normalPoolSize, bitmapPool.getMaxSize());
+        assertEquals(50, detailRepository.getCacheCapacity());
+        assertEquals(100, pagingController.getSettings().getMaxSize());
+
+        for (int page = 13; page <= 30; page++) {
+            snapshotStore.record(page(page));
+        }
+        assertEquals(12, snapshotStore.getRecordedPageCount());
+        assertTrue(pagingController.getSettings().getInitialLoadSize() <= pagingController.getSettings().getMaxSize());
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.elegidocodes.networkpagination.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Tests the client-side rate limit ({@link TokenBucket}, {@link RateLimitInterceptor}
+ * and {@link RetryAfterInterceptor}) against a local server enforcing its own limit.
+ */
+public class RateLimitInterceptorTest {
+
+    private MockWebServer server;
+    private RateLimitedDispatcher dispatcher;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        dispatcher = new RateLimitedDispatcher(10, 50);
+        server.setDispatcher(dispatcher);
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void burst_staysWithinServerLimit() throws Exception {
+        OkHttpClient client = newClient(new TokenBucket(5, 40));
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Integer>> codes = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                codes.add(executor.submit(() -> get(client, "/movie/popular", LoadPriority.PREFETCH)));
+            }
+            for (Future<Integer> code : codes) {
+                assertEquals(200, (int) code.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, dispatcher.rejected.get());
+    }
+
+    @Test
+    public void retryAfter_isHonored() throws IOException {
+        dispatcher.forcedRejections.set(1);
+        OkHttpClient client = newClient(new TokenBucket(5, 40));
+
+        long start = System.nanoTime();
+        assertEquals(200, get(client, "/movie/popular", LoadPriority.VISIBLE));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(2, server.getRequestCount());
+        assertTrue("Retried after " + elapsedMillis + " ms", elapsedMillis >= 1_000);
+    }
+
+    @Test
+    public void retryAfter_tooLong_isReturned() throws IOException {
+        dispatcher.forcedRejections.set(1);
+        dispatcher.retryAfterSeconds = 3_600;
+        OkHttpClient client = newClient(new TokenBucket(5, 40));
+
+        assertEquals(429, get(client, "/movie/popular", LoadPriority.VISIBLE));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void retries_areBounded() throws IOException {
+        dispatcher.forcedRejections.set(Integer.MAX_VALUE);
+        dispatcher.retryAfterSeconds = 0;
+        OkHttpClient client = newClient(new TokenBucket(5, 40));
+
+        assertEquals(429, get(client, "/movie/popular", LoadPriority.VISIBLE));
+        assertEquals(RetryAfterInterceptor.MAX_RETRIES + 1, server.getRequestCount());
+    }
+
+    @Test
+    public void visibleLoad_beatsQueuedPrefetch() throws Exception {
+        TokenBucket bucket = new TokenBucket(4, 10);
+        OkHttpClient client = newClient(bucket);
+        while (bucket.tryAcquire(LoadPriority.VISIBLE)) {
+            // Drain the bucket
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> codes = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                String path = "/prefetch/" + i;
+                codes.add(executor.submit(() -> get(client, path, LoadPriority.PREFETCH)));
+            }
+            Thread.sleep(50); // Prefetches are queued first
+            codes.add(executor.submit(() -> get(client, "/visible", LoadPriority.VISIBLE)));
+            for (Future<Integer> code : codes) {
+                assertEquals(200, (int) code.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("/visible", server.takeRequest().getPath());
+    }
+
+    private OkHttpClient newClient(TokenBucket bucket) {
+        return MyRetrofit.newClientBuilder()
+                .addInterceptor(new RetryAfterInterceptor(bucket))
+                .addNetworkInterceptor(new RateLimitInterceptor(bucket))
+                .build();
+    }
+
+    private int get(OkHttpClient client, String path, LoadPriority priority) throws IOException {
+        Request request = new Request.Builder()
+                .url(server.url(path))
+                .tag(LoadPriority.class, priority)
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            return response.code();
+        }
+    }
+
+    /**
+     * Server enforcing a token bucket of its own, answering 429 with
+     * {@code Retry-After} once it is empty.
+     */
+    private static class RateLimitedDispatcher extends Dispatcher {
+
+        final AtomicInteger rejected = new AtomicInteger();
+        final AtomicInteger forcedRejections = new AtomicInteger();
+        volatile long retryAfterSeconds = 1;
+
+        private final int capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        RateLimitedDispatcher(int capacity, double tokensPerSecond) {
+            this.capacity = capacity;
+            this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+        }
+
+        @NonNull
+        @Override
+        public synchronized MockResponse dispatch(@NonNull RecordedRequest request) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+
+            if (forcedRejections.getAndUpdate(n -> Math.max(0, n - 1)) > 0 || tokens < 1) {
+                rejected.incrementAndGet();
+                return new MockResponse()
+                        .setResponseCode(429)
+                        .setHeader("Retry-After", retryAfterSeconds);
+            }
+            tokens -= 1;
+            return new MockResponse().setBody("{\"page\":1}");
+        }
+
+    }
+
+}
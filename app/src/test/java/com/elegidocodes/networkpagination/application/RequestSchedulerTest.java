@@ -0,0 +1,116 @@
+package com.elegidocodes.networkpagination.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tests the order in which {@link RequestScheduler} starts waiting requests.
+ */
+public class RequestSchedulerTest {
+
+    @Test
+    public void freedSlot_goesToHighestPriority() throws InterruptedException {
+        RequestScheduler scheduler = new RequestScheduler(1, 10_000);
+        assertTrue(scheduler.acquire(LoadPriority.VISIBLE, () -> false));
+
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = Arrays.asList(
+                waiter(scheduler, LoadPriority.BACKGROUND, "poster", started),
+                waiter(scheduler, LoadPriority.PREFETCH, "next page", started),
+                waiter(scheduler, LoadPriority.VISIBLE, "anchor page", started));
+        for (Thread thread : threads) {
+            thread.start();
+            awaitWaiting(scheduler, threads.indexOf(thread) + 1);
+        }
+
+        scheduler.release();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        assertEquals(Arrays.asList("anchor page", "next page", "poster"), started);
+        assertEquals(0, scheduler.getRunningCount());
+    }
+
+    @Test
+    public void longWait_preventsStarvation() throws InterruptedException {
+        RequestScheduler scheduler = new RequestScheduler(1, 100);
+        assertTrue(scheduler.acquire(LoadPriority.VISIBLE, () -> false));
+
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        Thread poster = waiter(scheduler, LoadPriority.BACKGROUND, "poster", started);
+        poster.start();
+        Thread.sleep(250); // More than two levels of aging
+
+        Thread page = waiter(scheduler, LoadPriority.VISIBLE, "page", started);
+        page.start();
+        awaitWaiting(scheduler, 2);
+
+        scheduler.release();
+        poster.join(TimeUnit.SECONDS.toMillis(5));
+        page.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertEquals(Arrays.asList("poster", "page"), started);
+    }
+
+    @Test
+    public void cancelledRequest_leavesQueue() throws InterruptedException {
+        RequestScheduler scheduler = new RequestScheduler(1, 100);
+        assertTrue(scheduler.acquire(LoadPriority.VISIBLE, () -> false));
+
+        AtomicBoolean canceled = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(1);
+        boolean[] granted = {true};
+        Thread thread = new Thread(() -> {
+            try {
+                granted[0] = scheduler.acquire(LoadPriority.VISIBLE, canceled::get);
+            } catch (InterruptedException ignored) {
+            }
+            done.countDown();
+        });
+        thread.start();
+        awaitWaiting(scheduler, 1);
+
+        canceled.set(true);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(granted[0]);
+        assertEquals(0, scheduler.getWaitingCount());
+        assertEquals(1, scheduler.getRunningCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void release_withoutRequest_fails() {
+        new RequestScheduler(1, 100).release();
+    }
+
+    private static Thread waiter(RequestScheduler scheduler, LoadPriority priority, String name, List<String> started) {
+        return new Thread(() -> {
+            try {
+                scheduler.acquire(priority, () -> false);
+                started.add(name);
+                scheduler.release();
+            } catch (InterruptedException ignored) {
+            }
+        });
+    }
+
+    private static void awaitWaiting(RequestScheduler scheduler, int count) throws InterruptedException {
+        for (int i = 0; i < 250 && scheduler.getWaitingCount() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, scheduler.getWaitingCount());
+    }
+
+}
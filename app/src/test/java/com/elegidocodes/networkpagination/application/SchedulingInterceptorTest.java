@@ -0,0 +1,186 @@
+package com.elegidocodes.networkpagination.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Measures the time to visible content when a page load competes with a burst of
+ * poster downloads on a throttled server, with and without {@link SchedulingInterceptor},
+ * and checks that a request held back by the rate limit does not keep a slot.
+ */
+public class SchedulingInterceptorTest {
+
+    /**
+     * Responses the server works on at once, and the time each one takes.
+     */
+    private static final int SERVER_CONCURRENCY = 2;
+    private static final long RESPONSE_MILLIS = 80;
+
+    private static final int POSTERS = 12;
+
+    private MockWebServer server;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new ThrottledDispatcher());
+        server.start();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void visiblePage_overtakesPosterBurst() throws Exception {
+        long unscheduledMillis = timeToVisibleContent(MyRetrofit.newClientBuilder().build());
+
+        RequestScheduler scheduler = new RequestScheduler(SERVER_CONCURRENCY, 10_000);
+        long scheduledMillis = timeToVisibleContent(MyRetrofit.newClientBuilder()
+                .addNetworkInterceptor(new SchedulingInterceptor(scheduler))
+                .build());
+
+        assertTrue(scheduledMillis * 2 < unscheduledMillis);
+        assertEquals(0, scheduler.getRunningCount()); // Every body released its slot
+    }
+
+    @Test
+    public void cancelledWhileWaiting_releasesNothing() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 10_000);
+        OkHttpClient client = MyRetrofit.newClientBuilder()
+                .addNetworkInterceptor(new SchedulingInterceptor(scheduler))
+                .build();
+        Future<Integer> first = executor.submit(() -> get(client, "/poster/0", LoadPriority.BACKGROUND));
+        awaitRunning(scheduler);
+
+        Call waiting = client.newCall(request("/poster/1", LoadPriority.BACKGROUND));
+        Future<?> second = executor.submit(() -> {
+            try (Response ignored = waiting.execute()) {
+                throw new AssertionError("Not cancelled");
+            } catch (IOException expected) {
+                // Cancelled while waiting for a slot
+            }
+        });
+        Thread.sleep(20);
+        waiting.cancel();
+
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(200, (int) first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+        assertEquals(0, scheduler.getRunningCount());
+    }
+
+    @Test
+    public void rateLimitedPage_leavesSlotToVisiblePoster() throws Exception {
+        OkHttpClient baseClient = MyRetrofit.newClientBuilder().build();
+        RequestScheduler scheduler = new RequestScheduler(1, 10_000);
+        TokenBucket rateLimit = new TokenBucket(1, 1);
+        rateLimit.pauseFor(30_000); // As after a Retry-After from the API
+        OkHttpClient apiClient = MyRetrofit.newApiClientBuilder(baseClient, rateLimit, scheduler).build();
+        OkHttpClient imageClient = MyRetrofit.newImageClientBuilder(baseClient, scheduler).build();
+
+        Future<Integer> page = executor.submit(() -> get(apiClient, "/movie/popular", LoadPriority.PREFETCH));
+        Thread.sleep(50); // The page waits for the bucket
+
+        assertEquals(0, scheduler.getRunningCount());
+        Future<Integer> poster = executor.submit(() -> get(imageClient, "/poster/0", LoadPriority.VISIBLE));
+        assertEquals(200, (int) poster.get(5, TimeUnit.SECONDS));
+        assertFalse(page.isDone());
+        assertEquals(1, server.getRequestCount()); // Only the poster
+    }
+
+    /**
+     * Starts a burst of poster downloads, then the page the user is waiting for.
+     *
+     * @return the time until the page is received, in milliseconds
+     */
+    private long timeToVisibleContent(OkHttpClient client) throws Exception {
+        List<Future<Integer>> posters = new ArrayList<>();
+        for (int i = 0; i < POSTERS; i++) {
+            String path = "/poster/" + i;
+            posters.add(executor.submit(() -> get(client, path, LoadPriority.BACKGROUND)));
+        }
+        Thread.sleep(20); // The posters reach the network first
+
+        long start = System.nanoTime();
+        assertEquals(200, get(client, "/movie/popular", LoadPriority.VISIBLE));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        for (Future<Integer> poster : posters) {
+            assertEquals(200, (int) poster.get(10, TimeUnit.SECONDS));
+        }
+        return elapsedMillis;
+    }
+
+    private int get(OkHttpClient client, String path, LoadPriority priority) throws IOException {
+        try (Response response = client.newCall(request(path, priority)).execute()) {
+            response.body().string();
+            return response.code();
+        }
+    }
+
+    private Request request(String path, LoadPriority priority) {
+        return new Request.Builder()
+                .url(server.url(path))
+                .tag(LoadPriority.class, priority)
+                .build();
+    }
+
+    private static void awaitRunning(RequestScheduler scheduler) throws InterruptedException {
+        for (int i = 0; i < 250 && scheduler.getRunningCount() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, scheduler.getRunningCount());
+    }
+
+    /**
+     * Server working on a few responses at once, in arrival order.
+     */
+    private static class ThrottledDispatcher extends Dispatcher {
+
+        private final Semaphore workers = new Semaphore(SERVER_CONCURRENCY, true);
+
+        @NonNull
+        @Override
+        public MockResponse dispatch(@NonNull RecordedRequest request) throws InterruptedException {
+            workers.acquire();
+            try {
+                Thread.sleep(RESPONSE_MILLIS);
+            } finally {
+                workers.release();
+            }
+            return new MockResponse().setBody("{\"page\":1}");
+        }
+
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.elegidocodes.networkpagination.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Tests {@link TmdbAuthInterceptor}. Its overhead is measured by
+ * {@code AuthInterceptorBenchmark} in the benchmark module.
+ */
+public class TmdbAuthInterceptorTest {
+
+    private static final String API_KEY = "0123456789abcdef 0123456789abcdef";
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.token";
+    private static final Request PAGE_REQUEST = new Request.Builder()
+            .url("https://api.themoviedb.org/3/movie/popular?page=7")
+            .build();
+
+    @Test
+    public void bearer_addsHeaderAndLeavesUrlUntouched() throws IOException {
+        FakeChain chain = new FakeChain(PAGE_REQUEST);
+
+        TmdbAuthInterceptor.bearer(TOKEN).intercept(chain);
+
+        assertEquals("Bearer " + TOKEN, chain.proceeded.header("Authorization"));
+        assertSame(PAGE_REQUEST.url(), chain.proceeded.url());
+    }
+
+    @Test
+    public void apiKeyQuery_appendsEncodedKey() throws IOException {
+        FakeChain chain = new FakeChain(PAGE_REQUEST);
+
+        TmdbAuthInterceptor.apiKeyQuery(API_KEY).intercept(chain);
+
+        HttpUrl url = chain.proceeded.url();
+        assertEquals("7", url.queryParameter("page"));
+        assertEquals(API_KEY, url.queryParameter("api_key"));
+        assertNull(chain.proceeded.header("Authorization"));
+    }
+
+    @Test
+    public void response_carriesUnauthenticatedRequest() throws IOException {
+        Response bearer = TmdbAuthInterceptor.bearer(TOKEN).intercept(new FakeChain(PAGE_REQUEST));
+        Response query = TmdbAuthInterceptor.apiKeyQuery(API_KEY).intercept(new FakeChain(PAGE_REQUEST));
+
+        // The cache keys entries by this request, so it must not change with the credentials
+        assertSame(PAGE_REQUEST, bearer.request());
+        assertSame(PAGE_REQUEST, query.request());
+    }
+
+    @Test
+    public void create_prefersTokenOverApiKey() {
+        assertTrue(TmdbAuthInterceptor.create(TOKEN, API_KEY).usesBearer());
+        assertFalse(TmdbAuthInterceptor.create("", API_KEY).usesBearer());
+        assertFalse(TmdbAuthInterceptor.create(null, API_KEY).usesBearer());
+    }
+
+    /**
+     * Chain answering every request with an empty 200 and remembering the last request.
+     */
+    private static final class FakeChain implements Interceptor.Chain {
+
+        /**
+         * Creates the calls of {@link #call()}, which are never executed.
+         */
+        private static final OkHttpClient CLIENT = new OkHttpClient();
+
+        private final Request request;
+        private Request proceeded;
+
+        FakeChain(Request request) {
+            this.request = request;
+        }
+
+        @NonNull
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @NonNull
+        @Override
+        public Response proceed(@NonNull Request request) {
+            proceeded = request;
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_2)
+                    .code(200)
+                    .message("OK")
+                    .build();
+        }
+
+        @Override
+        public Connection connection() {
+            return null;
+        }
+
+        @NonNull
+        @Override
+        public Call call() {
+            return CLIENT.newCall(request);
+        }
+
+        @Override
+        public int connectTimeoutMillis() {
+            return 0;
+        }
+
+        @NonNull
+        @Override
+        public Interceptor.Chain withConnectTimeout(int timeout, @NonNull TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int readTimeoutMillis() {
+            return 0;
+        }
+
+        @NonNull
+        @Override
+        public Interceptor.Chain withReadTimeout(int timeout, @NonNull TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int writeTimeoutMillis() {
+            return 0;
+        }
+
+        @NonNull
+        @Override
+        public Interceptor.Chain withWriteTimeout(int timeout, @NonNull TimeUnit unit) {
+            return this;
+        }
+    }
+
+}
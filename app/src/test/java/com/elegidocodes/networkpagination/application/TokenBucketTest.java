@@ -0,0 +1,79 @@
+package com.elegidocodes.networkpagination.application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the priorities and pauses of {@link TokenBucket}.
+ */
+public class TokenBucketTest {
+
+    @Test
+    public void lowerPriorities_leaveReserve() {
+        TokenBucket bucket = new TokenBucket(8, 0.001);
+
+        // Background stops at half the bucket, prefetch at a quarter
+        int background = 0;
+        while (bucket.tryAcquire(LoadPriority.BACKGROUND)) background++;
+        int prefetch = 0;
+        while (bucket.tryAcquire(LoadPriority.PREFETCH)) prefetch++;
+        int visible = 0;
+        while (bucket.tryAcquire(LoadPriority.VISIBLE)) visible++;
+
+        assertEquals(4, background);
+        assertEquals(2, prefetch);
+        assertEquals(2, visible);
+    }
+
+    @Test
+    public void singleToken_isUsableByEveryPriority() {
+        assertTrue(new TokenBucket(1, 0.001).tryAcquire(LoadPriority.BACKGROUND));
+    }
+
+    @Test
+    public void pause_holdsRequestsThenResumes() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(4, 100);
+        bucket.pauseFor(300);
+
+        assertFalse(bucket.tryAcquire(LoadPriority.VISIBLE));
+
+        long start = System.nanoTime();
+        bucket.acquire(LoadPriority.VISIBLE);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue("Resumed after " + elapsedMillis + " ms", elapsedMillis >= 250);
+    }
+
+    @Test
+    public void visibleWaiter_blocksLowerPriorities() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(2, 5);
+        while (bucket.tryAcquire(LoadPriority.VISIBLE)) {
+            // Drain the bucket
+        }
+
+        Thread waiter = new Thread(() -> {
+            try {
+                bucket.acquire(LoadPriority.VISIBLE);
+            } catch (InterruptedException ignored) {
+            }
+        });
+        waiter.start();
+        Thread.sleep(20); // Queued
+        bucket.pauseFor(0); // Wakes up the waiter, which keeps waiting
+
+        assertFalse(bucket.tryAcquire(LoadPriority.BACKGROUND));
+        waiter.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(waiter.isAlive());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidRate_isRejected() {
+        new TokenBucket(0, 1);
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.elegidocodes.networkpagination.repository;
+
+import androidx.annotation.NonNull;
+
+import com.elegidocodes.networkpagination.application.MyAPI;
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+import com.google.gson.Gson;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava3.RxJava3CallAdapterFactory;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Local server answering {@code /3/movie/popular} like TMDB, with a configurable
+ * latency, jitter, error rate, page count and payload size.
+ *
+ * <p>Pages are generated once and kept, so the server's own work does not show in
+ * the measures. Movie ids are unique across pages.</p>
+ */
+public final class FakeTmdbServer implements Closeable {
+
+    private final MockWebServer server = new MockWebServer();
+    private final Builder config;
+    private final Random random;
+    private final Gson gson = new Gson();
+    private final ConcurrentHashMap<Integer, String> pages = new ConcurrentHashMap<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private FakeTmdbServer(Builder config) {
+        this.config = config;
+        this.random = new Random(config.seed);
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                return respond(request);
+            }
+        });
+    }
+
+    /**
+     * Starts the server on a free local port.
+     *
+     * @return this server
+     * @throws IOException if it cannot listen
+     */
+    public FakeTmdbServer start() throws IOException {
+        server.start();
+        return this;
+    }
+
+    /**
+     * Creates a TMDB service pointing at this server, with the transport settings of
+     * the app.
+     *
+     * @param client The client sending the requests
+     * @return the service
+     */
+    public MyAPI createApi(OkHttpClient client) {
+        return new Retrofit.Builder()
+                .baseUrl(server.url("/3/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .addCallAdapterFactory(RxJava3CallAdapterFactory.create())
+                .client(client)
+                .build()
+                .create(MyAPI.class);
+    }
+
+    /**
+     * @return the number of requests received
+     */
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of requests answered with an error
+     */
+    public int getFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * @return the number of pages served
+     */
+    public int getPageCount() {
+        return config.pageCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse respond(RecordedRequest request) {
+        requests.incrementAndGet();
+
+        long delayMillis;
+        boolean fails;
+        synchronized (random) {
+            delayMillis = config.latencyMillis
+                    + (config.jitterMillis > 0 ? (long) (random.nextDouble() * config.jitterMillis) : 0);
+            fails = random.nextDouble() < config.errorRate;
+        }
+
+        HttpUrl url = request.getRequestUrl();
+        String pageParameter = url != null ? url.queryParameter("page") : null;
+        int page = pageParameter != null ? Integer.parseInt(pageParameter) : 1;
+
+        MockResponse response;
+        if (url == null || !url.encodedPath().equals("/3/movie/popular")) {
+            response = new MockResponse().setResponseCode(404);
+        } else if (fails) {
+            failures.incrementAndGet();
+            response = new MockResponse().setResponseCode(500);
+        } else if (page < 1 || page > config.pageCount) {
+            response = new MockResponse().setResponseCode(422);
+        } else {
+            response = new MockResponse()
+                    .setHeader("Content-Type", "application/json;charset=utf-8")
+                    .setBody(pages.computeIfAbsent(page, this::render));
+        }
+        return response.setHeadersDelay(delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private String render(int page) {
+        char[] overview = new char[config.overviewLength];
+        Arrays.fill(overview, 'x');
+
+        List<Movie> movies = new ArrayList<>(MoviePagingSource.TMDB_PAGE_SIZE);
+        for (int i = 0; i < MoviePagingSource.TMDB_PAGE_SIZE; i++) {
+            int id = (page - 1) * MoviePagingSource.TMDB_PAGE_SIZE + i + 1;
+            Movie movie = new Movie();
+            movie.setId(id);
+            movie.setTitle("Movie " + id);
+            movie.setOriginalTitle("Original movie " + id);
+            movie.setOriginalLanguage(id % 5 == 0 ? "fr" : "en");
+            movie.setOverview(new String(overview));
+            movie.setPosterPath("/poster" + id + ".jpg");
+            movie.setBackdropPath("/backdrop" + id + ".jpg");
+            movie.setGenreIds(Arrays.asList(28 + id % 3, 35));
+            movie.setReleaseDate("2024-01-01");
+            movie.setPopularity(1_000.0 / id);
+            movie.setVoteAverage(7.5);
+            movie.setVoteCount(id);
+            movie.setAdult(false);
+            movie.setVideo(false);
+            movies.add(movie);
+        }
+
+        PopularMoviesResult result = new PopularMoviesResult();
+        result.setPage(page);
+        result.setResults(movies);
+        result.setTotalPages(config.pageCount);
+        result.setTotalResults(config.pageCount * MoviePagingSource.TMDB_PAGE_SIZE);
+        return gson.toJson(result);
+    }
+
+    /**
+     * Configuration of a {@link FakeTmdbServer}. Defaults to an instant, reliable
+     * server of 500 pages with overviews of 300 characters.
+     */
+    public static final class Builder {
+
+        private long latencyMillis;
+        private long jitterMillis;
+        private double errorRate;
+        private int pageCount = 500;
+        private int overviewLength = 300;
+        private long seed = 42;
+
+        /**
+         * @param latencyMillis Minimum time before the response headers are sent
+         */
+        public Builder latency(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+            return this;
+        }
+
+        /**
+         * @param jitterMillis Maximum random time added to the latency
+         */
+        public Builder jitter(long jitterMillis) {
+            this.jitterMillis = jitterMillis;
+            return this;
+        }
+
+        /**
+         * @param errorRate Share of the requests answered with a 500, from 0 to 1
+         */
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * @param pageCount Number of pages, reported as {@code total_pages}
+         */
+        public Builder pageCount(int pageCount) {
+            this.pageCount = pageCount;
+            return this;
+        }
+
+        /**
+         * @param overviewLength Length of every overview, the bulk of the payload
+         */
+        public Builder overviewLength(int overviewLength) {
+            this.overviewLength = overviewLength;
+            return this;
+        }
+
+        /**
+         * @param seed Seed of the latency and error draws, for repeatable runs
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public FakeTmdbServer build() {
+            return new FakeTmdbServer(this);
+        }
+
+    }
+
+}
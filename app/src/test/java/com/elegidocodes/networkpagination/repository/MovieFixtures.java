@@ -0,0 +1,80 @@
+package com.elegidocodes.networkpagination.repository;
+
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pages shaped like TMDB responses, shared by the tests.
+ *
+ * <p>Every field is set, and derived from the movie id, so the same page is always
+ * equal to itself. Movie ids are unique across pages: page {@code n} holds ids
+ * {@code (n - 1) * 20 + 1} to {@code n * 20}.</p>
+ */
+public final class MovieFixtures {
+
+    /**
+     * Pages of the generated listing, unless a test asks for another count.
+     */
+    public static final int TOTAL_PAGES = 500;
+
+    private static final String[] LANGUAGES = {"en", "en", "en", "ja", "ko", "es", "fr"};
+
+    private MovieFixtures() {
+    }
+
+    /**
+     * @param page Page number, from 1
+     * @return the page, in a listing of {@link #TOTAL_PAGES} pages
+     */
+    public static PopularMoviesResult page(int page) {
+        return page(page, TOTAL_PAGES);
+    }
+
+    /**
+     * @param page       Page number, from 1
+     * @param totalPages Pages of the listing
+     * @return the page, with a new instance of each movie
+     */
+    public static PopularMoviesResult page(int page, int totalPages) {
+        List<Movie> movies = new ArrayList<>(MoviePagingSource.TMDB_PAGE_SIZE);
+        for (int i = 0; i < MoviePagingSource.TMDB_PAGE_SIZE; i++) {
+            movies.add(movie((page - 1) * MoviePagingSource.TMDB_PAGE_SIZE + i + 1));
+        }
+
+        PopularMoviesResult result = new PopularMoviesResult();
+        result.setPage(page);
+        result.setResults(movies);
+        result.setTotalPages(totalPages);
+        result.setTotalResults(totalPages * MoviePagingSource.TMDB_PAGE_SIZE);
+        return result;
+    }
+
+    /**
+     * @param id TMDB identifier of the movie
+     * @return the movie, titled {@code "Movie <id>"} with poster {@code "/poster<id>.jpg"}
+     */
+    public static Movie movie(int id) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle("Movie " + id);
+        movie.setOriginalTitle("Original movie " + id);
+        movie.setOverview("Overview of movie " + id + ", long enough to look like the ones TMDB sends"
+                + " for most titles, with a couple of sentences describing the plot.");
+        movie.setPosterPath("/poster" + id + ".jpg");
+        movie.setBackdropPath("/backdrop" + id + ".jpg");
+        movie.setOriginalLanguage(LANGUAGES[id % LANGUAGES.length]);
+        movie.setReleaseDate("2025-0" + (1 + id % 9) + "-1" + (id % 10));
+        movie.setAdult(false);
+        movie.setVideo(id % 5 == 0);
+        movie.setPopularity(100 + (id % 1000) / 8.0);
+        movie.setVoteAverage((id % 100) / 10.0);
+        movie.setVoteCount(id % 5000);
+        movie.setGenreIds(Arrays.asList(28, 12 + id % 4, 878));
+        return movie;
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.elegidocodes.networkpagination.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests {@link MovieIndex} with pages of movies spread over a few genres and languages.
+ */
+public class MovieIndexTest {
+
+    private static final int ACTION = 28;
+    private static final int COMEDY = 35;
+    private static final int DRAMA = 18;
+
+    private MovieIndex index;
+
+    @Before
+    public void setUp() {
+        index = new MovieIndex();
+    }
+
+    @Test
+    public void matcher_selectsMoviesWithAnyGenre() {
+        index.add(page(movie(1, "en", ACTION), movie(2, "en", COMEDY), movie(3, "fr", DRAMA, COMEDY)));
+
+        MovieIndex.Matcher comedies = index.matcher(Collections.singleton(COMEDY), null);
+        assertFalse(comedies.matches(movie(1, "en", ACTION)));
+        assertTrue(comedies.matches(movie(2, "en", COMEDY)));
+        assertTrue(comedies.matches(movie(3, "fr", DRAMA, COMEDY)));
+
+        MovieIndex.Matcher actionOrDrama = index.matcher(Arrays.asList(ACTION, DRAMA), null);
+        assertTrue(actionOrDrama.matches(movie(1, "en", ACTION)));
+        assertFalse(actionOrDrama.matches(movie(2, "en", COMEDY)));
+        assertTrue(actionOrDrama.matches(movie(3, "fr", DRAMA, COMEDY)));
+    }
+
+    @Test
+    public void matcher_selectsLanguage() {
+        index.add(page(movie(1, "en", ACTION), movie(2, "fr", ACTION), movie(3, null, ACTION)));
+
+        MovieIndex.Matcher french = index.matcher(Collections.emptySet(), "fr");
+        assertFalse(french.matches(movie(1, "en", ACTION)));
+        assertTrue(french.matches(movie(2, "fr", ACTION)));
+        assertFalse(french.matches(movie(3, null, ACTION)));
+
+        MovieIndex.Matcher frenchComedies = index.matcher(Collections.singleton(COMEDY), "fr");
+        assertFalse(frenchComedies.matches(movie(2, "fr", ACTION)));
+    }
+
+    @Test
+    public void matcher_followsPagesAddedLater() {
+        MovieIndex.Matcher comedies = index.matcher(Collections.singleton(COMEDY), "ja");
+        Movie movie = movie(7, "ja", COMEDY);
+        assertFalse(comedies.matches(movie)); // Not indexed yet
+
+        index.add(page(movie));
+
+        assertTrue(comedies.matches(movie));
+    }
+
+    @Test
+    public void matcher_usesIndexNotMovieFields() {
+        index.add(page(movie(1, "en", ACTION)));
+
+        // Lean or restored rows may lack the lists, the index still knows them
+        Movie row = new Movie();
+        row.setId(1);
+        assertTrue(index.matcher(Collections.singleton(ACTION), "en").matches(row));
+    }
+
+    @Test
+    public void add_replacesGenresOfIndexedMovie() {
+        index.add(page(movie(1, "en", ACTION, COMEDY)));
+
+        index.add(page(movie(1, "fr", DRAMA)));
+
+        assertFalse(index.matcher(Arrays.asList(ACTION, COMEDY), null).matches(movie(1, "fr", DRAMA)));
+        assertTrue(index.matcher(Collections.singleton(DRAMA), "fr").matches(movie(1, "fr", DRAMA)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void add_growsPastInitialCapacity() {
+        List<Movie> movies = new ArrayList<>();
+        for (int id = 1; id <= 5_000; id++) {
+            movies.add(movie(id, id % 2 == 0 ? "en" : "es", id % 3 == 0 ? DRAMA : ACTION));
+        }
+        index.add(page(movies.toArray(new Movie[0])));
+        index.add(page(movie(3, "es", DRAMA))); // Already indexed
+
+        assertEquals(5_000, index.size());
+        MovieIndex.Matcher spanishDramas = index.matcher(Collections.singleton(DRAMA), "es");
+        int matches = 0;
+        for (Movie movie : movies) {
+            if (spanishDramas.matches(movie)) matches++;
+        }
+        assertEquals(833, matches); // Odd multiples of 3 up to 5000
+    }
+
+    private static Movie movie(int id, String language, Integer... genreIds) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setOriginalLanguage(language);
+        movie.setGenreIds(Arrays.asList(genreIds));
+        return movie;
+    }
+
+    private static PopularMoviesResult page(Movie... movies) {
+        PopularMoviesResult result = new PopularMoviesResult();
+        result.setPage(1);
+        result.setResults(Arrays.asList(movies));
+        return result;
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.elegidocodes.networkpagination.repository;
+
+import static com.elegidocodes.networkpagination.repository.MovieFixtures.page;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Tests {@link MoviePageFormat} and {@link MoviePage}, and compares their size
+ * with Gson JSON.
+ */
+public class MoviePageFormatTest {
+
+    private static final int SIZE_PAGES = 100;
+
+    @Test
+    public void roundTrip_keepsEveryField() {
+        PopularMoviesResult result = page(3);
+        Movie first = result.getResults().get(0);
+        first.setTitle("Sen to Chihiro no Kamikakushi \u5343\u3068\u5343\u5c0b");
+        first.setVoteAverage(7.3);
+        first.setPopularity(1234.567);
+
+        PopularMoviesResult decoded = MoviePageFormat.decode(ByteBuffer.wrap(MoviePageFormat.encode(result)));
+
+        assertEquals(result.getPage(), decoded.getPage());
+        assertEquals(result.getTotalPages(), decoded.getTotalPages());
+        assertEquals(result.getTotalResults(), decoded.getTotalResults());
+        assertEquals(result.getResults().size(), decoded.getResults().size());
+        for (int i = 0; i < result.getResults().size(); i++) {
+            assertSameMovie(result.getResults().get(i), decoded.getResults().get(i));
+        }
+    }
+
+    @Test
+    public void roundTrip_keepsNulls() {
+        Movie empty = new Movie();
+        Movie noGenres = new Movie();
+        noGenres.setId(0);
+        noGenres.setGenreIds(Collections.emptyList());
+        noGenres.setAdult(false);
+        PopularMoviesResult result = new PopularMoviesResult();
+        result.setResults(Arrays.asList(empty, noGenres));
+
+        PopularMoviesResult decoded = MoviePageFormat.decode(ByteBuffer.wrap(MoviePageFormat.encode(result)));
+
+        assertNull(decoded.getPage());
+        assertNull(decoded.getTotalResults());
+        assertSameMovie(empty, decoded.getResults().get(0));
+        assertSameMovie(noGenres, decoded.getResults().get(1));
+    }
+
+    @Test
+    public void lazyPage_readsSingleFields() {
+        PopularMoviesResult result = page(2);
+        MoviePage page = MoviePageFormat.read(ByteBuffer.wrap(MoviePageFormat.encode(result)));
+
+        assertEquals(result.getResults().size(), page.size());
+        Movie movie = result.getResults().get(7);
+        assertEquals(movie.getId(), page.getId(7));
+        assertEquals(movie.getTitle(), page.getTitle(7));
+        assertEquals(movie.getPosterPath(), page.getPosterPath(7));
+        assertEquals(movie.getOriginalLanguage(), page.getOriginalLanguage(7));
+        assertEquals(movie.getVoteAverage(), page.getVoteAverage(7));
+    }
+
+    @Test
+    public void read_atBufferPosition() {
+        byte[] encoded = MoviePageFormat.encode(page(1));
+        ByteBuffer buffer = ByteBuffer.allocate(encoded.length + 8);
+        buffer.putLong(-1L).put(encoded).position(8);
+
+        assertEquals(Integer.valueOf(1), MoviePageFormat.read(buffer).getPage());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void read_rejectsOtherVersion() {
+        byte[] encoded = MoviePageFormat.encode(page(1));
+        encoded[4] = MoviePageFormat.VERSION + 1;
+
+        MoviePageFormat.read(ByteBuffer.wrap(encoded));
+    }
+
+    @Test
+    public void encode_isDeterministic() {
+        assertArrayEquals(MoviePageFormat.encode(page(4)), MoviePageFormat.encode(page(4)));
+    }
+
+    @Test
+    public void roundTrip_keepsPopularityInTheThousands() {
+        PopularMoviesResult result = page(6);
+        result.getResults().get(0).setPopularity(12345.678);
+        result.getResults().get(1).setPopularity(123456.789);
+
+        PopularMoviesResult decoded = MoviePageFormat.decode(ByteBuffer.wrap(MoviePageFormat.encode(result)));
+
+        assertEquals(Double.valueOf(12345.678), decoded.getResults().get(0).getPopularity());
+        assertEquals(Double.valueOf(123456.789), decoded.getResults().get(1).getPopularity());
+    }
+
+    /**
+     * Read times are measured by {@code MoviePageFormatBenchmark} in the benchmark module.
+     */
+    @Test
+    public void encode_isSmallerThanJson() {
+        Gson gson = new Gson();
+        long jsonBytes = 0;
+        long binaryBytes = 0;
+        for (int page = 1; page <= SIZE_PAGES; page++) {
+            PopularMoviesResult result = page(page);
+            jsonBytes += gson.toJson(result).getBytes(StandardCharsets.UTF_8).length;
+            binaryBytes += MoviePageFormat.encode(result).length;
+        }
+
+        assertTrue(binaryBytes < jsonBytes);
+    }
+
+    private static void assertSameMovie(Movie expected, Movie actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getOriginalTitle(), actual.getOriginalTitle());
+        assertEquals(expected.getOverview(), actual.getOverview());
+        assertEquals(expected.getPosterPath(), actual.getPosterPath());
+        assertEquals(expected.getBackdropPath(), actual.getBackdropPath());
+        assertEquals(expected.getOriginalLanguage(), actual.getOriginalLanguage());
+        assertEquals(expected.getReleaseDate(), actual.getReleaseDate());
+        assertEquals(expected.getAdult(), actual.getAdult());
+        assertEquals(expected.getVideo(), actual.getVideo());
+        assertEquals(expected.getPopularity(), actual.getPopularity());
+        assertEquals(expected.getVoteAverage(), actual.getVoteAverage());
+        assertEquals(expected.getVoteCount(), actual.getVoteCount());
+        assertEquals(expected.getGenreIds(), actual.getGenreIds());
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.elegidocodes.networkpagination.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import android.app.Application;
+
+import com.elegidocodes.networkpagination.application.MyRetrofit;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Load tests of the movie pager against a {@link FakeTmdbServer}, through the API
+ * client of the app: rate limit and scheduler included. They run offline and write
+ * a report of each run to {@code build/reports/loadtest}.
+ *
+ * <p>A short smoke run always runs. The full runs take minutes, so they are skipped
+ * unless the {@code loadtest.enabled} Gradle property is set. The bounds are loose,
+ * an order of magnitude above the usual measures on a CI runner: they catch
+ * regressions such as a leaked thread per page or a page parsed several times, not
+ * noise. Runs are scaled with the {@code loadtest.grids} and {@code loadtest.pages}
+ * Gradle properties, e.g.
+ * {@code ./gradlew testDebugUnitTest -Ploadtest.enabled=true -Ploadtest.pages=5000}.</p>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class) // Not MyApp: no Hilt, no real network
+public class MoviePagingLoadTest {
+
+    private static final int GRIDS = Integer.getInteger("loadtest.grids", 4);
+    private static final int PAGES_PER_GRID = Integer.getInteger("loadtest.pages", 600);
+    private static final File REPORTS = new File(System.getProperty("loadtest.reports", "build/reports/loadtest"));
+
+    @Rule
+    public final TestName testName = new TestName();
+
+    private FakeTmdbServer server;
+
+    @After
+    public void tearDown() throws IOException {
+        if (server != null) server.close();
+    }
+
+    @Test
+    public void smoke_scrollsPastTheLastPage() throws Exception {
+        server = new FakeTmdbServer.Builder()
+                .pageCount(20) // Wraps around, through a new pager
+                .build()
+                .start();
+
+        PagingLoadDriver.Report report = newDriver().run(2, 30, 0);
+        writeReport("Smoke", report);
+
+        assertEquals(60, report.getPages());
+        assertEquals(report.getPages() * MoviePagingSource.TMDB_PAGE_SIZE, report.getItems());
+        assertEquals(0, report.getErrors());
+        assertTrue(report.toString(), report.getLatencyMillis(95) < rateLimitWaitMillis(2) + 1000);
+    }
+
+    @Test
+    public void scrollThroughThousandsOfPages() throws Exception {
+        assumeLoadTestsEnabled();
+        server = new FakeTmdbServer.Builder().build().start();
+
+        PagingLoadDriver.Report report = newDriver().run(GRIDS, PAGES_PER_GRID, 0);
+        writeReport("Instant server", report);
+
+        assertEquals(GRIDS * PAGES_PER_GRID, report.getPages());
+        assertEquals(report.getPages() * MoviePagingSource.TMDB_PAGE_SIZE, report.getItems());
+        assertEquals(0, report.getErrors());
+        assertTrue(report.toString(), report.getLatencyMillis(95) < rateLimitWaitMillis(GRIDS) + 250);
+        assertTrue(report.toString(), report.getPeakThreads() < 100);
+        assertTrue(report.toString(), report.getAllocatedBytesPerPage() < 4 * 1024 * 1024);
+    }
+
+    @Test
+    public void slowFlakyServer_isAbsorbed() throws Exception {
+        assumeLoadTestsEnabled();
+        server = new FakeTmdbServer.Builder()
+                .latency(20)
+                .jitter(30)
+                .errorRate(0.05)
+                .pageCount(40) // Wraps around, through new pagers
+                .build()
+                .start();
+
+        PagingLoadDriver.Report report = newDriver().run(2, 60, 5);
+        writeReport("Slow, flaky server", report);
+
+        assertEquals(120, report.getPages());
+        assertEquals(server.getFailureCount(), report.getErrors()); // Every failure was retried
+        assertTrue(report.toString(), report.getLatencyMillis(95) >= 20);
+        assertTrue(report.toString(), report.getLatencyMillis(95) < rateLimitWaitMillis(2) + 20 + 30 + 500);
+    }
+
+    private static void assumeLoadTestsEnabled() {
+        assumeTrue("Load tests run with -Ploadtest.enabled=true", Boolean.getBoolean("loadtest.enabled"));
+    }
+
+    private PagingLoadDriver newDriver() {
+        OkHttpClient client = MyRetrofit.newApiClientBuilder(
+                MyRetrofit.newClientBuilder().build(), MyRetrofit.newRateLimit(), MyRetrofit.newScheduler()).build();
+        return new PagingLoadDriver(server.createApi(client));
+    }
+
+    /**
+     * Time a load waits for its token once the burst is spent, with one load in
+     * flight per grid.
+     */
+    private static long rateLimitWaitMillis(int grids) {
+        return (long) Math.ceil(grids * 1000 / MyRetrofit.RATE_LIMIT_PER_SECOND);
+    }
+
+    private void writeReport(String title, PagingLoadDriver.Report report) throws IOException {
+        if (!REPORTS.isDirectory() && !REPORTS.mkdirs()) {
+            throw new IOException("Cannot create " + REPORTS);
+        }
+        File file = new File(REPORTS, getClass().getSimpleName() + "." + testName.getMethodName() + ".txt");
+        Files.write(file.toPath(), (title + ": " + report + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,378 @@
+package com.elegidocodes.networkpagination.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.paging.PagingSource;
+
+import com.elegidocodes.networkpagination.application.LoadPriority;
+import com.elegidocodes.networkpagination.application.MyAPI;
+import com.elegidocodes.networkpagination.application.NetworkState;
+import com.elegidocodes.networkpagination.application.NetworkStateManager;
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.MovieDetail;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.observers.TestObserver;
+import okhttp3.ResponseBody;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * Tests {@link MoviePagingSource} against a fake TMDB service and a fake
+ * connectivity source.
+ */
+public class MoviePagingSourceTest {
+
+    private static final int TOTAL_PAGES = 10;
+    private static final int WRITERS = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private NetworkStateManager networkState;
+    private long clockMillis = 1_000_000_000L;
+    private FakeApi api;
+    private MoviePagingSource pagingSource;
+
+    @Before
+    public void setUp() {
+        networkState = new NetworkStateManager();
+        api = new FakeApi();
+        pagingSource = new MoviePagingSource(api, networkState, (page, latencyMillis) -> {
+        });
+    }
+
+    @Test
+    public void offlineCacheMiss_waitsForConnectivityThenLoads() throws InterruptedException {
+        networkState.setState(NetworkState.OFFLINE);
+
+        TestObserver<PagingSource.LoadResult<Integer, Movie>> observer = load(1).test();
+        assertFalse(observer.await(200, TimeUnit.MILLISECONDS)); // Paused, not failed
+        observer.assertNoValues();
+
+        networkState.setState(NetworkState.UNMETERED);
+
+        observer.awaitDone(5, TimeUnit.SECONDS);
+        PagingSource.LoadResult.Page<Integer, Movie> page = asPage(observer.values().get(0));
+        assertEquals(MoviePagingSource.TMDB_PAGE_SIZE, page.getData().size());
+        assertEquals(2, api.requests.get()); // The cache miss, then the network
+    }
+
+    @Test
+    public void offlineCacheHit_servesWithoutWaiting() {
+        networkState.setState(NetworkState.OFFLINE);
+        api.cachedPages = true;
+
+        PagingSource.LoadResult<Integer, Movie> result = load(1).timeout(5, TimeUnit.SECONDS).blockingGet();
+
+        assertEquals(MoviePagingSource.TMDB_PAGE_SIZE, asPage(result).getData().size());
+        assertEquals(1, api.requests.get());
+    }
+
+    @Test
+    public void onlineFailure_isReportedAsError() {
+        api.failure = new IOException("Connection reset");
+
+        PagingSource.LoadResult<Integer, Movie> result = load(1).timeout(5, TimeUnit.SECONDS).blockingGet();
+
+        assertTrue(result instanceof PagingSource.LoadResult.Error);
+        assertEquals(1, api.requests.get());
+    }
+
+    @Test
+    public void placeholderCounts_useTotalResults() {
+        PagingSource.LoadResult.Page<Integer, Movie> page =
+                asPage(load(3).timeout(5, TimeUnit.SECONDS).blockingGet());
+
+        int totalResults = TOTAL_PAGES * MoviePagingSource.TMDB_PAGE_SIZE;
+        assertEquals(2 * MoviePagingSource.TMDB_PAGE_SIZE, page.getItemsBefore());
+        assertEquals(totalResults - 3 * MoviePagingSource.TMDB_PAGE_SIZE, page.getItemsAfter());
+        assertEquals(Integer.valueOf(2), page.getPrevKey());
+        assertEquals(Integer.valueOf(4), page.getNextKey());
+    }
+
+    @Test
+    public void restoredSnapshot_servesPagesWithoutNetwork() {
+        networkState.setState(NetworkState.OFFLINE);
+        Map<Integer, PopularMoviesResult> pages = new HashMap<>();
+        pages.put(3, MovieFixtures.page(3, TOTAL_PAGES));
+        pagingSource = new MoviePagingSource(api, networkState, (page, latencyMillis) -> {
+        }, null, Single.just(new PagingSnapshot(40, pages)), null, false, null, null, null);
+
+        PagingSource.LoadResult.Page<Integer, Movie> page =
+                asPage(load(3).timeout(5, TimeUnit.SECONDS).blockingGet());
+
+        assertEquals(MoviePagingSource.TMDB_PAGE_SIZE, page.getData().size());
+        assertEquals(2 * MoviePagingSource.TMDB_PAGE_SIZE, page.getItemsBefore());
+        assertEquals(0, api.requests.get());
+    }
+
+    @Test
+    public void refreshListener_runsOnceRefreshPageIsDelivered() {
+        int[] refreshes = {0};
+        pagingSource = new MoviePagingSource(api, networkState, (page, latencyMillis) -> {
+        }, null, null, null, false, null, null, () -> refreshes[0]++);
+
+        pagingSource.loadSingle(new PagingSource.LoadParams.Append<>(2, MoviePagingSource.TMDB_PAGE_SIZE, true))
+                .timeout(5, TimeUnit.SECONDS).blockingGet();
+        assertEquals(0, refreshes[0]);
+
+        load(1).timeout(5, TimeUnit.SECONDS).blockingGet();
+        assertEquals(1, refreshes[0]);
+    }
+
+    @Test
+    public void leanRows_dropOverview() {
+        pagingSource = new MoviePagingSource(api, networkState, (page, latencyMillis) -> {
+        }, null, null, null, true, null, null, null);
+
+        Movie movie = asPage(load(1).timeout(5, TimeUnit.SECONDS).blockingGet()).getData().get(0);
+
+        assertEquals(Integer.valueOf(1), movie.getId());
+        assertEquals("Movie 1", movie.getTitle());
+        assertNull(movie.getOverview());
+    }
+
+    @Test
+    public void deliveredPages_areIndexed() {
+        MovieIndex movieIndex = new MovieIndex();
+        pagingSource = new MoviePagingSource(api, networkState, (page, latencyMillis) -> {
+        }, null, null, null, true, movieIndex, null, null);
+
+        load(1).timeout(5, TimeUnit.SECONDS).blockingGet();
+        load(2).timeout(5, TimeUnit.SECONDS).blockingGet();
+
+        assertEquals(2 * MoviePagingSource.TMDB_PAGE_SIZE, movieIndex.size());
+    }
+
+    @Test
+    public void anchorPage_isLoadedAsVisible() {
+        int[] anchorPosition = {0};
+        pagingSource = new MoviePagingSource(api, networkState, (page, latencyMillis) -> {
+        }, null, null, null, true, null, () -> anchorPosition[0], null);
+        anchorPosition[0] = 4 * MoviePagingSource.TMDB_PAGE_SIZE + 5; // Scrolled into page 5
+
+        assertEquals(LoadPriority.VISIBLE, pagingSource.priorityOf(
+                new PagingSource.LoadParams.Refresh<>(1, MoviePagingSource.TMDB_PAGE_SIZE, true), 1));
+        assertEquals(LoadPriority.VISIBLE, pagingSource.priorityOf(
+                new PagingSource.LoadParams.Append<>(5, MoviePagingSource.TMDB_PAGE_SIZE, true), 5));
+        assertEquals(LoadPriority.PREFETCH, pagingSource.priorityOf(
+                new PagingSource.LoadParams.Append<>(6, MoviePagingSource.TMDB_PAGE_SIZE, true), 6));
+        assertEquals(LoadPriority.PREFETCH, pagingSource.priorityOf(
+                new PagingSource.LoadParams.Prepend<>(4, MoviePagingSource.TMDB_PAGE_SIZE, true), 4));
+    }
+
+    @Test
+    public void freshCachedPage_isServedWithoutNetwork() throws IOException {
+        DiskMoviePageCache pageCache = newPageCache();
+        pageCache.put(renamed(MovieFixtures.page(1, TOTAL_PAGES)));
+        clockMillis += DiskMoviePageCache.FRESH_MILLIS / 2;
+        pagingSource = newCachingSource(pageCache);
+
+        Movie movie = asPage(load(1).timeout(5, TimeUnit.SECONDS).blockingGet()).getData().get(0);
+
+        assertEquals("Cached 1", movie.getTitle());
+        assertEquals(0, api.requests.get());
+    }
+
+    @Test
+    public void staleCachedPage_isServedThenRevalidated() throws Exception {
+        DiskMoviePageCache pageCache = newPageCache();
+        pageCache.put(renamed(MovieFixtures.page(1, TOTAL_PAGES)));
+        clockMillis += DiskMoviePageCache.FRESH_MILLIS + 1;
+        pagingSource = newCachingSource(pageCache);
+
+        Movie movie = asPage(load(1).timeout(5, TimeUnit.SECONDS).blockingGet()).getData().get(0);
+
+        assertEquals("Cached 1", movie.getTitle()); // Shown immediately
+        awaitInvalid(pagingSource); // The network page differs
+        assertEquals(1, api.requests.get());
+        DiskMoviePageCache.CachedPage cached = pageCache.get(1).blockingGet();
+        assertEquals("Movie 1", cached.getResult().getResults().get(0).getTitle());
+        assertTrue(cached.isFresh());
+    }
+
+    @Test
+    public void staleCachedPage_unchanged_isNotInvalidated() throws Exception {
+        DiskMoviePageCache pageCache = newPageCache();
+        pageCache.put(MovieFixtures.page(1, TOTAL_PAGES));
+        clockMillis += DiskMoviePageCache.FRESH_MILLIS + 1;
+        pagingSource = newCachingSource(pageCache);
+
+        load(1).timeout(5, TimeUnit.SECONDS).blockingGet();
+
+        assertTrue(api.delivered.await(5, TimeUnit.SECONDS)); // Revalidation compared
+        assertEquals(1, api.requests.get());
+        assertFalse(pagingSource.getInvalid());
+    }
+
+    @Test
+    public void expiredCachedPage_isOnlyServedOffline() throws IOException {
+        DiskMoviePageCache pageCache = newPageCache();
+        pageCache.put(renamed(MovieFixtures.page(1, TOTAL_PAGES)));
+        clockMillis += DiskMoviePageCache.MAX_STALE_MILLIS;
+
+        pagingSource = newCachingSource(pageCache);
+        Movie online = asPage(load(1).timeout(5, TimeUnit.SECONDS).blockingGet()).getData().get(0);
+        assertEquals("Movie 1", online.getTitle());
+
+        pageCache.put(renamed(MovieFixtures.page(1, TOTAL_PAGES)));
+        clockMillis += DiskMoviePageCache.MAX_STALE_MILLIS;
+        networkState.setState(NetworkState.OFFLINE);
+        pagingSource = newCachingSource(pageCache);
+        Movie offline = asPage(load(1).timeout(5, TimeUnit.SECONDS).blockingGet()).getData().get(0);
+        assertEquals("Cached 1", offline.getTitle());
+    }
+
+    @Test
+    public void pageCache_evictsPagesSavedLongestAgo() throws IOException {
+        DiskMoviePageCache pageCache = new DiskMoviePageCache(folder.newFolder(), () -> clockMillis, 3);
+        for (int page = 1; page <= 4; page++) {
+            pageCache.put(MovieFixtures.page(page, TOTAL_PAGES));
+            clockMillis += 1000;
+        }
+
+        assertNull(pageCache.get(1).blockingGet());
+        assertNotNull(pageCache.get(2).blockingGet());
+
+        pageCache.put(MovieFixtures.page(2, TOTAL_PAGES)); // Refreshed, now the most recent
+        clockMillis += 1000;
+        pageCache.put(MovieFixtures.page(5, TOTAL_PAGES));
+
+        assertNotNull(pageCache.get(2).blockingGet());
+        assertNull(pageCache.get(3).blockingGet());
+        assertNotNull(pageCache.get(4).blockingGet());
+        assertNotNull(pageCache.get(5).blockingGet());
+    }
+
+    @Test
+    public void pageCache_concurrentWritersOfAPage_publishWholePages() throws Exception {
+        File directory = folder.newFolder();
+        DiskMoviePageCache pageCache = new DiskMoviePageCache(directory, () -> clockMillis);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int write = 0; write < 50; write++) {
+                        pageCache.put(MovieFixtures.page(1, TOTAL_PAGES));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        DiskMoviePageCache.CachedPage cached = pageCache.get(1).blockingGet();
+        assertNotNull(cached);
+        assertEquals(MoviePagingSource.TMDB_PAGE_SIZE, cached.getResult().getResults().size());
+        assertEquals("Movie 20", cached.getResult().getResults().get(19).getTitle());
+        String[] names = directory.list();
+        assertNotNull(names);
+        assertEquals(1, names.length); // No temp file left behind
+    }
+
+    private DiskMoviePageCache newPageCache() throws IOException {
+        return new DiskMoviePageCache(folder.newFolder(), () -> clockMillis);
+    }
+
+    private MoviePagingSource newCachingSource(DiskMoviePageCache pageCache) {
+        return new MoviePagingSource(api, networkState, (page, latencyMillis) -> {
+        }, null, null, pageCache, false, null, null, null);
+    }
+
+    private static void awaitInvalid(MoviePagingSource source) throws InterruptedException {
+        for (int i = 0; i < 250 && !source.getInvalid(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue("Not invalidated", source.getInvalid());
+    }
+
+    /**
+     * The same page with other titles, as an older version of it would have.
+     */
+    private static PopularMoviesResult renamed(PopularMoviesResult result) {
+        for (Movie movie : result.getResults()) {
+            movie.setTitle("Cached " + movie.getId());
+        }
+        return result;
+    }
+
+    private Single<PagingSource.LoadResult<Integer, Movie>> load(int page) {
+        return pagingSource.loadSingle(
+                new PagingSource.LoadParams.Refresh<>(page, MoviePagingSource.TMDB_PAGE_SIZE, true));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PagingSource.LoadResult.Page<Integer, Movie> asPage(PagingSource.LoadResult<Integer, Movie> result) {
+        assertTrue(String.valueOf(result), result instanceof PagingSource.LoadResult.Page);
+        return (PagingSource.LoadResult.Page<Integer, Movie>) result;
+    }
+
+    /**
+     * TMDB service answering from memory. While offline, it behaves like the
+     * cache-only HTTP client: a 504 on a cache miss.
+     */
+    private class FakeApi implements MyAPI {
+
+        final AtomicInteger requests = new AtomicInteger();
+
+        /**
+         * Released once the first page was delivered and its subscriber returned.
+         */
+        final CountDownLatch delivered = new CountDownLatch(1);
+        boolean cachedPages;
+        Throwable failure;
+
+        @Override
+        public Single<PopularMoviesResult> getPopularMovies(int page, LoadPriority priority) {
+            return Single.defer(() -> {
+                requests.incrementAndGet();
+                if (failure != null) {
+                    return Single.error(failure);
+                }
+                if (!networkState.isOnline() && !cachedPages) {
+                    return Single.error(new HttpException(Response.error(504, ResponseBody.create(null, ""))));
+                }
+                return Single.just(MovieFixtures.page(page, TOTAL_PAGES));
+            }).doAfterSuccess(result -> delivered.countDown());
+        }
+
+        @Override
+        public Single<MovieDetail> getMovieDetail(int movieId, String appendToResponse, LoadPriority priority) {
+            return Single.error(new UnsupportedOperationException());
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.elegidocodes.networkpagination.repository;
+
+import static org.junit.Assert.assertEquals;
+
+import androidx.paging.PagingSource.LoadResult;
+
+import com.elegidocodes.networkpagination.model.Movie;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the placeholder counts of {@link PageAssembler} when duplicates are dropped,
+ * and the page layout they produce.
+ */
+public class PageAssemblerTest {
+
+    private static final int PAGE_SIZE = MoviePagingSource.TMDB_PAGE_SIZE;
+    private static final int TOTAL_PAGES = 10;
+
+    private final PageAssembler assembler = new PageAssembler(false);
+
+    @Test
+    public void fullPages_keepFixedPositions() {
+        LoadResult.Page<Integer, Movie> page = assemble(3, movies(3));
+
+        assertEquals(2 * PAGE_SIZE, page.getItemsBefore());
+        assertEquals((TOTAL_PAGES - 3) * PAGE_SIZE, page.getItemsAfter());
+        assertEquals(3, assembler.pageAt(2 * PAGE_SIZE));
+        assertEquals(2 * PAGE_SIZE, assembler.positionOf(3));
+    }
+
+    @Test
+    public void appendedPage_withDuplicates_mapsItsOwnPositions() {
+        assemble(3, movies(3));
+        // Page 4 repeats the last two movies of page 3
+        List<Movie> shifted = movies(4);
+        shifted.set(0, movie(3 * PAGE_SIZE - 1));
+        shifted.set(1, movie(3 * PAGE_SIZE));
+
+        LoadResult.Page<Integer, Movie> page4 = assemble(4, shifted);
+        LoadResult.Page<Integer, Movie> page5 = assemble(5, movies(5));
+
+        assertEquals(PAGE_SIZE - 2, page4.getData().size());
+        // The list keeps its length: the two missing movies are placeholders at the end
+        assertEquals(TOTAL_PAGES * PAGE_SIZE - 3 * PAGE_SIZE - (PAGE_SIZE - 2), page4.getItemsAfter());
+        // Page 5 follows the movies of page 4, two positions early
+        assertEquals(4 * PAGE_SIZE - 2, assembler.positionOf(5));
+        assertEquals(4, assembler.pageAt(4 * PAGE_SIZE - 3));
+        assertEquals(5, assembler.pageAt(4 * PAGE_SIZE - 2));
+        assertEquals(TOTAL_PAGES * PAGE_SIZE - (4 * PAGE_SIZE - 2) - PAGE_SIZE, page5.getItemsAfter());
+    }
+
+    @Test
+    public void prependedPage_withDuplicates_endsRightBeforeNextPage() {
+        assemble(5, movies(5));
+        // Page 4 repeats the first three movies of page 5
+        List<Movie> shifted = movies(4);
+        for (int i = 0; i < 3; i++) {
+            shifted.set(PAGE_SIZE - 3 + i, movie(4 * PAGE_SIZE + 1 + i));
+        }
+
+        LoadResult.Page<Integer, Movie> page4 = assemble(4, shifted);
+
+        assertEquals(PAGE_SIZE - 3, page4.getData().size());
+        // Page 5 stays at its position, the missing movies are placeholders before
+        assertEquals(4 * PAGE_SIZE, page4.getItemsBefore() + page4.getData().size());
+        assertEquals(4, assembler.pageAt(4 * PAGE_SIZE - 1));
+        assertEquals(5, assembler.pageAt(4 * PAGE_SIZE));
+        // Not loaded, in the full-page window of page 4
+        assertEquals(4, assembler.pageAt(3 * PAGE_SIZE));
+    }
+
+    @Test
+    public void firstAndLastPages_leaveNoPlaceholdersOutside() {
+        assemble(2, movies(2));
+        List<Movie> first = movies(1);
+        first.set(PAGE_SIZE - 1, movie(PAGE_SIZE + 1)); // Also on page 2
+
+        LoadResult.Page<Integer, Movie> page1 = assemble(1, first);
+
+        assertEquals(0, page1.getItemsBefore());
+
+        PageAssembler assembler = new PageAssembler(false);
+        assembler.assemble(movies(TOTAL_PAGES - 1), TOTAL_PAGES - 1, TOTAL_PAGES, TOTAL_PAGES * PAGE_SIZE);
+        List<Movie> last = movies(TOTAL_PAGES);
+        last.set(0, movie((TOTAL_PAGES - 1) * PAGE_SIZE)); // Also on the page before
+
+        LoadResult.Page<Integer, Movie> lastPage = (LoadResult.Page<Integer, Movie>)
+                assembler.assemble(last, TOTAL_PAGES, TOTAL_PAGES, TOTAL_PAGES * PAGE_SIZE);
+
+        assertEquals(0, lastPage.getItemsAfter());
+    }
+
+    private LoadResult.Page<Integer, Movie> assemble(int page, List<Movie> movies) {
+        return (LoadResult.Page<Integer, Movie>)
+                assembler.assemble(movies, page, TOTAL_PAGES, TOTAL_PAGES * PAGE_SIZE);
+    }
+
+    private static List<Movie> movies(int page) {
+        List<Movie> movies = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            movies.add(movie((page - 1) * PAGE_SIZE + i + 1));
+        }
+        return movies;
+    }
+
+    private static Movie movie(int id) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle("Movie " + id);
+        return movie;
+    }
+
+}
@@ -0,0 +1,418 @@
+package com.elegidocodes.networkpagination.repository;
+
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.paging.AsyncPagingDataDiffer;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.ItemSnapshotList;
+import androidx.paging.LoadState;
+import androidx.paging.Pager;
+import androidx.paging.rxjava3.PagingRx;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import com.elegidocodes.networkpagination.application.LoadPriority;
+import com.elegidocodes.networkpagination.application.MyAPI;
+import com.elegidocodes.networkpagination.application.NetworkStateManager;
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.MovieDetail;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+import com.elegidocodes.networkpagination.ui.adapter.MovieComparator;
+import com.elegidocodes.networkpagination.viewmodel.AdaptivePagingController;
+import com.elegidocodes.networkpagination.viewmodel.MovieViewModel;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import kotlin.Unit;
+import kotlinx.coroutines.Dispatchers;
+
+/**
+ * Scrolls simulated grids through the popular movies and measures the paging path.
+ *
+ * <p>Each grid collects a {@link Pager} configured by
+ * {@link MovieViewModel#pagingConfig} through an {@link AsyncPagingDataDiffer},
+ * as the grid's adapter does, and reads its last loaded row every time a page
+ * arrives: the user scrolls down faster than pages arrive. The configuration comes
+ * from an {@link AdaptivePagingController} fed with the page latencies. After the
+ * last page, the grid starts over from the top with a new pager. Failed loads are
+ * retried, as the retry footer does.</p>
+ *
+ * <p>It runs under Robolectric: the differs present on the main looper, which the
+ * driver idles whenever a response arrives, and the requests run on the I/O
+ * scheduler. The latency of a page is the time the grid waited for it.</p>
+ *
+ * <p>Allocations are summed over the live threads with the HotSpot thread bean;
+ * bytes allocated by threads that ended during the run are not counted.</p>
+ */
+final class PagingLoadDriver {
+
+    /**
+     * Time without any response after which the run fails.
+     */
+    private static final long STALL_SECONDS = 30;
+
+    private static final int PAGE_SIZE = MoviePagingSource.TMDB_PAGE_SIZE;
+
+    private final MyAPI api;
+    private final NetworkStateManager networkState = new NetworkStateManager();
+    private final AdaptivePagingController pagingController =
+            new AdaptivePagingController(false, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    private final MovieIndex movieIndex = new MovieIndex();
+
+    /**
+     * Released by every response, so the driver idles the main looper only when
+     * there is something to present.
+     */
+    private final Semaphore responses = new Semaphore(0);
+
+    /**
+     * @param api The TMDB service to load pages from
+     */
+    PagingLoadDriver(MyAPI api) {
+        this.api = new SignallingApi(api, responses);
+    }
+
+    /**
+     * Scrolls the grids concurrently and waits for them. Call it on the main thread
+     * of a Robolectric test.
+     *
+     * @param grids        Number of grids scrolling at the same time
+     * @param pagesPerGrid Pages each grid loads
+     * @param maxRetries   Consecutive failures of a load before the run fails
+     * @return the measures of the run
+     * @throws Exception if a load failed more than {@code maxRetries} times, or
+     *                   the server stopped answering
+     */
+    Report run(int grids, int pagesPerGrid, int maxRetries) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+
+        List<Grid> scrolling = new ArrayList<>(grids);
+        try {
+            for (int i = 0; i < grids; i++) {
+                Grid grid = new Grid(pagesPerGrid, maxRetries);
+                grid.start();
+                scrolling.add(grid);
+            }
+
+            while (!allDone(scrolling)) {
+                shadowOf(Looper.getMainLooper()).idle();
+                boolean progressed = false;
+                for (Grid grid : scrolling) {
+                    progressed |= grid.step();
+                }
+                if (!progressed && !responses.tryAcquire(STALL_SECONDS, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("No response for " + STALL_SECONDS + " s");
+                }
+            }
+
+            Report report = new Report();
+            for (Grid grid : scrolling) {
+                report.add(grid);
+            }
+            report.elapsedNanos = System.nanoTime() - start;
+            report.allocatedBytes = allocatedBytes() - allocatedBefore;
+            report.peakThreads = threads.getPeakThreadCount();
+            return report;
+        } finally {
+            for (Grid grid : scrolling) {
+                grid.stop();
+            }
+        }
+    }
+
+    private static boolean allDone(List<Grid> grids) {
+        for (Grid grid : grids) {
+            if (!grid.isDone()) return false;
+        }
+        return true;
+    }
+
+    private MoviePagingSource newPagingSource() {
+        return new MoviePagingSource(
+                api,
+                networkState,
+                (page, latencyMillis) -> pagingController.onPageLoaded(latencyMillis),
+                null,
+                null,
+                null,
+                true, // Lean rows, as in the app
+                movieIndex,
+                null,
+                null
+        );
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) return -1;
+
+        com.sun.management.ThreadMXBean hotSpotThreads = (com.sun.management.ThreadMXBean) threads;
+        if (!hotSpotThreads.isThreadAllocatedMemorySupported()) return -1;
+
+        long total = 0;
+        for (long bytes : hotSpotThreads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+
+    /**
+     * One grid scrolling through the listing, and its measures. Only used on the
+     * main thread.
+     */
+    private final class Grid implements LifecycleOwner {
+
+        final long[] latencies;
+        int pages;
+        int items;
+        int errors;
+
+        private final int maxRetries;
+        private LifecycleRegistry lifecycle;
+        private AsyncPagingDataDiffer<Movie> differ;
+        private Disposable subscription;
+
+        /**
+         * Grid position after the last loaded row of the current pager.
+         */
+        private int loadedEnd;
+        private long waitingSince;
+        private int failures;
+        private boolean inError;
+        private boolean retryPending;
+
+        Grid(int pages, int maxRetries) {
+            this.latencies = new long[pages];
+            this.maxRetries = maxRetries;
+        }
+
+        /**
+         * Starts a new pager from the top of the listing.
+         */
+        void start() {
+            lifecycle = new LifecycleRegistry(this);
+            lifecycle.setCurrentState(Lifecycle.State.RESUMED);
+            differ = new AsyncPagingDataDiffer<>(new MovieComparator(), NO_UPDATES,
+                    Dispatchers.getMain(), Dispatchers.getMain());
+            differ.addLoadStateListener(this::onLoadStates);
+
+            Pager<Integer, Movie> pager = new Pager<>(
+                    MovieViewModel.pagingConfig(pagingController.getSettings(), true),
+                    1,
+                    PagingLoadDriver.this::newPagingSource
+            );
+            subscription = PagingRx.getFlowable(pager)
+                    .subscribe(pagingData -> differ.submitData(lifecycle, pagingData));
+            loadedEnd = 0;
+            inError = false;
+            retryPending = false;
+            waitingSince = System.nanoTime();
+        }
+
+        void stop() {
+            if (subscription != null) subscription.dispose();
+            if (lifecycle != null) lifecycle.setCurrentState(Lifecycle.State.DESTROYED);
+        }
+
+        boolean isDone() {
+            return pages == latencies.length;
+        }
+
+        /**
+         * Records the pages delivered since the last step, then scrolls to the last
+         * loaded row, retries a failed load or starts over at the end of the listing.
+         *
+         * @return whether the grid delivered, retried or started over
+         */
+        boolean step() {
+            if (isDone()) return false;
+
+            boolean progressed = false;
+            ItemSnapshotList<Movie> snapshot = differ.snapshot();
+            int end = snapshot.getPlaceholdersBefore() + snapshot.getItems().size();
+            if (end > loadedEnd) {
+                long now = System.nanoTime();
+                for (int i = 0; i < (end - loadedEnd) / PAGE_SIZE && !isDone(); i++) {
+                    latencies[pages++] = now - waitingSince;
+                    items += PAGE_SIZE;
+                }
+                loadedEnd = end;
+                waitingSince = now;
+                failures = 0;
+                progressed = true;
+            }
+            if (isDone()) return true;
+
+            if (retryPending) {
+                retryPending = false;
+                errors++;
+                if (++failures > maxRetries) {
+                    throw new IllegalStateException("A load failed " + failures + " times");
+                }
+                differ.retry();
+                return true;
+            }
+            if (loadedEnd > 0 && snapshot.getPlaceholdersAfter() == 0) {
+                // Back to the top with a new pager
+                stop();
+                start();
+                return true;
+            }
+            if (progressed) {
+                differ.get(loadedEnd - 1); // Scrolls to the last loaded row
+            }
+            return progressed;
+        }
+
+        private Unit onLoadStates(CombinedLoadStates states) {
+            boolean error = states.getRefresh() instanceof LoadState.Error
+                    || states.getAppend() instanceof LoadState.Error;
+            if (error && !inError) retryPending = true;
+            inError = error;
+            return Unit.INSTANCE;
+        }
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return lifecycle;
+        }
+
+    }
+
+    private static final ListUpdateCallback NO_UPDATES = new ListUpdateCallback() {
+        @Override
+        public void onInserted(int position, int count) {
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+        }
+    };
+
+    /**
+     * TMDB service releasing a permit once each response has been handed to the
+     * paging source.
+     */
+    private static final class SignallingApi implements MyAPI {
+
+        private final MyAPI api;
+        private final Semaphore responses;
+
+        SignallingApi(MyAPI api, Semaphore responses) {
+            this.api = api;
+            this.responses = responses;
+        }
+
+        @Override
+        public Single<PopularMoviesResult> getPopularMovies(int page, LoadPriority priority) {
+            return api.getPopularMovies(page, priority).doFinally(responses::release);
+        }
+
+        @Override
+        public Single<MovieDetail> getMovieDetail(int movieId, String appendToResponse, LoadPriority priority) {
+            return api.getMovieDetail(movieId, appendToResponse, priority).doFinally(responses::release);
+        }
+    }
+
+    /**
+     * Measures of a run.
+     */
+    static final class Report {
+
+        private long[] latencies = new long[0];
+        private int items;
+        private int errors;
+        private long elapsedNanos;
+        private long allocatedBytes;
+        private int peakThreads;
+
+        private void add(Grid grid) {
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + grid.pages);
+            System.arraycopy(grid.latencies, 0, latencies, offset, grid.pages);
+            items += grid.items;
+            errors += grid.errors;
+        }
+
+        int getPages() {
+            return latencies.length;
+        }
+
+        int getItems() {
+            return items;
+        }
+
+        /**
+         * @return the number of failed loads, retried
+         */
+        int getErrors() {
+            return errors;
+        }
+
+        double getPagesPerSecond() {
+            return latencies.length / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * @param percentile From 0 to 100
+         * @return the page load latency at the percentile, in milliseconds
+         */
+        long getLatencyMillis(double percentile) {
+            if (latencies.length == 0) return 0;
+
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+        }
+
+        /**
+         * @return the bytes allocated per page, -1 if the JVM cannot tell
+         */
+        long getAllocatedBytesPerPage() {
+            return allocatedBytes < 0 || latencies.length == 0 ? -1 : allocatedBytes / latencies.length;
+        }
+
+        int getPeakThreads() {
+            return peakThreads;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%d pages (%d movies, %d errors) in %d ms: %.0f pages/s, latency p50 %d ms p95 %d ms,"
+                            + " %d KB allocated per page, %d threads at peak",
+                    getPages(), items, errors, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    getPagesPerSecond(), getLatencyMillis(50), getLatencyMillis(95),
+                    getAllocatedBytesPerPage() / 1024, peakThreads);
+        }
+
+    }
+
+}
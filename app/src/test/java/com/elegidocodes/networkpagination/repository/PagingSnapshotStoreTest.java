@@ -0,0 +1,121 @@
+package com.elegidocodes.networkpagination.repository;
+
+import static com.elegidocodes.networkpagination.repository.MovieFixtures.page;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.elegidocodes.networkpagination.application.MemoryPressure;
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Tests {@link PagingSnapshotStore} against a temporary file.
+ */
+public class PagingSnapshotStoreTest {
+
+    private static final long TOKEN = 42L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private PagingSnapshotStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(folder.getRoot(), "snapshot.bin");
+        store = new PagingSnapshotStore(file);
+    }
+
+    @Test
+    public void restore_returnsSavedPagesAroundAnchor() {
+        for (int page = 1; page <= 8; page++) {
+            store.record(page(page));
+        }
+        int anchorPosition = 4 * MoviePagingSource.TMDB_PAGE_SIZE + 5; // Page 5
+
+        store.save(TOKEN, anchorPosition).blockingAwait();
+        PagingSnapshot snapshot = store.restore(TOKEN).blockingGet();
+
+        assertEquals(anchorPosition, snapshot.getAnchorPosition());
+        assertEquals(Arrays.asList(3, 4, 5, 6, 7), new ArrayList<>(snapshot.getPages().keySet()));
+        Movie movie = snapshot.getPage(5).getResults().get(0);
+        assertEquals(Integer.valueOf(81), movie.getId());
+        assertEquals("Movie 81", movie.getTitle());
+        assertEquals("/poster81.jpg", movie.getPosterPath());
+        assertEquals(MovieFixtures.movie(81).getGenreIds(), movie.getGenreIds()); // Indexed by the filters
+        assertEquals(MovieFixtures.movie(81).getOriginalLanguage(), movie.getOriginalLanguage());
+        assertNull(movie.getOverview()); // Not part of the snapshot
+        assertEquals(Integer.valueOf(500), snapshot.getPage(5).getTotalPages());
+    }
+
+    @Test
+    public void restore_keepsNullFields() {
+        PopularMoviesResult page = page(1);
+        page.getResults().get(0).setPosterPath(null);
+        store.record(page);
+
+        store.save(TOKEN, 0).blockingAwait();
+
+        assertNull(store.restore(TOKEN).blockingGet().getPage(1).getResults().get(0).getPosterPath());
+    }
+
+    @Test
+    public void restore_withOtherToken_isEmpty() {
+        store.record(page(1));
+        store.save(TOKEN, 0).blockingAwait();
+
+        assertNull(store.restore(TOKEN + 1).blockingGet());
+    }
+
+    @Test
+    public void restore_withoutFile_isEmpty() {
+        assertNull(store.restore(TOKEN).blockingGet());
+    }
+
+    @Test
+    public void restore_truncatedFile_isEmpty() throws IOException {
+        store.record(page(1));
+        store.save(TOKEN, 0).blockingAwait();
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(bytes, 0, bytes.length / 2); // Header intact, pages cut
+        }
+
+        assertNull(store.restore(TOKEN).blockingGet());
+    }
+
+    @Test
+    public void memoryPressure_keepsOnlyLatestPages() {
+        for (int page = 1; page <= 10; page++) {
+            store.record(page(page));
+        }
+
+        store.onMemoryPressure(MemoryPressure.MODERATE);
+        store.record(page(11));
+        store.save(TOKEN, 8 * MoviePagingSource.TMDB_PAGE_SIZE).blockingAwait(); // Page 9
+
+        assertEquals(PagingSnapshotStore.PRESSURE_RECORDED_PAGES, store.getRecordedPageCount());
+        assertEquals(Arrays.asList(7, 8, 9, 10, 11),
+                new ArrayList<>(store.restore(TOKEN).blockingGet().getPages().keySet()));
+
+        store.onMemoryPressure(MemoryPressure.NONE);
+        for (int page = 12; page <= 30; page++) {
+            store.record(page(page));
+        }
+        assertEquals(PagingSnapshotStore.MAX_RECORDED_PAGES, store.getRecordedPageCount());
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.elegidocodes.networkpagination.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the page ownership of the ids claimed in a {@link SeenIdSet}.
+ */
+public class SeenIdSetTest {
+
+    @Test
+    public void sameId_onSamePage_isClaimedAgain() {
+        SeenIdSet seenIds = new SeenIdSet();
+
+        assertTrue(seenIds.claim(550, 3));
+        assertTrue(seenIds.claim(550, 3)); // Page loaded again
+        assertEquals(1, seenIds.size());
+    }
+
+    @Test
+    public void sameId_onOtherPage_isRejected() {
+        SeenIdSet seenIds = new SeenIdSet();
+
+        assertTrue(seenIds.claim(550, 3));
+        assertFalse(seenIds.claim(550, 4));
+        assertFalse(seenIds.claim(550, 2));
+        assertTrue(seenIds.claim(550, 3)); // Still owned by its first page
+    }
+
+    @Test
+    public void growing_keepsEveryIdAndPage() {
+        SeenIdSet seenIds = new SeenIdSet(4);
+
+        for (int id = 1; id <= 10_000; id++) {
+            assertTrue(seenIds.claim(id, id / 20 + 1));
+        }
+
+        assertEquals(10_000, seenIds.size());
+        for (int id = 1; id <= 10_000; id++) {
+            assertTrue(seenIds.claim(id, id / 20 + 1));
+            assertFalse(seenIds.claim(id, id / 20 + 2));
+        }
+        assertEquals(10_000, seenIds.size());
+    }
+
+    @Test
+    public void idZero_isNeverDeduplicated() {
+        SeenIdSet seenIds = new SeenIdSet();
+
+        assertTrue(seenIds.claim(0, 1));
+        assertTrue(seenIds.claim(0, 2));
+        assertEquals(0, seenIds.size());
+    }
+
+    @Test
+    public void negativeIds_areDeduplicated() {
+        SeenIdSet seenIds = new SeenIdSet(4);
+
+        for (int id = -1; id >= -100; id--) {
+            assertTrue(seenIds.claim(id, 1));
+        }
+
+        assertEquals(100, seenIds.size());
+        assertFalse(seenIds.claim(-42, 2));
+        assertTrue(seenIds.claim(42, 2)); // Distinct from its opposite
+    }
+
+    @Test
+    public void clear_forgetsEveryId() {
+        SeenIdSet seenIds = new SeenIdSet();
+        seenIds.claim(550, 1);
+
+        seenIds.clear();
+
+        assertEquals(0, seenIds.size());
+        assertTrue(seenIds.claim(550, 2));
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.elegidocodes.networkpagination.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.content.Context;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.manager.Lifecycle;
+import com.bumptech.glide.manager.LifecycleListener;
+import com.elegidocodes.networkpagination.ui.adapter.MovieAdapter;
+import com.elegidocodes.networkpagination.ui.adapter.MovieComparator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.reactivex.rxjava3.core.Single;
+
+/**
+ * Scrolls a grid of three rows at set speeds and checks when {@link FlingImageLoadListener}
+ * pauses and resumes the poster requests, and the order of the restarts.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class) // Not MyApp: no Hilt, no real network
+public class FlingImageLoadListenerTest {
+
+    private static final int ROW_HEIGHT = 100;
+    private static final int FRAME_MILLIS = 16;
+
+    /**
+     * Scroll per frame above the pause velocity at density 1: 2,500 px/s is 40 px per frame.
+     */
+    private static final int FAST_DY = 100;
+    private static final int SLOW_DY = 20;
+
+    private final List<String> events = new ArrayList<>();
+    private RecyclerView recyclerView;
+    private FlingImageLoadListener listener;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        RequestManager requestManager = new RecordingRequestManager(context, events);
+        MovieAdapter adapter = new MovieAdapter(new MovieComparator(), () -> requestManager,
+                (movie, poster, posterUrl) -> {
+                }, movieId -> Single.never()) {
+            @Override
+            public void prioritizePoster(@NonNull RecyclerView.ViewHolder holder) {
+                events.add("prioritize " + holder.getLayoutPosition());
+            }
+        };
+
+        recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        recyclerView.setAdapter(new RowAdapter());
+        recyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(3 * ROW_HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, 400, 3 * ROW_HEIGHT);
+
+        listener = new FlingImageLoadListener(adapter, () -> requestManager);
+        listener.attach(recyclerView);
+        listener.onScrolled(recyclerView, 0, 0); // Starts the frame clock
+    }
+
+    @After
+    public void tearDown() {
+        Glide.tearDown();
+    }
+
+    @Test
+    public void fastFling_pausesRequests() {
+        listener.onScrollStateChanged(recyclerView, RecyclerView.SCROLL_STATE_SETTLING);
+
+        scrollOneFrame(FAST_DY);
+        scrollOneFrame(FAST_DY);
+
+        assertEquals(Arrays.asList("pause"), events); // Paused once
+    }
+
+    @Test
+    public void slowFling_keepsLoading() {
+        listener.onScrollStateChanged(recyclerView, RecyclerView.SCROLL_STATE_SETTLING);
+
+        scrollOneFrame(SLOW_DY);
+
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void fastDrag_keepsLoading() {
+        listener.onScrollStateChanged(recyclerView, RecyclerView.SCROLL_STATE_DRAGGING);
+
+        scrollOneFrame(FAST_DY);
+
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void slowingDown_restartsVisiblePostersTopFirstThenResumes() {
+        listener.onScrollStateChanged(recyclerView, RecyclerView.SCROLL_STATE_SETTLING);
+        scrollOneFrame(FAST_DY);
+
+        scrollOneFrame(SLOW_DY);
+
+        assertEquals(Arrays.asList("pause", "prioritize 0", "prioritize 1", "prioritize 2", "resume"), events);
+    }
+
+    @Test
+    public void stopping_resumesRequests() {
+        listener.onScrollStateChanged(recyclerView, RecyclerView.SCROLL_STATE_SETTLING);
+        scrollOneFrame(FAST_DY);
+
+        listener.onScrollStateChanged(recyclerView, RecyclerView.SCROLL_STATE_IDLE);
+        listener.onScrollStateChanged(recyclerView, RecyclerView.SCROLL_STATE_IDLE);
+
+        assertEquals(Arrays.asList("pause", "prioritize 0", "prioritize 1", "prioritize 2", "resume"), events);
+    }
+
+    private void scrollOneFrame(int dy) {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(FRAME_MILLIS));
+        listener.onScrolled(recyclerView, 0, dy);
+    }
+
+    /**
+     * Request manager recording when its requests are paused and resumed.
+     */
+    private static final class RecordingRequestManager extends RequestManager {
+
+        private final List<String> events;
+
+        RecordingRequestManager(Context context, List<String> events) {
+            super(Glide.get(context), new NoLifecycle(), Collections::emptySet, context);
+            this.events = events;
+        }
+
+        @Override
+        public synchronized void pauseRequests() {
+            events.add("pause");
+        }
+
+        @Override
+        public synchronized void resumeRequests() {
+            events.add("resume");
+        }
+    }
+
+    private static final class NoLifecycle implements Lifecycle {
+
+        @Override
+        public void addListener(@NonNull LifecycleListener listener) {
+        }
+
+        @Override
+        public void removeListener(@NonNull LifecycleListener listener) {
+        }
+    }
+
+    /**
+     * Rows of a fixed height, standing in for the movie rows.
+     */
+    private static final class RowAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View row = new View(parent.getContext());
+            row.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT));
+            return new RecyclerView.ViewHolder(row) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return 10;
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.elegidocodes.networkpagination.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+
+/**
+ * Drives a fake screen through its lifecycle and checks what {@link StartedSubscriptions}
+ * delivers.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class StartedSubscriptionsTest {
+
+    private FakeScreen screen;
+    private StartedSubscriptions subscriptions;
+    private BehaviorSubject<Integer> source;
+    private List<Integer> delivered;
+
+    @Before
+    public void setUp() {
+        screen = new FakeScreen();
+        screen.registry.handleLifecycleEvent(Lifecycle.Event.ON_CREATE);
+        subscriptions = StartedSubscriptions.of(screen);
+        source = BehaviorSubject.createDefault(1);
+        delivered = new ArrayList<>();
+        subscriptions.add(source, delivered::add, throwable -> {
+            throw new AssertionError(throwable);
+        });
+    }
+
+    @Test
+    public void created_doesNotSubscribe() {
+        assertFalse(source.hasObservers());
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void started_deliversOnMainThread() {
+        screen.registry.handleLifecycleEvent(Lifecycle.Event.ON_START);
+        source.onNext(2);
+        assertTrue(delivered.isEmpty()); // Posted to the main looper
+
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(Arrays.asList(1, 2), delivered);
+    }
+
+    @Test
+    public void stopped_disposesUntilRestarted() {
+        screen.registry.handleLifecycleEvent(Lifecycle.Event.ON_START);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        screen.registry.handleLifecycleEvent(Lifecycle.Event.ON_STOP);
+        assertFalse(source.hasObservers());
+        source.onNext(2);
+        source.onNext(3);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(Collections.singletonList(1), delivered);
+
+        // Only the latest item is replayed
+        screen.registry.handleLifecycleEvent(Lifecycle.Event.ON_START);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(Arrays.asList(1, 3), delivered);
+    }
+
+    @Test
+    public void addedWhileStarted_subscribesAtOnce() {
+        screen.registry.handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+        List<String> results = new ArrayList<>();
+
+        subscriptions.add(Single.just("detail"), results::add, throwable -> {
+            throw new AssertionError(throwable);
+        });
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(Collections.singletonList("detail"), results);
+    }
+
+    @Test
+    public void destroyed_dropsRegistrations() {
+        screen.registry.handleLifecycleEvent(Lifecycle.Event.ON_START);
+        screen.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+
+        assertFalse(source.hasObservers());
+        assertEquals(0, screen.registry.getObserverCount());
+    }
+
+    private static class FakeScreen implements LifecycleOwner {
+
+        private final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.elegidocodes.networkpagination.viewmodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.elegidocodes.networkpagination.application.MemoryPressure;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Simulates scrolling sessions against a fake server with a fake clock and checks
+ * how {@link AdaptivePagingController} tunes the paging settings.
+ */
+public class AdaptivePagingControllerTest {
+
+    private static final int SPAN_COUNT = 2;
+    private static final int ROW_HEIGHT = 600;
+    private static final int VIEWPORT_HEIGHT = 1800;
+    private static final int FAST_FLING = 12_000;
+
+    private FakeClock clock;
+    private List<AdaptivePagingController.Settings> rebuilds;
+
+    @Before
+    public void setUp() {
+        clock = new FakeClock();
+        rebuilds = new ArrayList<>();
+    }
+
+    @Test
+    public void defaults_matchStaticConfiguration() {
+        AdaptivePagingController controller = newController(false);
+
+        AdaptivePagingController.Settings settings = controller.getSettings();
+        assertEquals(AdaptivePagingController.PAGE_SIZE, settings.getPageSize());
+        assertEquals(AdaptivePagingController.PREFETCH_DISTANCE, settings.getPrefetchDistance());
+        assertEquals(AdaptivePagingController.INITIAL_LOAD_SIZE, settings.getInitialLoadSize());
+        assertEquals(AdaptivePagingController.MAX_CACHE_SIZE, settings.getMaxSize());
+    }
+
+    @Test
+    public void fastFlingsOnSlowServer_increasePrefetchDistance() {
+        AdaptivePagingController controller = newController(false);
+        FakeServer server = new FakeServer(1_500, 200);
+
+        // Slow pages alone do not change the settings while the user is not flinging
+        clock.advance(AdaptivePagingController.MIN_REBUILD_INTERVAL_MILLIS);
+        controller.onLayout(SPAN_COUNT, ROW_HEIGHT, VIEWPORT_HEIGHT);
+        for (int page = 1; page <= 5; page++) {
+            controller.onPageLoaded(server.load());
+        }
+        assertTrue(rebuilds.isEmpty());
+
+        controller.onFling(FAST_FLING);
+
+        AdaptivePagingController.Settings settings = controller.getSettings();
+        assertEquals(1, rebuilds.size());
+        assertEquals(AdaptivePagingController.MAX_PREFETCH_DISTANCE, settings.getPrefetchDistance());
+        assertValidPagingConfig(settings);
+    }
+
+    @Test
+    public void slowScrollingOnFastServer_keepsDefaults() {
+        AdaptivePagingController controller = newController(false);
+        FakeServer server = new FakeServer(80, 20);
+
+        clock.advance(AdaptivePagingController.MIN_REBUILD_INTERVAL_MILLIS);
+        controller.onLayout(SPAN_COUNT, ROW_HEIGHT, VIEWPORT_HEIGHT);
+        for (int page = 1; page <= 20; page++) {
+            controller.onFling(1_000);
+            controller.onPageLoaded(server.load());
+        }
+
+        assertTrue(rebuilds.isEmpty());
+        assertEquals(AdaptivePagingController.PREFETCH_DISTANCE, controller.getSettings().getPrefetchDistance());
+    }
+
+    @Test
+    public void rebuilds_areRateLimited() {
+        AdaptivePagingController controller = newController(false);
+        FakeServer server = new FakeServer(1_500, 0);
+
+        // Too early after the initial pager: nothing is rebuilt
+        controller.onLayout(SPAN_COUNT, ROW_HEIGHT, VIEWPORT_HEIGHT);
+        controller.onFling(FAST_FLING);
+        controller.onPageLoaded(server.load());
+        assertTrue(rebuilds.isEmpty());
+
+        // Once the interval elapsed the next signal rebuilds once
+        clock.advance(AdaptivePagingController.MIN_REBUILD_INTERVAL_MILLIS);
+        controller.onFling(FAST_FLING);
+        assertEquals(1, rebuilds.size());
+
+        // The fling is forgotten, but the cooldown holds the current settings
+        clock.advance(AdaptivePagingController.FLING_MEMORY_MILLIS + 1);
+        controller.onPageLoaded(server.load());
+        assertEquals(1, rebuilds.size());
+
+        // After the cooldown the prefetch distance shrinks back
+        clock.advance(AdaptivePagingController.MIN_REBUILD_INTERVAL_MILLIS);
+        controller.onPageLoaded(server.load());
+        assertEquals(2, rebuilds.size());
+        assertEquals(AdaptivePagingController.PREFETCH_DISTANCE, controller.getSettings().getPrefetchDistance());
+    }
+
+    @Test
+    public void lowRamDevice_getsTighterMemoryCap() {
+        AdaptivePagingController controller = newController(true);
+        FakeServer server = new FakeServer(1_500, 200);
+
+        clock.advance(AdaptivePagingController.MIN_REBUILD_INTERVAL_MILLIS);
+        controller.onLayout(SPAN_COUNT, ROW_HEIGHT, VIEWPORT_HEIGHT);
+        for (int page = 1; page <= 5; page++) {
+            controller.onFling(FAST_FLING);
+            controller.onPageLoaded(server.load());
+        }
+
+        AdaptivePagingController.Settings settings = controller.getSettings();
+        assertEquals(AdaptivePagingController.LOW_RAM_MAX_CACHE_SIZE, settings.getMaxSize());
+        assertTrue(settings.getMaxSize() < AdaptivePagingController.MAX_CACHE_SIZE);
+        assertValidPagingConfig(settings);
+    }
+
+    @Test
+    public void memoryPressure_lowersMemoryCapAtOnce_andRestoresIt() {
+        AdaptivePagingController controller = newController(false);
+
+        // Within the cooldown of the first pager
+        controller.setMemoryPressure(MemoryPressure.MODERATE);
+        assertEquals(1, rebuilds.size());
+        assertEquals(AdaptivePagingController.LOW_RAM_MAX_CACHE_SIZE, controller.getSettings().getMaxSize());
+        assertValidPagingConfig(controller.getSettings());
+
+        controller.setMemoryPressure(MemoryPressure.CRITICAL);
+        AdaptivePagingController.Settings critical = controller.getSettings();
+        assertEquals(AdaptivePagingController.CRITICAL_PRESSURE_MAX_CACHE_SIZE, critical.getMaxSize());
+        assertTrue(critical.getInitialLoadSize() <= critical.getMaxSize());
+        assertValidPagingConfig(critical);
+
+        controller.setMemoryPressure(MemoryPressure.NONE);
+        assertEquals(3, rebuilds.size());
+        assertEquals(AdaptivePagingController.MAX_CACHE_SIZE, controller.getSettings().getMaxSize());
+        assertEquals(AdaptivePagingController.INITIAL_LOAD_SIZE, controller.getSettings().getInitialLoadSize());
+    }
+
+    private AdaptivePagingController newController(boolean lowRamDevice) {
+        AdaptivePagingController controller = new AdaptivePagingController(lowRamDevice, clock);
+        controller.setListener(rebuilds::add);
+        return controller;
+    }
+
+    /**
+     * Paging rejects configurations where maxSize is below pageSize + 2 * prefetchDistance.
+     */
+    private static void assertValidPagingConfig(AdaptivePagingController.Settings settings) {
+        assertTrue(settings.getMaxSize() >= settings.getPageSize() + 2 * settings.getPrefetchDistance());
+    }
+
+    private static class FakeClock implements AdaptivePagingController.Clock {
+
+        private long now;
+
+        @Override
+        public long elapsedRealtime() {
+            return now;
+        }
+
+        void advance(long millis) {
+            now += millis;
+        }
+
+    }
+
+    /**
+     * Server answering every page after a latency with some jitter, advancing the fake clock.
+     */
+    private class FakeServer {
+
+        private final long latencyMillis;
+        private final long jitterMillis;
+        private final Random random = new Random(42);
+
+        FakeServer(long latencyMillis, long jitterMillis) {
+            this.latencyMillis = latencyMillis;
+            this.jitterMillis = jitterMillis;
+        }
+
+        long load() {
+            long latency = latencyMillis + (jitterMillis > 0 ? random.nextInt((int) jitterMillis) : 0);
+            clock.advance(latency);
+            return latency;
+        }
+
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.elegidocodes.networkpagination.viewmodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.core.util.Pair;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.paging.AsyncPagingDataDiffer;
+import androidx.paging.ItemSnapshotList;
+import androidx.paging.Pager;
+import androidx.paging.PagingData;
+import androidx.paging.rxjava3.PagingRx;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import com.elegidocodes.networkpagination.application.LoadPriority;
+import com.elegidocodes.networkpagination.application.MyAPI;
+import com.elegidocodes.networkpagination.application.NetworkStateManager;
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.MovieDetail;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+import com.elegidocodes.networkpagination.repository.MovieFixtures;
+import com.elegidocodes.networkpagination.repository.MovieIndex;
+import com.elegidocodes.networkpagination.repository.MoviePagingSource;
+import com.elegidocodes.networkpagination.ui.adapter.MovieComparator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+import io.reactivex.rxjava3.processors.BehaviorProcessor;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import kotlinx.coroutines.Dispatchers;
+
+/**
+ * Pages movies through a {@link Pager} configured like the one of
+ * {@link MovieViewModel}, feeding a {@link MovieIndex}, filters them with
+ * {@link MovieViewModel#filtered} and checks what the grid's differ receives.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class) // Not MyApp: no Hilt, no real network
+public class FilteredPagingTest {
+
+    private static final int TOTAL_PAGES = 10;
+    private static final int INITIAL_PAGE = 3;
+
+    /**
+     * Genre of one movie in four of {@link MovieFixtures}: ids 41, 45, ... on page 3.
+     */
+    private static final int GENRE = 13;
+
+    private final MovieIndex movieIndex = new MovieIndex();
+    private final FakeScreen screen = new FakeScreen();
+    private final AsyncPagingDataDiffer<Movie> differ = new AsyncPagingDataDiffer<>(
+            new MovieComparator(), new NoUpdates(), Dispatchers.getMain(), Dispatchers.getMain());
+
+    @Before
+    public void setUp() {
+        // Pages load on the main looper, with the differ
+        RxJavaPlugins.setIoSchedulerHandler(scheduler -> Schedulers.trampoline());
+    }
+
+    @After
+    public void tearDown() {
+        screen.registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+        RxJavaPlugins.reset();
+    }
+
+    @Test
+    public void filtered_withoutPlaceholders_showsOnlyMatchingRows() {
+        ItemSnapshotList<Movie> grid = show(generation(false), MovieFilter.genre(GENRE));
+
+        assertEquals(0, grid.getPlaceholdersBefore());
+        assertEquals(0, grid.getPlaceholdersAfter());
+        assertTrue(grid.getItems().size() > 0);
+        for (Movie movie : grid.getItems()) {
+            assertNotNull(movie);
+            assertTrue(movie.getGenreIds().contains(GENRE));
+        }
+        assertEquals(Integer.valueOf(41), grid.getItems().get(0).getId()); // First match of the initial page
+    }
+
+    @Test
+    public void unfiltered_withPlaceholders_padsGridWithBlankRows() {
+        ItemSnapshotList<Movie> grid = show(generation(true), MovieFilter.NONE);
+
+        // The rows of the pages before the initial one
+        assertEquals((INITIAL_PAGE - 1) * MoviePagingSource.TMDB_PAGE_SIZE, grid.getPlaceholdersBefore());
+        assertEquals(Integer.valueOf(41), grid.getItems().get(0).getId());
+    }
+
+    @Test
+    public void filtered_withPlaceholders_showsNothing() {
+        ItemSnapshotList<Movie> grid = show(generation(true), MovieFilter.genre(GENRE));
+
+        assertEquals(0, grid.size()); // Waits for the pager without placeholders
+    }
+
+    @Test
+    public void settingFilter_waitsForPagerWithoutPlaceholders() {
+        PublishProcessor<Pair<PagingData<Movie>, Boolean>> generations = PublishProcessor.create();
+        BehaviorProcessor<MovieFilter> filter = BehaviorProcessor.createDefault(MovieFilter.NONE);
+        List<PagingData<Movie>> shown = new ArrayList<>();
+        Disposable subscription = MovieViewModel.filtered(generations, filter, movieIndex, Runnable::run)
+                .subscribe(shown::add);
+
+        PagingData<Movie> withPlaceholders = PagingData.empty();
+        generations.onNext(Pair.create(withPlaceholders, true));
+        filter.onNext(MovieFilter.genre(GENRE));
+        filter.onNext(MovieFilter.genre(GENRE + 1));
+        assertEquals(1, shown.size()); // Only the unfiltered data
+        assertSame(withPlaceholders, shown.get(0));
+
+        generations.onNext(Pair.create(PagingData.empty(), false));
+        assertEquals(2, shown.size());
+
+        filter.onNext(MovieFilter.NONE);
+        assertEquals(2, shown.size()); // Until the pager with placeholders delivers
+        subscription.dispose();
+    }
+
+    /**
+     * Pages the listing from {@link #INITIAL_PAGE}, feeding {@link #movieIndex}.
+     */
+    private Flowable<Pair<PagingData<Movie>, Boolean>> generation(boolean placeholders) {
+        AdaptivePagingController.Settings settings = new AdaptivePagingController(false, () -> 0L).getSettings();
+        NetworkStateManager networkState = new NetworkStateManager();
+        Pager<Integer, Movie> pager = new Pager<>(
+                MovieViewModel.pagingConfig(settings, placeholders),
+                INITIAL_PAGE,
+                () -> new MoviePagingSource(new FakeApi(), networkState, (page, latencyMillis) -> {
+                }, null, null, null, false, movieIndex, null, null)
+        );
+        return PagingRx.getFlowable(pager).map(pagingData -> Pair.create(pagingData, placeholders));
+    }
+
+    /**
+     * Shows the generation with the filter, as the grid does, and returns what it shows.
+     */
+    private ItemSnapshotList<Movie> show(Flowable<Pair<PagingData<Movie>, Boolean>> generation,
+                                         MovieFilter movieFilter) {
+        Disposable subscription = MovieViewModel
+                .filtered(generation, BehaviorProcessor.createDefault(movieFilter), movieIndex, Runnable::run)
+                .subscribe(pagingData -> differ.submitData(screen.getLifecycle(), pagingData));
+        try {
+            shadowOf(Looper.getMainLooper()).idle();
+            return differ.snapshot();
+        } finally {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * TMDB service answering every page from {@link MovieFixtures}.
+     */
+    private static final class FakeApi implements MyAPI {
+
+        @Override
+        public Single<PopularMoviesResult> getPopularMovies(int page, LoadPriority priority) {
+            return Single.fromCallable(() -> MovieFixtures.page(page, TOTAL_PAGES));
+        }
+
+        @Override
+        public Single<MovieDetail> getMovieDetail(int movieId, String appendToResponse, LoadPriority priority) {
+            return Single.error(new UnsupportedOperationException());
+        }
+    }
+
+    private static final class FakeScreen implements LifecycleOwner {
+
+        private final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+        FakeScreen() {
+            registry.handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+        }
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+    }
+
+    private static final class NoUpdates implements ListUpdateCallback {
+
+        @Override
+        public void onInserted(int position, int count) {
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.elegidocodes.networkpagination.work;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import android.app.Application;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.work.Configuration;
+import androidx.work.ListenableWorker;
+import androidx.work.NetworkType;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.WorkerFactory;
+import androidx.work.WorkerParameters;
+import androidx.work.testing.SynchronousExecutor;
+import androidx.work.testing.TestDriver;
+import androidx.work.testing.TestListenableWorkerBuilder;
+import androidx.work.testing.WorkManagerTestInitHelper;
+
+import com.elegidocodes.networkpagination.application.MyAPI;
+import com.elegidocodes.networkpagination.repository.DiskMoviePageCache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava3.RxJava3CallAdapterFactory;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Tests {@link PopularMoviesRefreshWorker} against a fake TMDB server, directly and
+ * through WorkManager's test driver.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class) // Not MyApp: no Hilt, no real network
+public class PopularMoviesRefreshWorkerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private Context context;
+    private MyAPI api;
+    private DiskMoviePageCache pageCache;
+    private volatile boolean serverFails;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                if (serverFails) {
+                    return new MockResponse().setResponseCode(503);
+                }
+                HttpUrl url = request.getRequestUrl();
+                String page = url != null ? url.queryParameter("page") : "1";
+                return new MockResponse().setBody("{\"page\":" + page
+                        + ",\"results\":[{\"id\":" + page + ",\"title\":\"Movie " + page + "\"}]"
+                        + ",\"total_pages\":500,\"total_results\":10000}");
+            }
+        });
+        server.start();
+
+        context = ApplicationProvider.getApplicationContext();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/3/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .addCallAdapterFactory(RxJava3CallAdapterFactory.create())
+                .build()
+                .create(MyAPI.class);
+        pageCache = new DiskMoviePageCache(folder.newFolder(), System::currentTimeMillis);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void createWork_cachesFirstPages() {
+        ListenableWorker.Result result = newWorker(0).createWork().blockingGet();
+
+        assertEquals(ListenableWorker.Result.success(), result);
+        assertEquals(PopularMoviesRefreshWorker.REFRESHED_PAGES, server.getRequestCount());
+        for (int page = 1; page <= PopularMoviesRefreshWorker.REFRESHED_PAGES; page++) {
+            DiskMoviePageCache.CachedPage cached = pageCache.get(page).blockingGet();
+            assertNotNull("Page " + page, cached);
+            assertTrue(cached.isFresh());
+            assertEquals("Movie " + page, cached.getResult().getResults().get(0).getTitle());
+        }
+    }
+
+    @Test
+    public void createWork_serverError_retriesThenFails() {
+        serverFails = true;
+
+        assertEquals(ListenableWorker.Result.retry(), newWorker(0).createWork().blockingGet());
+        assertEquals(ListenableWorker.Result.failure(), newWorker(2).createWork().blockingGet());
+    }
+
+    @Test
+    public void schedule_runsOnlyOnceConstraintsAreMet() throws Exception {
+        Configuration configuration = new Configuration.Builder()
+                .setMinimumLoggingLevel(Log.DEBUG)
+                .setExecutor(new SynchronousExecutor())
+                .setWorkerFactory(new FakeWorkerFactory())
+                .build();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context, configuration);
+        WorkManager workManager = WorkManager.getInstance(context);
+        TestDriver testDriver = WorkManagerTestInitHelper.getTestDriver(context);
+
+        PopularMoviesRefreshWorker.schedule(context);
+        PopularMoviesRefreshWorker.schedule(context); // Kept, not duplicated
+
+        List<WorkInfo> infos = workManager
+                .getWorkInfosForUniqueWork(PopularMoviesRefreshWorker.UNIQUE_WORK_NAME).get();
+        assertEquals(1, infos.size());
+        WorkInfo info = infos.get(0);
+        assertEquals(NetworkType.UNMETERED, info.getConstraints().getRequiredNetworkType());
+        assertTrue(info.getConstraints().requiresCharging());
+
+        testDriver.setPeriodDelayMet(info.getId());
+        assertEquals(0, server.getRequestCount()); // Still waiting for the constraints
+
+        testDriver.setAllConstraintsMet(info.getId());
+        assertEquals(PopularMoviesRefreshWorker.REFRESHED_PAGES, server.getRequestCount());
+        assertNotNull(pageCache.get(1).blockingGet());
+        // Periodic work goes back to enqueued for the next period
+        assertEquals(WorkInfo.State.ENQUEUED, workManager.getWorkInfoById(info.getId()).get().getState());
+    }
+
+    private PopularMoviesRefreshWorker newWorker(int runAttemptCount) {
+        return TestListenableWorkerBuilder.from(context, PopularMoviesRefreshWorker.class)
+                .setRunAttemptCount(runAttemptCount)
+                .setWorkerFactory(new FakeWorkerFactory())
+                .build();
+    }
+
+    /**
+     * Creates the worker with the fake server, as the Hilt factory does with the real one.
+     */
+    private class FakeWorkerFactory extends WorkerFactory {
+        @Override
+        public ListenableWorker createWorker(@NonNull Context appContext, @NonNull String workerClassName,
+                                             @NonNull WorkerParameters workerParameters) {
+            if (!PopularMoviesRefreshWorker.class.getName().equals(workerClassName)) return null;
+            return new PopularMoviesRefreshWorker(appContext, workerParameters, api, pageCache);
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// The app classes under measure run on a plain JVM: they are compiled from the app
+// sources, so the benchmarks always measure the current code.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/elegidocodes/networkpagination/application/TmdbAuthInterceptor.java",
+                "com/elegidocodes/networkpagination/model/Movie.java",
+                "com/elegidocodes/networkpagination/model/PopularMoviesResult.java",
+                "com/elegidocodes/networkpagination/repository/MoviePage.java",
+                "com/elegidocodes/networkpagination/repository/MoviePageFormat.java",
+                "com/elegidocodes/networkpagination/repository/PageAssembler.java",
+                "com/elegidocodes/networkpagination/repository/PageLayout.java",
+                "com/elegidocodes/networkpagination/repository/SeenIdSet.java",
+                "com/elegidocodes/networkpagination/ui/adapter/MovieDiff.java"
+            )
+        }
+    }
+}
+
+dependencies {
+    implementation(libs.gson)
+    implementation(libs.okhttp)
+    implementation(libs.paging.common)
+    implementation(libs.annotation)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    fork = 2
+    warmupIterations = 3
+    iterations = 5
+    // Run a subset with e.g. -Pjmh.includes=GsonParsing
+    providers.gradleProperty("jmh.includes").orNull?.let { includes = listOf(it) }
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+}
@@ -0,0 +1,138 @@
+package com.elegidocodes.networkpagination.benchmark;
+
+import com.elegidocodes.networkpagination.application.TmdbAuthInterceptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * The cost of authenticating one page request with {@link TmdbAuthInterceptor},
+ * against the previous interceptor, which rebuilt the URL with
+ * {@code addQueryParameter} on every call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthInterceptorBenchmark {
+
+    private static final String API_KEY = "0123456789abcdef 0123456789abcdef";
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.token";
+    private static final Request PAGE_REQUEST = new Request.Builder()
+            .url("https://api.themoviedb.org/3/movie/popular?page=7")
+            .build();
+
+    private final Interceptor legacy = chain -> {
+        Request original = chain.request();
+        HttpUrl url = original.url().newBuilder()
+                .addQueryParameter("api_key", API_KEY)
+                .build();
+        return chain.proceed(original.newBuilder().url(url).build());
+    };
+    private final Interceptor query = TmdbAuthInterceptor.apiKeyQuery(API_KEY);
+    private final Interceptor bearer = TmdbAuthInterceptor.bearer(TOKEN);
+    private final FakeChain chain = new FakeChain(PAGE_REQUEST);
+
+    @Benchmark
+    public Response legacy() throws IOException {
+        return legacy.intercept(chain);
+    }
+
+    @Benchmark
+    public Response apiKeyQuery() throws IOException {
+        return query.intercept(chain);
+    }
+
+    @Benchmark
+    public Response bearer() throws IOException {
+        return bearer.intercept(chain);
+    }
+
+    /**
+     * Chain answering every request with an empty 200.
+     */
+    private static final class FakeChain implements Interceptor.Chain {
+
+        /**
+         * Creates the calls of {@link #call()}, which are never executed.
+         */
+        private static final OkHttpClient CLIENT = new OkHttpClient();
+
+        private final Request request;
+
+        FakeChain(Request request) {
+            this.request = request;
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response proceed(Request request) {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_2)
+                    .code(200)
+                    .message("OK")
+                    .build();
+        }
+
+        @Override
+        public Connection connection() {
+            return null;
+        }
+
+        @Override
+        public Call call() {
+            return CLIENT.newCall(request);
+        }
+
+        @Override
+        public int connectTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withConnectTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int readTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withReadTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int writeTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withWriteTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.elegidocodes.networkpagination.benchmark;
+
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a {@code /movie/popular} page with the type adapter the Retrofit Gson
+ * converter uses, from a reader as the converter does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GsonParsingBenchmark {
+
+    private TypeAdapter<PopularMoviesResult> adapter;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        adapter = new Gson().getAdapter(PopularMoviesResult.class);
+        json = MovieFixtures.pageJson(1, 42);
+    }
+
+    @Benchmark
+    public PopularMoviesResult parsePage() throws IOException {
+        return adapter.fromJson(new StringReader(json));
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.elegidocodes.networkpagination.benchmark;
+
+import com.elegidocodes.networkpagination.model.Movie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Movie#equals} and {@link Movie#hashCode}, called by the id set of the
+ * genre index and by every list lookup of a movie.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MovieBenchmark {
+
+    private Movie movie;
+    private Movie sameMovie;
+    private Movie otherMovie;
+
+    @Setup
+    public void setUp() {
+        List<Movie> page = MovieFixtures.page(1, 42);
+        movie = page.get(0);
+        sameMovie = MovieFixtures.copy(movie);
+        otherMovie = page.get(1);
+    }
+
+    @Benchmark
+    public boolean equalsSameId() {
+        return movie.equals(sameMovie);
+    }
+
+    @Benchmark
+    public boolean equalsOtherId() {
+        return movie.equals(otherMovie);
+    }
+
+    @Benchmark
+    public int computeHashCode() {
+        return movie.hashCode();
+    }
+
+}
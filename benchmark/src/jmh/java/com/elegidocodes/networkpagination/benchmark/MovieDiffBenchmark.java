@@ -0,0 +1,54 @@
+package com.elegidocodes.networkpagination.benchmark;
+
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.ui.adapter.MovieDiff;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The diff rules of {@code MovieComparator}, over the pairs {@code DiffUtil} compares
+ * when a refreshed page replaces the same page: every movie against its new copy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MovieDiffBenchmark {
+
+    private List<Movie> oldPage;
+    private List<Movie> newPage;
+
+    @Setup
+    public void setUp() {
+        oldPage = MovieFixtures.page(1, 42);
+        newPage = new ArrayList<>(oldPage.size());
+        for (Movie movie : oldPage) {
+            newPage.add(MovieFixtures.copy(movie));
+        }
+    }
+
+    @Benchmark
+    public void areItemsTheSame(Blackhole blackhole) {
+        for (int i = 0; i < oldPage.size(); i++) {
+            blackhole.consume(MovieDiff.sameItem(oldPage.get(i), newPage.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void areContentsTheSame(Blackhole blackhole) {
+        for (int i = 0; i < oldPage.size(); i++) {
+            blackhole.consume(MovieDiff.sameContents(oldPage.get(i), newPage.get(i)));
+        }
+    }
+
+}
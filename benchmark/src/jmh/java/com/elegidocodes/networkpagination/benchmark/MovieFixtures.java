@@ -0,0 +1,141 @@
+package com.elegidocodes.networkpagination.benchmark;
+
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Movies and TMDB pages shaped like the real ones: 20 movies per page, overviews of
+ * 150 to 600 characters, a few genres each. Generated from a fixed seed, so every run
+ * measures the same data.
+ */
+final class MovieFixtures {
+
+    static final int PAGE_SIZE = 20;
+
+    private static final String[] WORDS = {
+            "a", "young", "detective", "returns", "to", "the", "city", "where", "her",
+            "family", "vanished", "years", "ago", "and", "uncovers", "conspiracy", "that",
+            "reaches", "far", "beyond", "streets", "she", "once", "knew", "while", "an",
+            "unlikely", "ally", "helps", "face", "past", "before", "it", "is", "too", "late"
+    };
+
+    private static final String[] LANGUAGES = {"en", "en", "en", "fr", "es", "ja", "ko"};
+
+    private static final int[] GENRES = {28, 12, 16, 35, 80, 99, 18, 10751, 14, 36, 27, 9648, 10749, 878, 53};
+
+    private MovieFixtures() {
+        // Utility class
+    }
+
+    /**
+     * @param page Page number, from 1
+     * @param seed Seed of the generated fields
+     * @return the movies of the page, with ids unique across pages
+     */
+    static List<Movie> page(int page, long seed) {
+        Random random = new Random(seed * 31 + page);
+        List<Movie> movies = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            movies.add(movie((page - 1) * PAGE_SIZE + i + 1, random));
+        }
+        return movies;
+    }
+
+    /**
+     * @param page Page number, from 1
+     * @param seed Seed of the generated fields
+     * @return the page as TMDB serves it, about 16 KB of JSON
+     */
+    static String pageJson(int page, long seed) {
+        PopularMoviesResult result = new PopularMoviesResult();
+        result.setPage(page);
+        result.setResults(page(page, seed));
+        result.setTotalPages(48_000);
+        result.setTotalResults(960_000);
+        return new Gson().toJson(result);
+    }
+
+    /**
+     * @param movie The movie to copy
+     * @return a distinct instance with the same fields
+     */
+    static Movie copy(Movie movie) {
+        Movie copy = new Movie();
+        copy.setId(movie.getId());
+        copy.setTitle(movie.getTitle());
+        copy.setOriginalTitle(movie.getOriginalTitle());
+        copy.setOriginalLanguage(movie.getOriginalLanguage());
+        copy.setOverview(movie.getOverview());
+        copy.setPosterPath(movie.getPosterPath());
+        copy.setBackdropPath(movie.getBackdropPath());
+        copy.setGenreIds(movie.getGenreIds());
+        copy.setReleaseDate(movie.getReleaseDate());
+        copy.setPopularity(movie.getPopularity());
+        copy.setVoteAverage(movie.getVoteAverage());
+        copy.setVoteCount(movie.getVoteCount());
+        copy.setAdult(movie.getAdult());
+        copy.setVideo(movie.getVideo());
+        return copy;
+    }
+
+    private static Movie movie(int id, Random random) {
+        String title = sentence(random, 1 + random.nextInt(5));
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        movie.setOriginalTitle(title);
+        movie.setOriginalLanguage(LANGUAGES[random.nextInt(LANGUAGES.length)]);
+        movie.setOverview(overview(random, 150 + random.nextInt(450)));
+        movie.setPosterPath(path(random));
+        movie.setBackdropPath(path(random));
+        movie.setGenreIds(Arrays.asList(
+                GENRES[random.nextInt(GENRES.length)],
+                GENRES[random.nextInt(GENRES.length)],
+                GENRES[random.nextInt(GENRES.length)]));
+        movie.setReleaseDate(String.format("%d-%02d-%02d",
+                1970 + random.nextInt(56), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+        movie.setPopularity(random.nextDouble() * 5_000);
+        movie.setVoteAverage(Math.round(random.nextDouble() * 100) / 10.0);
+        movie.setVoteCount(random.nextInt(30_000));
+        movie.setAdult(false);
+        movie.setVideo(false);
+        return movie;
+    }
+
+    private static String overview(Random random, int length) {
+        StringBuilder overview = new StringBuilder(length + 16);
+        while (overview.length() < length) {
+            overview.append(sentence(random, 6 + random.nextInt(10))).append(". ");
+        }
+        return overview.toString().trim();
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (i == 0) {
+                sentence.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                sentence.append(' ').append(word);
+            }
+        }
+        return sentence.toString();
+    }
+
+    private static String path(Random random) {
+        String alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+        StringBuilder path = new StringBuilder("/");
+        for (int i = 0; i < 27; i++) {
+            path.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return path.append(".jpg").toString();
+    }
+
+}
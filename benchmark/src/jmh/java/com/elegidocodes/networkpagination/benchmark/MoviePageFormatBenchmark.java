@@ -0,0 +1,52 @@
+package com.elegidocodes.networkpagination.benchmark;
+
+import com.elegidocodes.networkpagination.model.PopularMoviesResult;
+import com.elegidocodes.networkpagination.repository.MoviePage;
+import com.elegidocodes.networkpagination.repository.MoviePageFormat;
+import com.google.gson.Gson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a cached page in {@code MoviePageFormat}: every field, or only the grid
+ * fields the paging source needs. The page is the one {@link GsonParsingBenchmark}
+ * parses, so the two compare directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoviePageFormatBenchmark {
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        PopularMoviesResult result = new Gson().fromJson(MovieFixtures.pageJson(1, 42), PopularMoviesResult.class);
+        encoded = MoviePageFormat.encode(result);
+    }
+
+    @Benchmark
+    public PopularMoviesResult decodeEveryField() {
+        return MoviePageFormat.decode(ByteBuffer.wrap(encoded));
+    }
+
+    @Benchmark
+    public int readGridFields() {
+        MoviePage page = MoviePageFormat.read(ByteBuffer.wrap(encoded));
+        int checksum = 0;
+        for (int i = 0; i < page.size(); i++) {
+            checksum += page.getId(i) + page.getTitle(i).length() + page.getPosterPath(i).length();
+        }
+        return checksum;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.elegidocodes.networkpagination.benchmark;
+
+import androidx.paging.PagingSource.LoadResult;
+
+import com.elegidocodes.networkpagination.model.Movie;
+import com.elegidocodes.networkpagination.repository.PageAssembler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The conversion of a TMDB page into a load result by {@code MoviePagingSource}:
+ * keys, placeholder counts, duplicate removal and, in lean-row mode, the copy into
+ * grid rows. Each invocation assembles the next page of a generation, as a scroll does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PageAssemblyBenchmark {
+
+    /**
+     * Pages assembled per generation, before a refresh starts a new one.
+     */
+    private static final int PAGES = 500;
+
+    @Param({"true", "false"})
+    public boolean leanRows;
+
+    private final List<List<Movie>> pages = new ArrayList<>(PAGES);
+    private PageAssembler assembler;
+    private int page;
+
+    @Setup(Level.Trial)
+    public void generatePages() {
+        for (int i = 1; i <= PAGES; i++) {
+            pages.add(MovieFixtures.page(i, 42));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void newGeneration() {
+        assembler = new PageAssembler(leanRows);
+        page = 0;
+    }
+
+    @Benchmark
+    public LoadResult<Integer, Movie> assemble() {
+        if (page == PAGES) {
+            // Back to the top with a new generation, as a refresh does
+            newGeneration();
+        }
+        List<Movie> movies = pages.get(page++);
+        return assembler.assemble(movies, page, PAGES, PAGES * MovieFixtures.PAGE_SIZE);
+    }
+
+}
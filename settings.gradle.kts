@@ -22,3 +22,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "Network Pagination"
 include(":app")
+include(":benchmark")